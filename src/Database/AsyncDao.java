@@ -0,0 +1,151 @@
+package Database;
+
+import Entity.Organizer;
+import Entity.Participant;
+import Entity.Team;
+import Log.Logger;
+import Threads.WorkerPools;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous access to the participant, team and authentication DAOs. Each call runs the
+ * blocking DAO method on a virtual thread of the shared I/O pool and returns a CompletableFuture.
+ * A call that exceeds its timeout, or whose future is cancelled, fails with TimeoutException or
+ * CancellationException and has its in-flight statements cancelled on the server.
+ * The timeout is also the call's Deadline, so its queries carry matching query timeouts
+ * and a call made within a caller's Deadline never outlives it.
+ * Like the DAOs themselves, database errors still surface as null, false or empty results.
+ */
+public final class AsyncDao {
+    private static final long DEFAULT_TIMEOUT_MILLIS = DatabaseConfig.getLong("db.async.timeout.ms", 10_000);
+
+    private AsyncDao() {}
+
+    /**
+     * Run any DAO work asynchronously with the operation's latency budget as its timeout
+     */
+    public static <T> CompletableFuture<T> supply(String operation, Callable<T> query) {
+        return supply(operation, Deadline.budgetFor(operation, DEFAULT_TIMEOUT_MILLIS), query);
+    }
+
+    /**
+     * Run any DAO work asynchronously; statements it creates are cancelled if it times out or is cancelled
+     */
+    public static <T> CompletableFuture<T> supply(String operation, long timeoutMillis, Callable<T> query) {
+        // Already inside an async call: run inline rather than wait on the bounded pool from within it
+        if (DaoCall.current() != null) {
+            try {
+                return CompletableFuture.completedFuture(query.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        DaoCall call = new DaoCall(operation);
+        Deadline deadline = Deadline.of(operation, timeoutMillis);
+        long timeout = deadline.remainingMillis();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = WorkerPools.io().submit(() -> {
+                call.bind();
+                deadline.bind();
+                try {
+                    result.complete(query.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    deadline.close();
+                    call.unbind();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Logger.warning("Async " + operation + " rejected: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+
+        result.orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((value, e) -> {
+            if (e instanceof TimeoutException) {
+                deadline.reportExceeded();
+            }
+            if (e instanceof TimeoutException || e instanceof CancellationException) {
+                Logger.warning("Async " + operation + (e instanceof TimeoutException
+                        ? " timed out after " + timeout + " ms" : " cancelled") + "; cancelling its statements");
+                call.cancel();
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wrap a new connection so an async call bound to this thread can cancel its statements.
+     * DatabaseConnection does this for every connection it opens; outside an async call the
+     * connection is returned unchanged.
+     */
+    public static Connection track(Connection connection) {
+        DaoCall call = DaoCall.current();
+        return call == null || connection == null ? connection : call.track(connection);
+    }
+
+    // Participants
+
+    public static CompletableFuture<Participant> getParticipantById(String participantId) {
+        return supply("getParticipantById", () -> ParticipantDAO.getParticipantById(participantId));
+    }
+
+    public static CompletableFuture<List<Participant>> getAllParticipants() {
+        return supply("getAllParticipants", ParticipantDAO::getAllParticipants);
+    }
+
+    public static CompletableFuture<List<Participant>> getUnassignedParticipants(String organizerId) {
+        return supply("getUnassignedParticipants", () -> ParticipantDAO.getUnassignedParticipants(organizerId));
+    }
+
+    public static CompletableFuture<Integer> getParticipantCount() {
+        return supply("getParticipantCount", ParticipantDAO::getParticipantCount);
+    }
+
+    public static CompletableFuture<Boolean> insertParticipant(Participant participant, String password) {
+        return supply("insertParticipant", () -> ParticipantDAO.insertParticipant(participant, password));
+    }
+
+    public static CompletableFuture<Integer> bulkInsertParticipants(List<Participant> participants) {
+        return supply("bulkInsertParticipants", () -> ParticipantDAO.bulkInsertParticipants(participants));
+    }
+
+    // Teams
+
+    public static CompletableFuture<List<Team>> getAllTeams(String organizerId) {
+        return supply("getAllTeams", () -> TeamDAO.getAllTeamsFromDatabase(organizerId));
+    }
+
+    public static CompletableFuture<Team> getTeamById(int teamId) {
+        return supply("getTeamById", () -> TeamDAO.getTeamById(teamId));
+    }
+
+    public static CompletableFuture<Integer> getParticipantTeamId(String participantId) {
+        return supply("getParticipantTeamId", () -> TeamDAO.getParticipantTeamId(participantId));
+    }
+
+    // Authentication
+
+    public static CompletableFuture<Participant> authenticateParticipant(String participantId, String password) {
+        return supply("authenticateParticipant", () -> AuthenticationService.authenticateParticipant(participantId, password));
+    }
+
+    public static CompletableFuture<Organizer> authenticateOrganizer(String organizerId, String password) {
+        return supply("authenticateOrganizer", () -> AuthenticationService.authenticateOrganizer(organizerId, password));
+    }
+
+    public static CompletableFuture<Boolean> participantExists(String participantId) {
+        return supply("participantExists", () -> AuthenticationService.participantExists(participantId));
+    }
+
+    public static CompletableFuture<Boolean> organizerExists(String organizerId) {
+        return supply("organizerExists", () -> AuthenticationService.organizerExists(organizerId));
+    }
+}
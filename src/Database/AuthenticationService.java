@@ -12,7 +12,13 @@ public class AuthenticationService {
      * Authenticate participant using ID and password (Name + ID)
      */
     public static Participant authenticateParticipant(String participantId, String password) {
+        if (!KeyFilters.mightContainParticipant(participantId)) {
+            Logger.warning("Participant not found: " + participantId);
+            return null;
+        }
+
         String query = "SELECT * FROM participants WHERE id = ?";
+        long cacheVersion = ParticipantCache.version(participantId);
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -27,15 +33,9 @@ public class AuthenticationService {
                     if (storedPassword.equals(password)) {
                         Logger.info("Participant authenticated successfully: " + participantId);
 
-                        return new Participant(
-                                rs.getString("id"),
-                                rs.getString("name"),
-                                rs.getString("email"),
-                                rs.getString("preferred_game"),
-                                rs.getInt("skill_level"),
-                                rs.getString("preferred_role"),
-                                rs.getInt("personality_score")
-                        );
+                        Participant participant = new ParticipantRowMapper(rs).map(rs);
+                        ParticipantCache.put(participant, cacheVersion);
+                        return participant;
                     } else {
                         Logger.warning("Invalid password for participant: " + participantId);
                     }
@@ -54,6 +54,11 @@ public class AuthenticationService {
      * Authenticate organizer using ID and password
      */
     public static Organizer authenticateOrganizer(String organizerId, String password) {
+        if (!KeyFilters.mightContainOrganizer(organizerId)) {
+            Logger.warning("Organizer not found: " + organizerId);
+            return null;
+        }
+
         String query = "SELECT * FROM organizers WHERE id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
@@ -107,6 +112,7 @@ public class AuthenticationService {
 
             if (rowsAffected > 0) {
                 Logger.info("Organizer registered successfully: " + organizer.getId());
+                KeyFilters.addOrganizer(organizer);
                 return true;
             }
         } catch (SQLException e) {
@@ -132,6 +138,13 @@ public class AuthenticationService {
      * Check if participant ID exists
      */
     public static boolean participantExists(String participantId) {
+        if (ParticipantCache.contains(participantId)) {
+            return true;
+        }
+        if (!KeyFilters.mightContainParticipant(participantId)) {
+            return false;
+        }
+
         String query = "SELECT COUNT(*) FROM participants WHERE id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
@@ -155,6 +168,10 @@ public class AuthenticationService {
      * Check if organizer ID exists
      */
     public static boolean organizerExists(String organizerId) {
+        if (!KeyFilters.mightContainOrganizer(organizerId)) {
+            return false;
+        }
+
         String query = "SELECT COUNT(*) FROM organizers WHERE id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
@@ -173,4 +190,54 @@ public class AuthenticationService {
 
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     * Check if a participant already uses this email
+     */
+    public static boolean participantEmailExists(String email) {
+        if (!KeyFilters.mightContainParticipantEmail(email)) {
+            return false;
+        }
+        return countMatches("SELECT COUNT(*) FROM participants WHERE email = ?", email);
+    }
+
+    /**
+     * Check if a participant other than this one already uses this email
+     */
+    public static boolean participantEmailTaken(String email, String participantId) {
+        if (!KeyFilters.mightContainParticipantEmail(email)) {
+            return false;
+        }
+        return countMatches("SELECT COUNT(*) FROM participants WHERE email = ? AND id <> ?", email, participantId.toUpperCase());
+    }
+
+    /**
+     * Check if an organizer already uses this email
+     */
+    public static boolean organizerEmailExists(String email) {
+        if (!KeyFilters.mightContainOrganizerEmail(email)) {
+            return false;
+        }
+        return countMatches("SELECT COUNT(*) FROM organizers WHERE email = ?", email);
+    }
+
+    private static boolean countMatches(String query, String... values) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            for (int i = 0; i < values.length; i++) {
+                pstmt.setString(i + 1, values[i].trim());
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error checking email existence", e);
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,91 @@
+package Database;
+
+import Log.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One asynchronous DAO call. While a call is bound to the running thread, connections opened
+ * through DatabaseConnection are wrapped so every statement they create is recorded; cancelling
+ * the call cancels those statements on the server.
+ */
+final class DaoCall {
+    private static final ThreadLocal<DaoCall> current = new ThreadLocal<>();
+
+    private final String operation;
+    // A call creates few statements; a list avoids relying on driver equals/hashCode
+    private final List<Statement> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled = false;
+
+    DaoCall(String operation) {
+        this.operation = operation;
+    }
+
+    static DaoCall current() {
+        return current.get();
+    }
+
+    void bind() {
+        current.set(this);
+    }
+
+    void unbind() {
+        current.remove();
+        statements.clear();
+    }
+
+    String getOperation() {
+        return operation;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancel every statement the call has created; statements created afterwards fail
+     */
+    void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // Already finished or closed
+                Logger.debug("Statement cancel ignored for " + operation + ": " + e.getMessage());
+            }
+        }
+    }
+
+    Connection track(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DaoCall.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    boolean createsStatement = name.equals("createStatement") || name.startsWith("prepare");
+                    if (createsStatement && cancelled) {
+                        throw new SQLException("Operation cancelled: " + operation);
+                    }
+
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+
+                    if (result instanceof Statement statement) {
+                        statements.add(statement);
+                        if (cancelled) {
+                            statement.cancel();
+                        }
+                    }
+                    return result;
+                });
+    }
+}
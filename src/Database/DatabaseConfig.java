@@ -0,0 +1,77 @@
+package Database;
+
+import Log.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Settings from DatabaseConfig.properties in the working directory (or the file named by
+ * -Dteammate.config). A system property with the same key overrides the file; callers
+ * supply the default used when a key is missing or malformed.
+ */
+public final class DatabaseConfig {
+    private static final String DEFAULT_FILE = "DatabaseConfig.properties";
+
+    private DatabaseConfig() {}
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = Holder.PROPERTIES.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            Logger.warning("Invalid integer for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            Logger.warning("Invalid number for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    // Loaded on first use
+    private static final class Holder {
+        private static final Properties PROPERTIES = load();
+
+        private static Properties load() {
+            Properties properties = new Properties();
+            Path path = Paths.get(System.getProperty("teammate.config", DEFAULT_FILE));
+            if (!Files.isRegularFile(path)) {
+                Logger.warning("Configuration file not found: " + path + " (using defaults)");
+                return properties;
+            }
+
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+                Logger.info("Loaded configuration from " + path);
+            } catch (IOException e) {
+                Logger.error("Error reading configuration file " + path, e);
+            }
+            return properties;
+        }
+    }
+}
@@ -8,6 +8,15 @@ public class DatabaseConnection {
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = ""; // XAMPP default has no password
 
+    // Socket timeout stays above the query timeouts so the server cancels a slow query first
+    private static final long CONNECT_TIMEOUT_MILLIS = DatabaseConfig.getLong("db.connect.timeout.ms", 3000);
+    private static final long SOCKET_TIMEOUT_MILLIS = DatabaseConfig.getLong("db.socket.timeout.ms", 60000);
+    private static final long SOCKET_MARGIN_MILLIS = 5000;
+
+    static {
+        DriverManager.setLoginTimeout((int) Math.max(1, (CONNECT_TIMEOUT_MILLIS + 999) / 1000));
+    }
+
     // Remove static connection - get fresh connection each time
     private DatabaseConnection() {}
 
@@ -19,8 +28,10 @@ public class DatabaseConnection {
         Connection connection = null;
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            connection = DriverManager.getConnection(DB_URL + urlParameters(), DB_USER, DB_PASSWORD);
             Logger.debug("Database connection established");
+            // Statements get query timeouts from the current Deadline, and an AsyncDao call can cancel them
+            connection = AsyncDao.track(TimedConnection.wrap(connection));
         } catch (ClassNotFoundException e) {
             Logger.error("MySQL JDBC Driver not found", e);
             System.err.println("ERROR: MySQL JDBC Driver not found. Please add mysql-connector-java to your classpath.");
@@ -32,6 +43,35 @@ public class DatabaseConnection {
         return connection;
     }
 
+    /**
+     * Like getConnection, but a failure to connect is thrown instead of returning null
+     */
+    static Connection openConnection() throws SQLException {
+        Connection connection = getConnection();
+        if (connection == null) {
+            throw new SQLException("Database connection unavailable");
+        }
+        return connection;
+    }
+
+    /**
+     * Connect and socket timeouts for the JDBC URL; connecting never waits past the current Deadline,
+     * and a Deadline longer than the socket timeout (migrations, bulk inserts, formation saves)
+     * raises the socket timeout past it. Batched inserts are rewritten into multi-row statements,
+     * otherwise the driver sends a JDBC batch one statement at a time.
+     */
+    private static String urlParameters() {
+        long connectTimeout = CONNECT_TIMEOUT_MILLIS;
+        long socketTimeout = SOCKET_TIMEOUT_MILLIS;
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            connectTimeout = Math.max(1, Math.min(connectTimeout, deadline.remainingMillis()));
+            socketTimeout = Math.max(socketTimeout, deadline.remainingMillis() + SOCKET_MARGIN_MILLIS);
+        }
+        return "?connectTimeout=" + connectTimeout + "&socketTimeout=" + socketTimeout
+                + "&rewriteBatchedStatements=true";
+    }
+
     /**
      * Test database connection
      */
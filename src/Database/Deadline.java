@@ -0,0 +1,159 @@
+package Database;
+
+import Log.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency budget for one operation. While a deadline is bound to the running thread, every
+ * statement created through DatabaseConnection gets a query timeout equal to the time left,
+ * and no statement is started once it has expired. A deadline started inside another one
+ * never outlives it, so all queries of a composite operation share the outer budget.
+ *
+ * Budgets come from db.budget.<operation>.ms in DatabaseConfig.properties, falling back to
+ * db.budget.default.ms. Operations that run out of budget are counted per operation.
+ */
+public final class Deadline implements AutoCloseable {
+    private static final long DEFAULT_BUDGET_MILLIS = DatabaseConfig.getLong("db.budget.default.ms", 5000);
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+    private static final Map<String, LongAdder> exceededByOperation = new ConcurrentHashMap<>();
+    private static final AtomicLong exceededCount = new AtomicLong();
+
+    private final String operation;
+    private final long budgetMillis;
+    private final long expiresAtNanos;
+    // Set when the expiry was inherited from an enclosing deadline, which then owns the overrun
+    private final Deadline owner;
+    private final AtomicBoolean reported = new AtomicBoolean(false);
+    private Deadline previous;
+    private boolean bound = false;
+
+    private Deadline(String operation, long budgetMillis, Deadline enclosing) {
+        long expiresAt = System.nanoTime() + Math.max(0, budgetMillis) * 1_000_000L;
+        if (enclosing != null && enclosing.expiresAtNanos - expiresAt <= 0) {
+            this.expiresAtNanos = enclosing.expiresAtNanos;
+            this.owner = enclosing.owner != null ? enclosing.owner : enclosing;
+        } else {
+            this.expiresAtNanos = expiresAt;
+            this.owner = null;
+        }
+        this.operation = operation;
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Configured budget for an operation
+     */
+    public static long budgetFor(String operation) {
+        return budgetFor(operation, DEFAULT_BUDGET_MILLIS);
+    }
+
+    public static long budgetFor(String operation, long defaultMillis) {
+        return DatabaseConfig.getLong("db.budget." + operation + ".ms", defaultMillis);
+    }
+
+    /**
+     * Start the configured budget for an operation on this thread; close it when the operation ends
+     */
+    public static Deadline start(String operation) {
+        return start(operation, budgetFor(operation));
+    }
+
+    public static Deadline start(String operation, long budgetMillis) {
+        return of(operation, budgetMillis).bind();
+    }
+
+    /**
+     * Create a deadline, capped by the one bound to this thread, to be bound later on another thread
+     */
+    public static Deadline of(String operation, long budgetMillis) {
+        return new Deadline(operation, budgetMillis, current.get());
+    }
+
+    /**
+     * The deadline bound to this thread, or null if none
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    public Deadline bind() {
+        if (bound) {
+            throw new IllegalStateException("Deadline already bound: " + operation);
+        }
+        previous = current.get();
+        current.set(this);
+        bound = true;
+        return this;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Count this operation as over budget; repeated reports of the same overrun count once
+     */
+    public void reportExceeded() {
+        if (owner != null) {
+            owner.reportExceeded();
+            return;
+        }
+        if (reported.compareAndSet(false, true)) {
+            exceededCount.incrementAndGet();
+            exceededByOperation.computeIfAbsent(operation, k -> new LongAdder()).increment();
+            Logger.warning("Latency budget exceeded: " + operation + " (" + budgetMillis + " ms)");
+        }
+    }
+
+    /**
+     * Unbind from this thread, restoring any enclosing deadline, and count an overrun
+     */
+    @Override
+    public void close() {
+        if (bound) {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+            bound = false;
+        }
+        if (isExpired()) {
+            reportExceeded();
+        }
+    }
+
+    public static long getExceededCount() {
+        return exceededCount.get();
+    }
+
+    public static long getExceededCount(String operation) {
+        LongAdder count = exceededByOperation.get(operation);
+        return count != null ? count.sum() : 0;
+    }
+
+    public static String getStatsSummary() {
+        Map<String, Long> byOperation = new TreeMap<>();
+        exceededByOperation.forEach((operation, count) -> byOperation.put(operation, count.sum()));
+        return "LatencyBudgets[exceeded=" + exceededCount.get() + ", byOperation=" + byOperation + "]";
+    }
+
+    public static void logStats() {
+        Logger.info(getStatsSummary());
+    }
+}
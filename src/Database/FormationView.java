@@ -0,0 +1,397 @@
+package Database;
+
+import Entity.Participant;
+import Entity.Team;
+import Log.Logger;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory materialized view of an organizer's active formation as stored in the database.
+ * Each organizer has its own view, so one organizer's saves never replace another's.
+ * A view is immutable once built; a new version is published after each committed save
+ * and readers always see one consistent version.
+ *
+ * A participant index across all views answers "which team is this participant in" without a
+ * query: the team in the most recently activated formation that places the participant. Once
+ * every active formation has been loaded (warmUp), a participant missing from the index has
+ * no team.
+ */
+public class FormationView {
+    // Per organizer; generation and view change together, so installing a loaded view is a
+    // single compare-and-set of the organizer's slot
+    private static final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+    // Participant key -> keys of the organizers whose view places the participant; written under indexLock
+    private static final ConcurrentMap<String, List<String>> placements = new ConcurrentHashMap<>();
+    private static final Object indexLock = new Object();
+    private static final AtomicLong versionCounter = new AtomicLong();
+    private static volatile boolean warmedUp = false;
+
+    private final long version;
+    private final int formationId;
+    private final long activatedAt;
+    private final List<Team> teams;
+    private final Map<Integer, Team> teamsById;
+    private final Map<String, Integer> teamIdByParticipant;
+    private final List<Participant> unassigned;
+    private final Set<String> unassignedIds;
+
+    private FormationView(int formationId, long activatedAt, List<Team> teams, List<Participant> unassigned) {
+        this.version = versionCounter.incrementAndGet();
+        this.formationId = formationId;
+        this.activatedAt = activatedAt;
+
+        List<Team> sortedTeams = new ArrayList<>(teams);
+        sortedTeams.sort(Comparator.comparingInt(Team::getTeamId));
+
+        Map<Integer, Team> byId = new HashMap<>();
+        Map<String, Integer> byParticipant = new HashMap<>();
+        for (Team team : sortedTeams) {
+            byId.put(team.getTeamId(), team);
+            for (Participant p : team.getMembers()) {
+                byParticipant.put(normalize(p.getId()), team.getTeamId());
+            }
+        }
+
+        this.teams = Collections.unmodifiableList(sortedTeams);
+        this.teamsById = byId;
+        this.teamIdByParticipant = byParticipant;
+        this.unassigned = Collections.unmodifiableList(new ArrayList<>(unassigned));
+        Set<String> ids = new HashSet<>();
+        for (Participant p : unassigned) {
+            ids.add(normalize(p.getId()));
+        }
+        this.unassignedIds = ids;
+    }
+
+    /**
+     * Key of an organizer's formation; formations saved without an organizer share the '' key
+     */
+    public static String scope(String organizerId) {
+        return organizerId == null ? "" : organizerId;
+    }
+
+    /**
+     * Get an organizer's current view, building it from the database on first use or after invalidation
+     */
+    public static FormationView current(String organizerId) {
+        String key = scope(organizerId);
+        Slot existing = slots.get(key);
+        if (existing != null && existing.view != null) {
+            return existing.view;
+        }
+
+        // A warm start in progress may install the view from the snapshot file
+        RosterSnapshotFile.awaitWarmStart();
+        // The slot exists before the load starts, so an invalidation meanwhile changes its generation
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot(0, null));
+        if (slot.view != null) {
+            return slot.view;
+        }
+
+        // The two queries are independent, so run them side by side; unlike the public DAO
+        // methods these fail instead of returning empty lists, so a failed load is never installed
+        CompletableFuture<TeamDAO.ActiveTeams> teams = AsyncDao.supply("getAllTeams", () -> TeamDAO.loadActiveFormation(key));
+        CompletableFuture<List<Participant>> unassigned = AsyncDao.supply("getUnassignedParticipants",
+                () -> ParticipantDAO.loadUnassignedParticipants(key));
+        FormationView loaded;
+        try {
+            TeamDAO.ActiveTeams active = teams.join();
+            loaded = new FormationView(active.formationId, active.activatedAt, active.teams, unassigned.join());
+        } catch (CompletionException | CancellationException e) {
+            teams.cancel(true);
+            unassigned.cancel(true);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            Logger.error("Failed to load formation view: " + cause);
+            // Not installed, so the next reader retries
+            return new FormationView(-1, 0, List.of(), List.of());
+        }
+
+        // Only install if nothing was published or invalidated while we were loading
+        synchronized (indexLock) {
+            if (slots.get(key) == slot) {
+                install(key, new Slot(slot.generation, loaded));
+                Logger.debug("Formation view v" + loaded.version + " for '" + key + "' built from database");
+                return loaded;
+            }
+        }
+
+        Slot published = slots.get(key);
+        return published != null && published.view != null ? published.view : loaded;
+    }
+
+    /**
+     * Publish an organizer's freshly committed formation as its new current view
+     */
+    public static void publish(String organizerId, int formationId, long activatedAt,
+                               List<Team> teams, List<Participant> unassigned) {
+        FormationView view = new FormationView(formationId, activatedAt, teams, unassigned);
+        String key = scope(organizerId);
+        synchronized (indexLock) {
+            Slot slot = slots.get(key);
+            install(key, new Slot(slot == null ? 1 : slot.generation + 1, view));
+        }
+        Logger.info("Published formation view v" + view.version + " for '" + key + "' ("
+                + view.teams.size() + " teams, " + view.unassigned.size() + " unassigned)");
+    }
+
+    /**
+     * Install a view restored from the snapshot file, unless a view was built, published or
+     * invalidated for the organizer since the given generation was read
+     */
+    public static boolean seed(String organizerId, int formationId, long activatedAt,
+                               List<Team> teams, List<Participant> unassigned, long generation) {
+        FormationView view = new FormationView(formationId, activatedAt, teams, unassigned);
+        String key = scope(organizerId);
+        synchronized (indexLock) {
+            Slot slot = slots.computeIfAbsent(key, k -> new Slot(0, null));
+            if (slot.generation != generation || slot.view != null) {
+                return false;
+            }
+            install(key, new Slot(generation, view));
+        }
+        Logger.info("Formation view v" + view.version + " for '" + key + "' restored from snapshot");
+        return true;
+    }
+
+    /**
+     * Load the view of every organizer with an active formation; from then on participant
+     * lookups are answered from memory
+     */
+    public static void warmUp() {
+        List<String> organizers;
+        try {
+            organizers = TeamDAO.loadActiveOrganizers();
+        } catch (SQLException e) {
+            Logger.error("Formation views not warmed up; participant lookups stay on the database", e);
+            return;
+        }
+        for (String organizer : organizers) {
+            current(organizer);
+        }
+        warmedUp = true;
+        Logger.info("Formation views warmed up for " + organizers.size() + " organizers");
+    }
+
+    /**
+     * Whether the participant index covers every active formation: true after warmUp once any
+     * view dropped since has been rebuilt, false if a rebuild fails
+     */
+    public static boolean isWarm() {
+        if (!warmedUp) {
+            return false;
+        }
+        for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+            if (entry.getValue().view == null) {
+                current(entry.getKey());
+                Slot slot = slots.get(entry.getKey());
+                if (slot == null || slot.view == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The participant's team in the most recently activated loaded formation that places it, or null
+     */
+    public static Team findTeamFor(String participantId) {
+        if (participantId == null) return null;
+        List<String> organizers = placements.get(normalize(participantId));
+        if (organizers == null) {
+            return null;
+        }
+
+        FormationView latest = null;
+        for (String organizer : organizers) {
+            Slot slot = slots.get(organizer);
+            FormationView view = slot == null ? null : slot.view;
+            if (view != null && (latest == null || view.activatedAt > latest.activatedAt
+                    || view.activatedAt == latest.activatedAt && view.formationId > latest.formationId)) {
+                latest = view;
+            }
+        }
+        return latest == null ? null : latest.getTeamFor(participantId);
+    }
+
+    /**
+     * Changes on every publish or invalidation of the organizer's view
+     */
+    public static long getGeneration(String organizerId) {
+        return slots.computeIfAbsent(scope(organizerId), k -> new Slot(0, null)).generation;
+    }
+
+    /**
+     * Views currently built or published, by organizer key
+     */
+    public static Map<String, FormationView> loaded() {
+        Map<String, FormationView> views = new TreeMap<>();
+        slots.forEach((key, slot) -> {
+            if (slot.view != null) {
+                views.put(key, slot.view);
+            }
+        });
+        return views;
+    }
+
+    /**
+     * Drop one organizer's view; its next reader rebuilds it from the database
+     */
+    public static void invalidate(String organizerId) {
+        String key = scope(organizerId);
+        synchronized (indexLock) {
+            Slot slot = slots.get(key);
+            if (slot == null) {
+                return;
+            }
+            install(key, new Slot(slot.generation + 1, null));
+        }
+        Logger.debug("Formation view for '" + key + "' invalidated");
+    }
+
+    /**
+     * Drop only the views that hold the participant, in a team or as unassigned, after its
+     * profile changed or it was deleted. Views still loading may have read the old row, so
+     * their load is not installed.
+     */
+    public static void invalidateParticipant(String participantId) {
+        if (participantId == null) return;
+        String participant = normalize(participantId);
+        int dropped = 0;
+        synchronized (indexLock) {
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                FormationView view = entry.getValue().view;
+                if (view == null || view.holds(participant)) {
+                    install(entry.getKey(), new Slot(entry.getValue().generation + 1, null));
+                    dropped += view == null ? 0 : 1;
+                }
+            }
+        }
+        Logger.debug("Formation views holding " + participant + " invalidated (" + dropped + ")");
+    }
+
+    /**
+     * Add newly registered participants to every view's unassigned list instead of rebuilding the
+     * views; a view that already holds one of them (a row updated in place) is dropped instead
+     */
+    public static void addUnassigned(Collection<Participant> participants) {
+        if (participants.isEmpty()) return;
+        synchronized (indexLock) {
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                Slot slot = entry.getValue();
+                FormationView view = slot.view;
+                boolean held = view == null;
+                for (Iterator<Participant> it = participants.iterator(); !held && it.hasNext(); ) {
+                    held = view.holds(normalize(it.next().getId()));
+                }
+                if (held) {
+                    install(entry.getKey(), new Slot(slot.generation + 1, null));
+                    continue;
+                }
+
+                // Same order as the unassigned query
+                List<Participant> unassigned = new ArrayList<>(view.unassigned);
+                unassigned.addAll(participants);
+                unassigned.sort(Comparator.comparing(Participant::getId));
+                install(entry.getKey(), new Slot(slot.generation + 1,
+                        new FormationView(view.formationId, view.activatedAt, view.teams, unassigned)));
+            }
+        }
+        Logger.debug(participants.size() + " new participants added to the formation views");
+    }
+
+    /**
+     * Drop every organizer's view
+     */
+    public static void invalidate() {
+        synchronized (indexLock) {
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                install(entry.getKey(), new Slot(entry.getValue().generation + 1, null));
+            }
+        }
+        Logger.debug("Formation views invalidated");
+    }
+
+    /**
+     * Replace an organizer's slot and move its participants in the index; callers hold indexLock
+     */
+    private static void install(String key, Slot slot) {
+        Slot previous = slots.put(key, slot);
+        if (previous != null && previous.view != null) {
+            for (String participant : previous.view.teamIdByParticipant.keySet()) {
+                placements.computeIfPresent(participant, (k, organizers) -> {
+                    List<String> remaining = new ArrayList<>(organizers);
+                    remaining.remove(key);
+                    return remaining.isEmpty() ? null : List.copyOf(remaining);
+                });
+            }
+        }
+        if (slot.view != null) {
+            for (String participant : slot.view.teamIdByParticipant.keySet()) {
+                placements.merge(participant, List.of(key), (organizers, added) -> {
+                    List<String> merged = new ArrayList<>(organizers);
+                    merged.add(key);
+                    return List.copyOf(merged);
+                });
+            }
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Active formation the view was built from, or -1 if the organizer has none
+     */
+    public int getFormationId() {
+        return formationId;
+    }
+
+    /**
+     * When the formation was made active (epoch millis), 0 if the organizer has none
+     */
+    public long getActivatedAt() {
+        return activatedAt;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    public Team getTeam(int teamId) {
+        return teamsById.get(teamId);
+    }
+
+    public Integer getTeamIdFor(String participantId) {
+        if (participantId == null) return null;
+        return teamIdByParticipant.get(normalize(participantId));
+    }
+
+    public Team getTeamFor(String participantId) {
+        Integer teamId = getTeamIdFor(participantId);
+        return teamId == null ? null : teamsById.get(teamId);
+    }
+
+    public List<Participant> getUnassigned() {
+        return unassigned;
+    }
+
+    private boolean holds(String participantKey) {
+        return teamIdByParticipant.containsKey(participantKey) || unassignedIds.contains(participantKey);
+    }
+
+    private static String normalize(String participantId) {
+        return participantId.trim().toUpperCase();
+    }
+
+    private record Slot(long generation, FormationView view) {}
+}
@@ -0,0 +1,51 @@
+package Database;
+
+import Entity.Participant;
+import Entity.ParticipantView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Roster storage on the Java heap, ordered by ID (the default)
+ */
+class HeapRosterStore implements RosterStore {
+    private final ConcurrentSkipListMap<String, Participant> participants = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Participant get(String participantId) {
+        return participants.get(participantId);
+    }
+
+    @Override
+    public boolean put(Participant participant) {
+        return participants.put(participant.getId(), participant) == null;
+    }
+
+    @Override
+    public boolean remove(String participantId) {
+        return participants.remove(participantId) != null;
+    }
+
+    @Override
+    public int size() {
+        return participants.size();
+    }
+
+    @Override
+    public void clear() {
+        participants.clear();
+    }
+
+    @Override
+    public List<Participant> values() {
+        return new ArrayList<>(participants.values());
+    }
+
+    @Override
+    public void forEach(Consumer<? super ParticipantView> action) {
+        participants.values().forEach(action);
+    }
+}
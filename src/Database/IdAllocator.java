@@ -0,0 +1,195 @@
+package Database;
+
+import Log.Logger;
+
+import java.security.SecureRandom;
+import java.sql.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique, sortable participant and organizer IDs.
+ * Each sequence reserves a block of numbers from the id_blocks table (hi/lo) and then issues
+ * IDs from it with a lock-free counter, so the database is touched once per block.
+ * The in-memory and log-store backends use local blocks instead.
+ *
+ * While no block can be reserved, temporary IDs such as PTK3F9ZQ001042 are issued. Their
+ * format never matches a reserved ID, and a random per-process tag keeps the temporary IDs
+ * of different processes apart.
+ */
+public class IdAllocator {
+    private static final String PARTICIPANT_SEQUENCE = "participant";
+    private static final String ORGANIZER_SEQUENCE = "organizer";
+    private static final int PARTICIPANT_BLOCK_SIZE = 1000;
+    private static final int ORGANIZER_BLOCK_SIZE = 20;
+
+    private static final Sequence participants = new Sequence(PARTICIPANT_SEQUENCE, PARTICIPANT_BLOCK_SIZE);
+    private static final Sequence organizers = new Sequence(ORGANIZER_SEQUENCE, ORGANIZER_BLOCK_SIZE);
+    private static final String NODE_TAG = newNodeTag();
+
+    private IdAllocator() {}
+
+    /**
+     * Next participant ID, e.g. P000001042
+     */
+    public static String nextParticipantId() {
+        long value = participants.next();
+        return value > 0 ? String.format("P%09d", value) : String.format("PT%s%06d", NODE_TAG, -value);
+    }
+
+    /**
+     * Next organizer ID, e.g. ORG000007
+     */
+    public static String nextOrganizerId() {
+        long value = organizers.next();
+        return value > 0 ? String.format("ORG%06d", value) : String.format("ORGT%s%04d", NODE_TAG, -value);
+    }
+
+    /**
+     * Reserve blocks from the id_blocks table (the default)
+     */
+    public static void useDatabaseBlocks() {
+        participants.reset(null);
+        organizers.reset(null);
+    }
+
+    /**
+     * Issue IDs from local counters starting at these values; for backends without MySQL
+     */
+    public static void useLocalBlocks(long nextParticipant, long nextOrganizer) {
+        participants.reset(new AtomicLong(nextParticipant));
+        organizers.reset(new AtomicLong(nextOrganizer));
+    }
+
+    /**
+     * Numeric part of an ID issued by this allocator, or -1 for IDs in another format
+     */
+    public static long sequenceNumber(String id) {
+        String digits;
+        if (id != null && id.startsWith("ORG") && id.length() == 9) {
+            digits = id.substring(3);
+        } else if (id != null && id.startsWith("P") && id.length() == 10) {
+            digits = id.substring(1);
+        } else {
+            return -1;
+        }
+
+        for (int i = 0; i < digits.length(); i++) {
+            if (!Character.isDigit(digits.charAt(i))) {
+                return -1;
+            }
+        }
+        return Long.parseLong(digits);
+    }
+
+    /**
+     * Six random base-36 characters identifying this process's temporary IDs
+     */
+    private static String newNodeTag() {
+        long min = 36L * 36 * 36 * 36 * 36;
+        long tag = min + new SecureRandom().nextLong(35 * min);
+        return Long.toString(tag, 36).toUpperCase();
+    }
+
+    /**
+     * Reserve [start, start + size) for the sequence; returns start or -1 on failure
+     */
+    private static long reserveFromDatabase(String sequence, int size) {
+        // LAST_INSERT_ID(expr) returns the pre-increment value to this connection only
+        String reserve = "UPDATE id_blocks SET next_value = LAST_INSERT_ID(next_value) + ? WHERE name = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(reserve)) {
+
+            pstmt.setInt(1, size);
+            pstmt.setString(2, sequence);
+
+            if (pstmt.executeUpdate() == 1) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    if (rs.next()) {
+                        long start = rs.getLong(1);
+                        Logger.debug("Reserved " + sequence + " IDs " + start + "-" + (start + size - 1));
+                        return start;
+                    }
+                }
+            }
+            Logger.error("ID sequence not found: " + sequence);
+
+        } catch (SQLException | RuntimeException e) {
+            Logger.error("Error reserving " + sequence + " ID block", e);
+        }
+
+        return -1;
+    }
+
+    /**
+     * One named sequence: the current block and where the next block comes from
+     */
+    private static final class Sequence {
+        private final String name;
+        private final int blockSize;
+        private volatile Block current = Block.EXHAUSTED;
+        private volatile AtomicLong localSource = null;
+        // Numbers of temporary IDs issued while the database was unreachable
+        private final AtomicLong fallbackSource = new AtomicLong(1);
+
+        private Sequence(String name, int blockSize) {
+            this.name = name;
+            this.blockSize = blockSize;
+        }
+
+        /**
+         * Next number; negative for a temporary ID
+         */
+        private long next() {
+            while (true) {
+                Block block = current;
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    return block.temporary ? -value : value;
+                }
+                refill(block);
+            }
+        }
+
+        private synchronized void refill(Block exhausted) {
+            if (current != exhausted) {
+                return; // another thread already refilled
+            }
+
+            long start;
+            boolean temporary = false;
+            AtomicLong local = localSource;
+            if (local != null) {
+                start = local.getAndAdd(blockSize);
+            } else {
+                start = reserveFromDatabase(name, blockSize);
+                if (start < 0) {
+                    Logger.warning("Database unavailable, issuing temporary " + name + " IDs tagged " + NODE_TAG);
+                    start = fallbackSource.getAndAdd(blockSize);
+                    temporary = true;
+                }
+            }
+            current = new Block(start, start + blockSize, temporary);
+        }
+
+        private synchronized void reset(AtomicLong source) {
+            localSource = source;
+            current = Block.EXHAUSTED;
+        }
+    }
+
+    private static final class Block {
+        private static final Block EXHAUSTED = new Block(0, 0, false);
+
+        private final AtomicLong cursor;
+        private final long end;
+        private final boolean temporary;
+
+        private Block(long start, long end, boolean temporary) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.temporary = temporary;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package Database;
+
+import Entity.Organizer;
+import Entity.Participant;
+import Log.Logger;
+
+import java.sql.*;
+
+/**
+ * Bloom filters over participant IDs and emails and organizer IDs and emails.
+ * A "no" lets existence checks skip the database; a "maybe" falls back to SQL. Filters are
+ * built from a streamed key scan and updated on every local insert. Until the first build
+ * finishes every key is reported as "maybe".
+ *
+ * Rows inserted by other instances only reach the filters through a catch-up scan, so a
+ * "no" is trusted only after the filters have caught up with every row changed since the
+ * miss was seen. Misses that arrive together share one catch-up. With db.filters.single.writer
+ * set, this instance is the only writer and a "no" is definite without a catch-up.
+ */
+public class KeyFilters {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_CAPACITY = 100_000;
+    private static final boolean SINGLE_WRITER = Boolean.parseBoolean(
+            DatabaseConfig.getString("db.filters.single.writer", "false"));
+    private static final long OVERLAP_MILLIS = DatabaseConfig.getLong("db.filters.overlap.ms", 60_000);
+
+    private static volatile Filters current = null;
+    // Filters being built; inserts go here too so none are lost between the scan and the swap
+    private static volatile Filters building = null;
+
+    private KeyFilters() {}
+
+    public static void buildInBackground() {
+        Thread builder = new Thread(KeyFilters::build, "key-filter-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Build fresh filters from the participants and organizers tables
+     */
+    public static synchronized boolean build() {
+        long start = System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            long participants = count(conn, "SELECT COUNT(*) FROM participants");
+            long organizers = count(conn, "SELECT COUNT(*) FROM organizers");
+
+            // Twice the current size leaves room to grow before a rebuild
+            Filters filters = new Filters(Math.max(MIN_CAPACITY, participants * 2), Math.max(MIN_CAPACITY, organizers * 2));
+            filters.caughtUpAt = System.nanoTime();
+            filters.since = queryCatchUpMark(conn);
+            building = filters;
+
+            try {
+                scan(conn, "SELECT id, email FROM participants", filters.participantIds, filters.participantEmails);
+                scan(conn, "SELECT id, email FROM organizers", filters.organizerIds, filters.organizerEmails);
+            } finally {
+                building = null;
+            }
+
+            current = filters;
+            Logger.info("Built key filters for " + participants + " participants and " + organizers + " organizers ("
+                    + filters.sizeBytes() + " bytes) in " + (System.currentTimeMillis() - start) + "ms");
+            return true;
+
+        } catch (SQLException | RuntimeException e) {
+            Logger.error("Error building key filters", e);
+        }
+
+        return false;
+    }
+
+    public static boolean mightContainParticipant(String participantId) {
+        Filters filters = current;
+        if (filters == null || participantId == null) {
+            return true;
+        }
+        String key = idKey(participantId);
+        return filters.participantIds.mightContain(key) || !confirmMiss(filters) || filters.participantIds.mightContain(key);
+    }
+
+    public static boolean mightContainParticipantEmail(String email) {
+        Filters filters = current;
+        if (filters == null || email == null) {
+            return true;
+        }
+        String key = emailKey(email);
+        return filters.participantEmails.mightContain(key) || !confirmMiss(filters) || filters.participantEmails.mightContain(key);
+    }
+
+    public static boolean mightContainOrganizer(String organizerId) {
+        Filters filters = current;
+        if (filters == null || organizerId == null) {
+            return true;
+        }
+        String key = idKey(organizerId);
+        return filters.organizerIds.mightContain(key) || !confirmMiss(filters) || filters.organizerIds.mightContain(key);
+    }
+
+    public static boolean mightContainOrganizerEmail(String email) {
+        Filters filters = current;
+        if (filters == null || email == null) {
+            return true;
+        }
+        String key = emailKey(email);
+        return filters.organizerEmails.mightContain(key) || !confirmMiss(filters) || filters.organizerEmails.mightContain(key);
+    }
+
+    /**
+     * Bring the filters up to date before a miss is treated as definite: add rows that other
+     * instances inserted or re-keyed since the last catch-up. A catch-up that started after
+     * the miss already covers it. Returns false if the database could not be read, in which
+     * case the miss is only a "maybe".
+     */
+    private static boolean confirmMiss(Filters filters) {
+        if (SINGLE_WRITER) {
+            return true;
+        }
+        long missAt = System.nanoTime();
+        boolean caughtUp = false;
+        synchronized (filters) {
+            if (filters.caughtUpAt - missAt >= 0) {
+                return true;
+            }
+            long startedAt = System.nanoTime();
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                Timestamp mark = queryCatchUpMark(conn);
+                scan(conn, "SELECT id, email FROM participants WHERE updated_at >= ?", filters.since,
+                        filters.participantIds, filters.participantEmails);
+                scan(conn, "SELECT id, email FROM organizers WHERE created_at >= ?", filters.since,
+                        filters.organizerIds, filters.organizerEmails);
+                filters.since = mark;
+                filters.caughtUpAt = startedAt;
+                caughtUp = true;
+            } catch (SQLException | RuntimeException e) {
+                Logger.error("Error catching up key filters", e);
+            }
+        }
+        if (caughtUp) {
+            checkCapacity();
+        }
+        return caughtUp;
+    }
+
+    public static void addParticipant(Participant participant) {
+        for (Filters filters : targets()) {
+            if (filters != null) {
+                filters.participantIds.add(idKey(participant.getId()));
+                filters.participantEmails.add(emailKey(participant.getEmail()));
+            }
+        }
+        checkCapacity();
+    }
+
+    /**
+     * Record an email a participant is changing to (the old one stays; that only costs a false positive)
+     */
+    public static void addParticipantEmail(String email) {
+        for (Filters filters : targets()) {
+            if (filters != null) {
+                filters.participantEmails.add(emailKey(email));
+            }
+        }
+    }
+
+    public static void addOrganizer(Organizer organizer) {
+        for (Filters filters : targets()) {
+            if (filters != null) {
+                filters.organizerIds.add(idKey(organizer.getId()));
+                filters.organizerEmails.add(emailKey(organizer.getEmail()));
+            }
+        }
+        checkCapacity();
+    }
+
+    private static Filters[] targets() {
+        return new Filters[]{current, building};
+    }
+
+    /**
+     * Rebuild once a filter holds more keys than it was sized for
+     */
+    private static void checkCapacity() {
+        Filters filters = current;
+        if (filters != null && building == null && filters.saturated()) {
+            Logger.info("Key filters over capacity, rebuilding");
+            building = filters; // keeps repeated inserts from starting more rebuilds
+            buildInBackground();
+        }
+    }
+
+    private static long count(Connection conn, String query) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * The database clock minus the overlap window, so rows whose transactions commit late are re-read
+     */
+    private static Timestamp queryCatchUpMark(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            if (rs.next()) {
+                return new Timestamp(rs.getTimestamp(1).getTime() - OVERLAP_MILLIS);
+            }
+        }
+        throw new SQLException("Could not read the database clock");
+    }
+
+    private static void scan(Connection conn, String query, Timestamp since, BloomFilter ids, BloomFilter emails)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setTimestamp(1, since);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(idKey(rs.getString(1)));
+                    emails.add(emailKey(rs.getString(2)));
+                }
+            }
+        }
+    }
+
+    private static void scan(Connection conn, String query, BloomFilter ids, BloomFilter emails) throws SQLException {
+        // Streamed so multi-million rosters are never held in memory
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                while (rs.next()) {
+                    ids.add(idKey(rs.getString(1)));
+                    emails.add(emailKey(rs.getString(2)));
+                }
+            }
+        }
+    }
+
+    private static String idKey(String id) {
+        return id.trim().toUpperCase();
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private static final class Filters {
+        private final BloomFilter participantIds;
+        private final BloomFilter participantEmails;
+        private final BloomFilter organizerIds;
+        private final BloomFilter organizerEmails;
+        // Guarded by this: the catch-up scan's lower bound and when the last catch-up started
+        private Timestamp since;
+        private long caughtUpAt;
+
+        private Filters(long participantCapacity, long organizerCapacity) {
+            this.participantIds = new BloomFilter(participantCapacity, FALSE_POSITIVE_RATE);
+            this.participantEmails = new BloomFilter(participantCapacity, FALSE_POSITIVE_RATE);
+            this.organizerIds = new BloomFilter(organizerCapacity, FALSE_POSITIVE_RATE);
+            this.organizerEmails = new BloomFilter(organizerCapacity, FALSE_POSITIVE_RATE);
+        }
+
+        private boolean saturated() {
+            // Email filters also collect changed addresses, so they fill first
+            return participantEmails.getInsertions() > participantEmails.getCapacity()
+                    || organizerEmails.getInsertions() > organizerEmails.getCapacity();
+        }
+
+        private long sizeBytes() {
+            return participantIds.sizeBytes() + participantEmails.sizeBytes()
+                    + organizerIds.sizeBytes() + organizerEmails.sizeBytes();
+        }
+    }
+}
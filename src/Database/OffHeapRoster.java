@@ -0,0 +1,621 @@
+package Database;
+
+import Entity.Participant;
+import Entity.ParticipantView;
+import Enums.Game;
+import Enums.PersonalityType;
+import Enums.Role;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static java.lang.foreign.ValueLayout.*;
+
+/**
+ * Roster storage outside the Java heap, for rosters of millions of participants.
+ * Each participant takes a fixed-width 32-byte slot holding the encoded ID and the numeric
+ * attributes, plus a record in the record chunks for the name, email and any ID that does not
+ * encode as a number. Lookups go through an open-addressing index, also off-heap. The heap holds
+ * only the segment lists, so its size and GC pauses do not grow with the roster.
+ * Replaced records leave dead bytes behind; the store compacts itself once they dominate.
+ *
+ * Memory comes from shared FFM arenas and is freed as soon as the store is cleared, compacted
+ * or closed, or its index outgrown, rather than whenever the collector reclaims a buffer.
+ */
+public class OffHeapRoster implements RosterStore, AutoCloseable {
+    private static final int SLOT_BYTES = 32;
+    private static final int SLOTS_PER_CHUNK = 1 << 16; // 2 MB per slot chunk
+    private static final int RECORD_CHUNK_BYTES = 16 << 20;
+    private static final int INITIAL_INDEX_CAPACITY = 1 << 16;
+
+    // Slot layout
+    private static final int ID_CODE = 0;        // long: Participant.encodeId, or -1 if the ID is in the record
+    private static final int RECORD_REF = 8;     // long: record chunk << 32 | offset
+    private static final int RECORD_LENGTH = 16; // int
+    private static final int SCORE = 20;         // int
+    private static final int SKILL = 24;         // short
+    private static final int GAME = 26;          // byte
+    private static final int ROLE = 27;          // byte
+    private static final int TYPE = 28;          // byte
+    private static final int LIVE = 29;          // byte: 1 while the slot is in use
+
+    // Index buckets hold slot + 1; 0 is empty, -1 a removed entry
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+
+    private static final Game[] GAMES = Game.values();
+    private static final Role[] ROLES = Role.values();
+    private static final PersonalityType[] TYPES = PersonalityType.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slots and records; replaced as a whole on compaction
+    private Arena storage;
+    private List<MemorySegment> slotChunks;
+    private List<MemorySegment> recordChunks;
+    private int slotCount;
+    private int liveCount;
+    private int recordPosition;
+    private long liveRecordBytes;
+    private long totalRecordBytes;
+    // The index has its own arena so it can be freed when it grows
+    private Arena indexArena;
+    private MemorySegment index;
+    private int indexCapacity;
+    private int indexUsed;
+
+    public OffHeapRoster() {
+        reset();
+    }
+
+    @Override
+    public Participant get(String participantId) {
+        lock.readLock().lock();
+        try {
+            int slot = find(participantId);
+            return slot < 0 ? null : new Cursor(slot).toParticipant();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String participantId) {
+        lock.readLock().lock();
+        try {
+            return find(participantId) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean put(Participant participant) {
+        long idCode = Participant.encodeId(participant.getId());
+        byte[] record = encodeRecord(idCode < 0 ? participant.getId() : null, participant.getName(), participant.getEmail());
+
+        lock.writeLock().lock();
+        try {
+            int slot = find(participant.getId());
+            boolean added = slot < 0;
+
+            if (added) {
+                if ((indexUsed + 1) * 2L > indexCapacity) {
+                    rebuildIndex(indexCapacity * 2);
+                }
+                slot = slotCount++;
+                if ((slot & (SLOTS_PER_CHUNK - 1)) == 0) {
+                    slotChunks.add(storage.allocate((long) SLOTS_PER_CHUNK * SLOT_BYTES, Long.BYTES));
+                }
+                liveCount++;
+            } else {
+                liveRecordBytes -= slotSegment(slot).get(JAVA_INT, slotOffset(slot) + RECORD_LENGTH);
+            }
+
+            long recordRef = append(MemorySegment.ofArray(record), 0, record.length);
+            MemorySegment segment = slotSegment(slot);
+            long base = slotOffset(slot);
+            segment.set(JAVA_LONG, base + ID_CODE, idCode);
+            segment.set(JAVA_LONG, base + RECORD_REF, recordRef);
+            segment.set(JAVA_INT, base + RECORD_LENGTH, record.length);
+            segment.set(JAVA_INT, base + SCORE, participant.getPersonalityScore());
+            segment.set(JAVA_SHORT, base + SKILL, (short) participant.getSkillLevel());
+            segment.set(JAVA_BYTE, base + GAME, (byte) participant.getGame().ordinal());
+            segment.set(JAVA_BYTE, base + ROLE, (byte) participant.getRole().ordinal());
+            segment.set(JAVA_BYTE, base + TYPE, (byte) participant.getPersonalityType().ordinal());
+            segment.set(JAVA_BYTE, base + LIVE, (byte) 1);
+
+            if (added) {
+                insertIntoIndex(slot, hash(idCode, participant.getId()));
+            }
+            compactIfSparse();
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(String participantId) {
+        lock.writeLock().lock();
+        try {
+            int bucket = findBucket(participantId);
+            if (bucket < 0) {
+                return false;
+            }
+
+            int slot = index.getAtIndex(JAVA_INT, bucket) - 1;
+            index.setAtIndex(JAVA_INT, bucket, REMOVED);
+            slotSegment(slot).set(JAVA_BYTE, slotOffset(slot) + LIVE, (byte) 0);
+            liveRecordBytes -= slotSegment(slot).get(JAVA_INT, slotOffset(slot) + RECORD_LENGTH);
+            liveCount--;
+
+            compactIfSparse();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Free all off-heap memory; the store must not be used afterwards
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            release();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Participant> values() {
+        lock.readLock().lock();
+        try {
+            int[] slots = orderedSlots();
+            List<Participant> participants = new ArrayList<>(slots.length);
+            Cursor cursor = new Cursor(0);
+            for (int slot : slots) {
+                participants.add(cursor.moveTo(slot).toParticipant());
+            }
+            return participants;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every participant in slot order through one reused cursor
+     */
+    @Override
+    public void forEach(Consumer<? super ParticipantView> action) {
+        lock.readLock().lock();
+        try {
+            Cursor cursor = new Cursor(0);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slotSegment(slot).get(JAVA_BYTE, slotOffset(slot) + LIVE) != 0) {
+                    action.accept(cursor.moveTo(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Off-heap memory held by slots, records and index
+     */
+    public long sizeBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) slotChunks.size() * SLOTS_PER_CHUNK * SLOT_BYTES
+                    + (long) recordChunks.size() * RECORD_CHUNK_BYTES
+                    + index.byteSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flyweight over one slot; moveTo repositions it without allocating
+     */
+    public final class Cursor implements ParticipantView {
+        private int slot;
+        private MemorySegment segment;
+        private long base;
+
+        private Cursor(int slot) {
+            moveTo(slot);
+        }
+
+        public Cursor moveTo(int slot) {
+            this.slot = slot;
+            this.segment = slot < slotCount ? slotSegment(slot) : null;
+            this.base = slotOffset(slot);
+            return this;
+        }
+
+        @Override
+        public String getId() {
+            long idCode = segment.get(JAVA_LONG, base + ID_CODE);
+            return idCode >= 0 ? Participant.decodeId(idCode) : readField(slot, 0);
+        }
+
+        @Override
+        public String getName() {
+            return readField(slot, idFields(slot));
+        }
+
+        @Override
+        public String getEmail() {
+            return readField(slot, idFields(slot) + 1);
+        }
+
+        @Override
+        public Game getGame() {
+            return GAMES[segment.get(JAVA_BYTE, base + GAME)];
+        }
+
+        @Override
+        public int getSkillLevel() {
+            return segment.get(JAVA_SHORT, base + SKILL);
+        }
+
+        @Override
+        public Role getRole() {
+            return ROLES[segment.get(JAVA_BYTE, base + ROLE)];
+        }
+
+        @Override
+        public int getPersonalityScore() {
+            return segment.get(JAVA_INT, base + SCORE);
+        }
+
+        @Override
+        public PersonalityType getPersonalityType() {
+            return TYPES[segment.get(JAVA_BYTE, base + TYPE)];
+        }
+
+        public Participant toParticipant() {
+            return new Participant(getId(), getName(), getEmail(), getGame(), getSkillLevel(), getRole(),
+                    getPersonalityScore(), getPersonalityType());
+        }
+    }
+
+    private void reset() {
+        release();
+        storage = Arena.ofShared();
+        slotChunks = new ArrayList<>();
+        recordChunks = new ArrayList<>();
+        slotCount = 0;
+        liveCount = 0;
+        recordPosition = RECORD_CHUNK_BYTES; // forces a chunk on the first append
+        liveRecordBytes = 0;
+        totalRecordBytes = 0;
+        allocateIndex(INITIAL_INDEX_CAPACITY);
+    }
+
+    private void release() {
+        if (storage != null) {
+            storage.close();
+            storage = null;
+        }
+        if (indexArena != null) {
+            indexArena.close();
+            indexArena = null;
+        }
+    }
+
+    /**
+     * Replace the index with an empty one of the given capacity, freeing the old one
+     */
+    private void allocateIndex(int capacity) {
+        Arena previous = indexArena;
+        indexArena = Arena.ofShared();
+        index = indexArena.allocate((long) capacity * Integer.BYTES, Integer.BYTES);
+        indexCapacity = capacity;
+        indexUsed = 0;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    private MemorySegment slotSegment(int slot) {
+        return slotChunks.get(slot / SLOTS_PER_CHUNK);
+    }
+
+    private static long slotOffset(int slot) {
+        return (long) (slot & (SLOTS_PER_CHUNK - 1)) * SLOT_BYTES;
+    }
+
+    private int find(String participantId) {
+        int bucket = findBucket(participantId);
+        return bucket < 0 ? -1 : index.getAtIndex(JAVA_INT, bucket) - 1;
+    }
+
+    private int findBucket(String participantId) {
+        if (participantId == null) {
+            return -1;
+        }
+
+        long idCode = Participant.encodeId(participantId);
+        int mask = indexCapacity - 1;
+        int bucket = hash(idCode, participantId) & mask;
+
+        while (true) {
+            int entry = index.getAtIndex(JAVA_INT, bucket);
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != REMOVED) {
+                int slot = entry - 1;
+                long slotCode = slotSegment(slot).get(JAVA_LONG, slotOffset(slot) + ID_CODE);
+                if (slotCode == idCode && (idCode >= 0 || readField(slot, 0).equals(participantId))) {
+                    return bucket;
+                }
+            }
+            bucket = (bucket + 1) & mask;
+        }
+    }
+
+    private void insertIntoIndex(int slot, int hash) {
+        int mask = indexCapacity - 1;
+        int bucket = hash & mask;
+        while (true) {
+            int entry = index.getAtIndex(JAVA_INT, bucket);
+            if (entry == EMPTY || entry == REMOVED) {
+                if (entry == EMPTY) {
+                    indexUsed++;
+                }
+                index.setAtIndex(JAVA_INT, bucket, slot + 1);
+                return;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+    }
+
+    /**
+     * Re-insert every live slot into a fresh index, dropping removed entries
+     */
+    private void rebuildIndex(int capacity) {
+        allocateIndex(capacity);
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            MemorySegment segment = slotSegment(slot);
+            long base = slotOffset(slot);
+            if (segment.get(JAVA_BYTE, base + LIVE) != 0) {
+                long idCode = segment.get(JAVA_LONG, base + ID_CODE);
+                insertIntoIndex(slot, hash(idCode, idCode >= 0 ? null : readField(slot, 0)));
+            }
+        }
+    }
+
+    private static int hash(long idCode, String participantId) {
+        long h = idCode >= 0 ? idCode : participantId.hashCode();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Copy live slots and their records into a fresh arena once most of the space is dead,
+     * then free the old one
+     */
+    private void compactIfSparse() {
+        int deadSlots = slotCount - liveCount;
+        long deadRecords = totalRecordBytes - liveRecordBytes;
+        boolean sparse = (deadSlots > SLOTS_PER_CHUNK && deadSlots > liveCount)
+                || (deadRecords > RECORD_CHUNK_BYTES && deadRecords > liveRecordBytes);
+        if (!sparse) {
+            return;
+        }
+
+        Arena oldStorage = storage;
+        List<MemorySegment> oldSlots = slotChunks;
+        List<MemorySegment> oldRecords = recordChunks;
+        int oldCount = slotCount;
+        int capacity = Math.max(INITIAL_INDEX_CAPACITY, Integer.highestOneBit(Math.max(1, liveCount)) * 4);
+
+        // Detach the old storage so reset() leaves it open for copying
+        storage = null;
+        reset();
+        rebuildIndex(capacity);
+
+        for (int slot = 0; slot < oldCount; slot++) {
+            MemorySegment segment = oldSlots.get(slot / SLOTS_PER_CHUNK);
+            long base = slotOffset(slot);
+            if (segment.get(JAVA_BYTE, base + LIVE) == 0) {
+                continue;
+            }
+
+            long ref = segment.get(JAVA_LONG, base + RECORD_REF);
+            int length = segment.get(JAVA_INT, base + RECORD_LENGTH);
+
+            int target = slotCount++;
+            if ((target & (SLOTS_PER_CHUNK - 1)) == 0) {
+                slotChunks.add(storage.allocate((long) SLOTS_PER_CHUNK * SLOT_BYTES, Long.BYTES));
+            }
+            MemorySegment targetSegment = slotSegment(target);
+            long targetBase = slotOffset(target);
+            MemorySegment.copy(segment, base, targetSegment, targetBase, SLOT_BYTES);
+            targetSegment.set(JAVA_LONG, targetBase + RECORD_REF,
+                    append(oldRecords.get((int) (ref >>> 32)), (int) ref, length));
+            liveCount++;
+
+            long idCode = targetSegment.get(JAVA_LONG, targetBase + ID_CODE);
+            insertIntoIndex(target, hash(idCode, idCode >= 0 ? null : readField(target, 0)));
+        }
+
+        oldStorage.close();
+    }
+
+    /**
+     * Live slots ordered by participant ID
+     */
+    private int[] orderedSlots() {
+        int[] slots = new int[liveCount];
+        long[] keys = new long[liveCount];
+        long sharedPrefix = -1;
+        boolean numeric = true;
+        int n = 0;
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            MemorySegment segment = slotSegment(slot);
+            long base = slotOffset(slot);
+            if (segment.get(JAVA_BYTE, base + LIVE) == 0) {
+                continue;
+            }
+            long idCode = segment.get(JAVA_LONG, base + ID_CODE);
+            long prefix = idCode >>> 50; // letter and digit count
+            long number = idCode & ((1L << 50) - 1);
+            if (idCode < 0 || (sharedPrefix >= 0 && prefix != sharedPrefix) || number >= (1L << 32)) {
+                numeric = false;
+            }
+            sharedPrefix = prefix;
+            keys[n] = number << 31 | slot;
+            slots[n++] = slot;
+        }
+
+        if (numeric) {
+            // Same letter and width everywhere, so numeric order is ID order: sort (number, slot) pairs
+            Arrays.sort(keys);
+            for (int i = 0; i < n; i++) {
+                slots[i] = (int) (keys[i] & Integer.MAX_VALUE);
+            }
+            return slots;
+        }
+
+        Cursor cursor = new Cursor(0);
+        String[] ids = new String[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = cursor.moveTo(slots[i]).getId();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> ids[i]));
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = slots[order[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Copy a record into the record chunks; returns its reference
+     */
+    private long append(MemorySegment source, long offset, int length) {
+        if (length > RECORD_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Participant record too large: " + length + " bytes");
+        }
+        if (recordPosition + length > RECORD_CHUNK_BYTES) {
+            recordChunks.add(storage.allocate(RECORD_CHUNK_BYTES, 1));
+            recordPosition = 0;
+        }
+
+        int chunk = recordChunks.size() - 1;
+        MemorySegment.copy(source, offset, recordChunks.get(chunk), recordPosition, length);
+        long ref = (long) chunk << 32 | recordPosition;
+        recordPosition += length;
+        liveRecordBytes += length;
+        totalRecordBytes += length;
+        return ref;
+    }
+
+    /**
+     * Number of record fields before the name: 1 if the ID is stored there, else 0
+     */
+    private int idFields(int slot) {
+        return slotSegment(slot).get(JAVA_LONG, slotOffset(slot) + ID_CODE) >= 0 ? 0 : 1;
+    }
+
+    /**
+     * The index-th length-prefixed field of a slot's record
+     */
+    private String readField(int slot, int field) {
+        long ref = slotSegment(slot).get(JAVA_LONG, slotOffset(slot) + RECORD_REF);
+        MemorySegment chunk = recordChunks.get((int) (ref >>> 32));
+        long pos = (int) ref;
+
+        for (int i = 0; ; i++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = chunk.get(JAVA_BYTE, pos++);
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            if (i == field) {
+                byte[] bytes = new byte[length];
+                MemorySegment.copy(chunk, JAVA_BYTE, pos, bytes, 0, length);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            pos += length;
+        }
+    }
+
+    private static byte[] encodeRecord(String id, String name, String email) {
+        byte[][] fields = id == null
+                ? new byte[][]{name.getBytes(StandardCharsets.UTF_8), email.getBytes(StandardCharsets.UTF_8)}
+                : new byte[][]{id.getBytes(StandardCharsets.UTF_8), name.getBytes(StandardCharsets.UTF_8),
+                        email.getBytes(StandardCharsets.UTF_8)};
+
+        int size = 0;
+        for (byte[] field : fields) {
+            size += varIntSize(field.length) + field.length;
+        }
+
+        byte[] record = new byte[size];
+        int pos = 0;
+        for (byte[] field : fields) {
+            int length = field.length;
+            while (length >= 0x80) {
+                record[pos++] = (byte) (length | 0x80);
+                length >>>= 7;
+            }
+            record[pos++] = (byte) length;
+            System.arraycopy(field, 0, record, pos, field.length);
+            pos += field.length;
+        }
+        return record;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,276 @@
+package Database;
+
+import Entity.Participant;
+import Log.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded read-through cache in front of ParticipantDAO.
+ * Entries are spread over independently locked LRU segments and expire after a fixed TTL.
+ * Each segment counts its invalidations; a reader takes the count before querying and its
+ * put is rejected if an invalidation happened meanwhile, so a row read before a write can
+ * never be cached after that write's invalidation.
+ */
+public class ParticipantCache {
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+    private static final int SEGMENT_COUNT = 16;
+
+    private static final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong sizeEvictions = new AtomicLong();
+    private static final AtomicLong expiredEvictions = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    static {
+        int perSegment = Math.max(1, MAX_ENTRIES / SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    private ParticipantCache() {}
+
+    /**
+     * Get a cached participant, or null if absent or expired
+     */
+    public static Participant get(String participantId) {
+        if (participantId == null) return null;
+
+        String key = normalize(participantId);
+        Participant participant = segmentFor(key).get(key);
+
+        if (participant != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return participant;
+    }
+
+    /**
+     * Check presence without counting towards hit/miss statistics
+     */
+    public static boolean contains(String participantId) {
+        if (participantId == null) return false;
+        String key = normalize(participantId);
+        return segmentFor(key).get(key) != null;
+    }
+
+    /**
+     * Cache a participant that is known to be current, such as a row just inserted
+     */
+    public static void put(Participant participant) {
+        if (participant == null || participant.getId() == null) return;
+        String key = normalize(participant.getId());
+        segmentFor(key).put(key, participant, -1);
+    }
+
+    /**
+     * Version to pass to put(participant, version); take it before reading the row
+     */
+    public static long version(String participantId) {
+        if (participantId == null) return -1;
+        return segmentFor(normalize(participantId)).version();
+    }
+
+    /**
+     * Cache a participant read from the database, unless it was invalidated since the version was
+     * taken; returns false if the row read may be stale and was not cached
+     */
+    public static boolean put(Participant participant, long version) {
+        if (participant == null || participant.getId() == null) return false;
+        String key = normalize(participant.getId());
+        return segmentFor(key).put(key, participant, version);
+    }
+
+    public static void invalidate(String participantId) {
+        if (participantId == null) return;
+        String key = normalize(participantId);
+        if (segmentFor(key).remove(key)) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public static void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        Logger.debug("Participant cache cleared");
+    }
+
+    public static int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getEvictionCount() {
+        return sizeEvictions.get() + expiredEvictions.get();
+    }
+
+    public static double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public static String getStatsSummary() {
+        return String.format("ParticipantCache[size=%d, hits=%d, misses=%d, hitRate=%.1f%%, " +
+                        "sizeEvictions=%d, expiredEvictions=%d, invalidations=%d]",
+                size(), hits.get(), misses.get(), getHitRate() * 100,
+                sizeEvictions.get(), expiredEvictions.get(), invalidations.get());
+    }
+
+    public static void logStats() {
+        Logger.info(getStatsSummary());
+    }
+
+    private static String normalize(String participantId) {
+        return participantId.trim().toUpperCase();
+    }
+
+    private static Segment segmentFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & 0x7fffffff) % SEGMENT_COUNT];
+    }
+
+    private static final class CacheEntry {
+        private final Participant participant;
+        private final long expiresAt;
+
+        private CacheEntry(Participant participant, long expiresAt) {
+            this.participant = participant;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * One LRU segment; access order is maintained by the LinkedHashMap
+     */
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, CacheEntry> entries;
+        // Bumped by every remove and clear, whether or not the key was cached
+        private long version = 0;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    if (size() > capacity) {
+                        sizeEvictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private Participant get(String key) {
+            lock.lock();
+            try {
+                CacheEntry entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAt <= System.currentTimeMillis()) {
+                    entries.remove(key);
+                    expiredEvictions.incrementAndGet();
+                    return null;
+                }
+                return entry.participant;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Store the entry unless expectedVersion (if not -1) is no longer the segment's version
+         */
+        private boolean put(String key, Participant participant, long expectedVersion) {
+            long now = System.currentTimeMillis();
+            lock.lock();
+            try {
+                if (expectedVersion != -1 && expectedVersion != version) {
+                    return false;
+                }
+                purgeExpired(now);
+                entries.put(key, new CacheEntry(participant, now + TTL_MILLIS));
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long version() {
+            lock.lock();
+            try {
+                return version;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean remove(String key) {
+            lock.lock();
+            try {
+                version++;
+                return entries.remove(key) != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                version++;
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Drop expired entries from the cold end of the LRU order (called with lock held)
+         */
+        private void purgeExpired(long now) {
+            Iterator<CacheEntry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                CacheEntry entry = it.next();
+                if (entry.expiresAt > now) {
+                    break;
+                }
+                it.remove();
+                expiredEvictions.incrementAndGet();
+            }
+        }
+    }
+}
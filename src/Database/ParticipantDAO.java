@@ -3,39 +3,56 @@ package Database;
 import Entity.Participant;
 import Enums.Game;
 import Enums.Role;
+import Exceptions.UncheckedSQLException;
 import Log.Logger;
+import Threads.ManagedExecutor;
+import Threads.WorkerPools;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ParticipantDAO {
+    public static final int DEFAULT_LOAD_PARTITIONS = 4;
+
+    // Below this many rows a single query is faster than coordinating several connections
+    private static final int PARALLEL_LOAD_THRESHOLD = 20_000;
+    // A large CSV batch can run well past the default query timeout
+    private static final long BULK_INSERT_BUDGET_MILLIS = Deadline.budgetFor("bulkInsertParticipants", 120_000);
+    // Participants with no team in an organizer's active formation
+    private static final String UNASSIGNED_QUERY = "SELECT p.* FROM participants p WHERE NOT EXISTS (" +
+            "SELECT 1 FROM team_members tm " +
+            "JOIN formation_teams ft ON ft.team_id = tm.team_id " +
+            "JOIN active_formations af ON af.formation_id = ft.formation_id AND af.organizer_id = ? " +
+            "WHERE tm.participant_id = p.id) " +
+            "ORDER BY p.id";
+
+    static final String INSERT_PARTICIPANT_QUERY = "INSERT INTO participants (id, name, email, password, preferred_game, " +
+            "skill_level, preferred_role, personality_score, personality_type) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
     /**
      * Insert a new participant into the database
      */
     public static boolean insertParticipant(Participant participant, String password) {
-        String query = "INSERT INTO participants (id, name, email, password, preferred_game, " +
-                "skill_level, preferred_role, personality_score, personality_type) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_PARTICIPANT_QUERY)) {
 
-            pstmt.setString(1, participant.getId());
-            pstmt.setString(2, participant.getName());
-            pstmt.setString(3, participant.getEmail());
-            pstmt.setString(4, password);
-            pstmt.setString(5, participant.getGame().getDisplayName());
-            pstmt.setInt(6, participant.getSkillLevel());
-            pstmt.setString(7, participant.getRole().getDisplayName());
-            pstmt.setInt(8, participant.getPersonalityScore());
-            pstmt.setString(9, participant.getPersonalityType().getDisplayName());
+            bindInsert(pstmt, participant, password);
 
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
                 Logger.info("Participant inserted into database: " + participant.getId());
+                onParticipantInserted(participant);
                 return true;
             }
         } catch (SQLException e) {
@@ -50,11 +67,45 @@ public class ParticipantDAO {
         return false;
     }
 
+    /**
+     * Bind the parameters of INSERT_PARTICIPANT_QUERY
+     */
+    static void bindInsert(PreparedStatement pstmt, Participant participant, String password) throws SQLException {
+        pstmt.setString(1, participant.getId());
+        pstmt.setString(2, participant.getName());
+        pstmt.setString(3, participant.getEmail());
+        pstmt.setString(4, password);
+        pstmt.setString(5, participant.getGame().getDisplayName());
+        pstmt.setInt(6, participant.getSkillLevel());
+        pstmt.setString(7, participant.getRole().getDisplayName());
+        pstmt.setInt(8, participant.getPersonalityScore());
+        pstmt.setString(9, participant.getPersonalityType().getDisplayName());
+    }
+
+    /**
+     * Keep in-memory views in step after a participant row is committed
+     */
+    static void onParticipantInserted(Participant participant) {
+        ParticipantCache.put(participant);
+        KeyFilters.addParticipant(participant);
+        FormationView.addUnassigned(List.of(participant));
+    }
+
     /**
      * Get participant by ID
      */
     public static Participant getParticipantById(String participantId) {
+        Participant cached = ParticipantCache.get(participantId);
+        if (cached != null) {
+            return ProfileUpdateBuffer.overlay(cached);
+        }
+        if (!KeyFilters.mightContainParticipant(participantId)) {
+            return null;
+        }
+
         String query = "SELECT * FROM participants WHERE id = ?";
+        // Taken before the read, so a write committed meanwhile keeps this row out of the cache
+        long cacheVersion = ParticipantCache.version(participantId);
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -63,15 +114,9 @@ public class ParticipantDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Participant(
-                            rs.getString("id"),
-                            rs.getString("name"),
-                            rs.getString("email"),
-                            rs.getString("preferred_game"),
-                            rs.getInt("skill_level"),
-                            rs.getString("preferred_role"),
-                            rs.getInt("personality_score")
-                    );
+                    Participant participant = new ParticipantRowMapper(rs).map(rs);
+                    ParticipantCache.put(participant, cacheVersion);
+                    return ProfileUpdateBuffer.overlay(participant);
                 }
             }
         } catch (SQLException e) {
@@ -85,34 +130,292 @@ public class ParticipantDAO {
      * Get all participants from database
      */
     public static List<Participant> getAllParticipants() {
+        try {
+            return loadAllParticipants();
+        } catch (SQLException e) {
+            Logger.error("Error retrieving all participants", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Get all participants, throwing instead of returning a partial or empty list
+     */
+    static List<Participant> loadAllParticipants() throws SQLException {
         List<Participant> participants = new ArrayList<>();
         String query = "SELECT * FROM participants ORDER BY id";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.openConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
+            ParticipantRowMapper mapper = new ParticipantRowMapper(rs);
             while (rs.next()) {
-                Participant p = new Participant(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("preferred_game"),
-                        rs.getInt("skill_level"),
-                        rs.getString("preferred_role"),
-                        rs.getInt("personality_score")
-                );
+                Participant p = mapper.map(rs);
                 participants.add(p);
             }
+        }
+
+        Logger.info("Retrieved " + participants.size() + " participants from database");
+        return participants;
+    }
 
-            Logger.info("Retrieved " + participants.size() + " participants from database");
+    /**
+     * Get all participants using the default number of parallel range readers
+     */
+    public static List<Participant> getAllParticipantsParallel() {
+        return getAllParticipantsParallel(DEFAULT_LOAD_PARTITIONS, true);
+    }
+
+    /**
+     * Get all participants by splitting the ID keyspace into ranges and reading each range
+     * concurrently on its own connection. Ranges are disjoint and ascending, so concatenating
+     * them keeps ORDER BY id when ordered is true. Small rosters use a single query.
+     * Ranges run on the shared I/O pool, whose concurrency limit also bounds how many connections
+     * they open at once.
+     */
+    public static List<Participant> getAllParticipantsParallel(int partitions, boolean ordered) {
+        try {
+            return loadAllParticipantsParallel(partitions, ordered);
         } catch (SQLException e) {
             Logger.error("Error retrieving all participants", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Parallel variant of loadAllParticipants; a failed range falls back to a single query,
+     * and only a failure of that query is thrown
+     */
+    static List<Participant> loadAllParticipantsParallel(int partitions, boolean ordered) throws SQLException {
+        int total = getParticipantCount();
+        if (partitions <= 1 || total < PARALLEL_LOAD_THRESHOLD) {
+            return loadAllParticipants();
+        }
+
+        // More ranges than the pool runs at once would only queue behind each other
+        ManagedExecutor io = WorkerPools.io();
+        List<String> boundaries = findRangeBoundaries(total, Math.min(partitions, io.getConcurrency()));
+        int rangeCount = boundaries.size() + 1;
+
+        List<Future<List<Participant>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < rangeCount; i++) {
+                String lower = i == 0 ? null : boundaries.get(i - 1);
+                String upper = i == rangeCount - 1 ? null : boundaries.get(i);
+                futures.add(io.submit(() -> loadRange(lower, upper, ordered)));
+            }
+
+            List<Participant> participants = new ArrayList<>(total);
+            for (Future<List<Participant>> future : futures) {
+                participants.addAll(future.get());
+            }
+
+            Logger.info("Retrieved " + participants.size() + " participants from database using "
+                    + rangeCount + " parallel range readers");
+            return participants;
+
+        } catch (ExecutionException e) {
+            Logger.error("Parallel participant load failed, falling back to single query",
+                    (Exception) e.getCause());
+        } catch (RejectedExecutionException e) {
+            Logger.warning("Parallel participant load rejected, falling back to single query: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Parallel participant load interrupted", e);
+        } finally {
+            // Ranges still running after a failure are not needed any more
+            for (Future<List<Participant>> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        return loadAllParticipants();
+    }
+
+    /**
+     * Count participants in the database
+     */
+    public static int getParticipantCount() {
+        String query = "SELECT COUNT(*) FROM participants";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            Logger.error("Error counting participants", e);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Pick partitions - 1 split IDs at evenly spaced offsets of the primary key order
+     */
+    private static List<String> findRangeBoundaries(int total, int partitions) throws SQLException {
+        List<String> boundaries = new ArrayList<>();
+        String query = "SELECT id FROM participants ORDER BY id LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            for (int i = 1; i < partitions; i++) {
+                pstmt.setInt(1, (int) ((long) total * i / partitions));
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        String id = rs.getString(1);
+                        if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(id)) {
+                            boundaries.add(id);
+                        }
+                    }
+                }
+            }
+        }
+
+        return boundaries;
+    }
+
+    /**
+     * Read one ID range [lower, upper); a null bound leaves that side open
+     */
+    private static List<Participant> loadRange(String lower, String upper, boolean ordered) throws SQLException {
+        StringBuilder query = new StringBuilder("SELECT * FROM participants");
+        if (lower != null && upper != null) {
+            query.append(" WHERE id >= ? AND id < ?");
+        } else if (lower != null) {
+            query.append(" WHERE id >= ?");
+        } else if (upper != null) {
+            query.append(" WHERE id < ?");
+        }
+        if (ordered) {
+            query.append(" ORDER BY id");
+        }
+
+        List<Participant> participants = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query.toString(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            int index = 1;
+            if (lower != null) pstmt.setString(index++, lower);
+            if (upper != null) pstmt.setString(index, upper);
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ParticipantRowMapper mapper = new ParticipantRowMapper(rs);
+                while (rs.next()) {
+                    participants.add(mapper.map(rs));
+                }
+            }
         }
 
         return participants;
     }
 
+    /**
+     * Stream all participants ordered by ID without materializing the whole table.
+     * Rows are fetched lazily from a forward-only cursor; the stream owns its connection,
+     * so callers must close it (try-with-resources) to release the connection.
+     * A database error, when opening or while reading, is thrown as UncheckedSQLException
+     * so a partially read roster is never mistaken for the whole table.
+     */
+    public static Stream<Participant> streamAllParticipants() {
+        return streamParticipants("SELECT * FROM participants ORDER BY id");
+    }
+
+    /**
+     * Stream participants not in a team of the organizer's active formation, ordered by ID
+     */
+    public static Stream<Participant> streamUnassignedParticipants(String organizerId) {
+        return streamParticipants(UNASSIGNED_QUERY, FormationView.scope(organizerId));
+    }
+
+    /**
+     * Visit every participant in ID order in constant memory
+     */
+    public static int forEachParticipant(Consumer<Participant> consumer) {
+        int count = 0;
+        try (Stream<Participant> stream = streamAllParticipants()) {
+            for (Spliterator<Participant> it = stream.spliterator(); it.tryAdvance(consumer); ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Stream<Participant> streamParticipants(String query, String... params) {
+        Connection conn = DatabaseConnection.getConnection();
+        if (conn == null) {
+            throw new UncheckedSQLException("Error opening participant stream",
+                    new SQLException("Database connection unavailable"));
+        }
+
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        ParticipantRowMapper mapper;
+        try {
+            stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setString(i + 1, params[i]);
+            }
+            // Connector/J streams rows one at a time instead of buffering the full result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            rs = stmt.executeQuery();
+            mapper = new ParticipantRowMapper(rs);
+        } catch (SQLException e) {
+            Logger.error("Error opening participant stream", e);
+            closeQuietly(rs, stmt, conn);
+            throw new UncheckedSQLException("Error opening participant stream", e);
+        }
+
+        final Statement openStmt = stmt;
+        final ResultSet openRs = rs;
+        Spliterator<Participant> rows = new Spliterators.AbstractSpliterator<Participant>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Participant> action) {
+                try {
+                    if (!openRs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(openRs));
+                    return true;
+                } catch (SQLException e) {
+                    Logger.error("Error reading participant stream", e);
+                    throw new UncheckedSQLException("Error reading participant stream", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> closeQuietly(openRs, openStmt, conn));
+    }
+
+    private static void closeQuietly(ResultSet rs, Statement stmt, Connection conn) {
+        try {
+            if (rs != null) rs.close();
+        } catch (SQLException e) {
+            Logger.error("Error closing result set", e);
+        }
+        try {
+            if (stmt != null) stmt.close();
+        } catch (SQLException e) {
+            Logger.error("Error closing statement", e);
+        }
+        try {
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            Logger.error("Error closing connection", e);
+        }
+    }
+
     /**
      * Update participant email
      */
@@ -129,6 +432,9 @@ public class ParticipantDAO {
 
             if (rowsAffected > 0) {
                 Logger.info("Updated email for participant: " + participantId);
+                KeyFilters.addParticipantEmail(newEmail);
+                ParticipantCache.invalidate(participantId);
+                FormationView.invalidateParticipant(participantId);
                 return true;
             }
         } catch (SQLException e) {
@@ -154,6 +460,8 @@ public class ParticipantDAO {
 
             if (rowsAffected > 0) {
                 Logger.info("Updated skill level for participant: " + participantId);
+                ParticipantCache.invalidate(participantId);
+                FormationView.invalidateParticipant(participantId);
                 return true;
             }
         } catch (SQLException e) {
@@ -179,6 +487,8 @@ public class ParticipantDAO {
 
             if (rowsAffected > 0) {
                 Logger.info("Updated game preference for participant: " + participantId);
+                ParticipantCache.invalidate(participantId);
+                FormationView.invalidateParticipant(participantId);
                 return true;
             }
         } catch (SQLException e) {
@@ -204,6 +514,8 @@ public class ParticipantDAO {
 
             if (rowsAffected > 0) {
                 Logger.info("Updated role preference for participant: " + participantId);
+                ParticipantCache.invalidate(participantId);
+                FormationView.invalidateParticipant(participantId);
                 return true;
             }
         } catch (SQLException e) {
@@ -228,6 +540,9 @@ public class ParticipantDAO {
 
             if (rowsAffected > 0) {
                 Logger.info("Deleted participant: " + participantId);
+                ParticipantCache.invalidate(participantId);
+                ParticipantRoster.onParticipantDeleted(participantId);
+                FormationView.invalidateParticipant(participantId);
                 return true;
             }
         } catch (SQLException e) {
@@ -247,32 +562,32 @@ public class ParticipantDAO {
                 "ON DUPLICATE KEY UPDATE " +
                 "name = VALUES(name), email = VALUES(email), preferred_game = VALUES(preferred_game), " +
                 "skill_level = VALUES(skill_level), preferred_role = VALUES(preferred_role), " +
-                "personality_score = VALUES(personality_score), personality_type = VALUES(personality_type)";
+                "personality_score = VALUES(personality_score), personality_type = VALUES(personality_type), " +
+                "updated_at = CURRENT_TIMESTAMP";
 
         int insertedCount = 0;
 
+        Deadline deadline = Deadline.start("bulkInsertParticipants", BULK_INSERT_BUDGET_MILLIS);
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             conn.setAutoCommit(false);
 
             for (Participant p : participants) {
-                pstmt.setString(1, p.getId());
-                pstmt.setString(2, p.getName());
-                pstmt.setString(3, p.getEmail());
-                pstmt.setString(4, AuthenticationService.generateParticipantPassword(p.getId()));
-                pstmt.setString(5, p.getGame().getDisplayName());
-                pstmt.setInt(6, p.getSkillLevel());
-                pstmt.setString(7, p.getRole().getDisplayName());
-                pstmt.setInt(8, p.getPersonalityScore());
-                pstmt.setString(9, p.getPersonalityType().getDisplayName());
-
+                bindInsert(pstmt, p, AuthenticationService.generateParticipantPassword(p.getId()));
                 pstmt.addBatch();
             }
 
             int[] results = pstmt.executeBatch();
             conn.commit();
 
+            // Rows may have been updated in place by ON DUPLICATE KEY UPDATE
+            for (Participant p : participants) {
+                ParticipantCache.invalidate(p.getId());
+                KeyFilters.addParticipant(p);
+            }
+            FormationView.addUnassigned(participants);
+
             for (int result : results) {
                 if (result > 0) {
                     insertedCount++;
@@ -283,43 +598,45 @@ public class ParticipantDAO {
 
         } catch (SQLException e) {
             Logger.error("Error during bulk insert", e);
+        } finally {
+            deadline.close();
         }
 
         return insertedCount;
     }
 
     /**
-     * Get participants not assigned to any team
+     * Get participants not assigned to a team of the organizer's active formation
      */
-    public static List<Participant> getUnassignedParticipants() {
+    public static List<Participant> getUnassignedParticipants(String organizerId) {
+        try {
+            return loadUnassignedParticipants(organizerId);
+        } catch (SQLException e) {
+            Logger.error("Error retrieving unassigned participants", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Get participants not assigned to a team of the organizer's active formation, throwing
+     * instead of returning an empty list
+     */
+    static List<Participant> loadUnassignedParticipants(String organizerId) throws SQLException {
         List<Participant> participants = new ArrayList<>();
-        String query = "SELECT p.* FROM participants p " +
-                "LEFT JOIN team_members tm ON p.id = tm.participant_id " +
-                "WHERE tm.participant_id IS NULL " +
-                "ORDER BY p.id";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UNASSIGNED_QUERY)) {
 
-            while (rs.next()) {
-                Participant p = new Participant(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("preferred_game"),
-                        rs.getInt("skill_level"),
-                        rs.getString("preferred_role"),
-                        rs.getInt("personality_score")
-                );
-                participants.add(p);
+            pstmt.setString(1, FormationView.scope(organizerId));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ParticipantRowMapper mapper = new ParticipantRowMapper(rs);
+                while (rs.next()) {
+                    participants.add(mapper.map(rs));
+                }
             }
-
-            Logger.info("Retrieved " + participants.size() + " unassigned participants");
-        } catch (SQLException e) {
-            Logger.error("Error retrieving unassigned participants", e);
         }
 
+        Logger.info("Retrieved " + participants.size() + " unassigned participants");
         return participants;
     }
 }
\ No newline at end of file
@@ -0,0 +1,286 @@
+package Database;
+
+import Entity.Participant;
+import Entity.ParticipantView;
+import Exceptions.UncheckedSQLException;
+import Log.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * In-memory copy of the participants table kept current with incremental refreshes.
+ * After the first full load only rows whose updated_at is at or past the high-water mark
+ * are fetched; deletions are detected by comparing the row count and an ID checksum.
+ * The mark is the database clock, read before each scan, minus db.roster.overlap.ms, so a
+ * transaction that commits late with an older updated_at is still picked up.
+ * With -Dteammate.roster.offheap=true the roster is kept outside the heap (see OffHeapRoster).
+ */
+public class ParticipantRoster {
+    private static final boolean OFF_HEAP = Boolean.getBoolean("teammate.roster.offheap");
+    private static final RosterStore roster = OFF_HEAP ? new OffHeapRoster() : new HeapRosterStore();
+    private static final Object refreshLock = new Object();
+    private static final long OVERLAP_MILLIS = DatabaseConfig.getLong("db.roster.overlap.ms", 60_000);
+
+    private static volatile boolean loaded = false;
+    private static Timestamp highWaterMark = null;
+    private static long idChecksum = 0;
+
+    private ParticipantRoster() {}
+
+    /**
+     * Refresh and return the roster ordered by participant ID
+     */
+    public static List<Participant> getParticipants() {
+        refresh();
+        return roster.values();
+    }
+
+    /**
+     * Refresh, then visit every participant without building a list. The view is only valid
+     * inside the callback, which blocks refreshes, so it should only copy what it needs.
+     */
+    public static void forEach(Consumer<? super ParticipantView> action) {
+        refresh();
+        synchronized (refreshLock) {
+            roster.forEach(action);
+        }
+    }
+
+    /**
+     * Look up a participant in the roster as of the last refresh
+     */
+    public static Participant getParticipant(String participantId) {
+        return participantId == null ? null : roster.get(participantId);
+    }
+
+    public static int size() {
+        return roster.size();
+    }
+
+    /**
+     * Bring the roster up to date: a full load the first time, deltas afterwards
+     */
+    public static void refresh() {
+        if (!loaded) {
+            // Prefer seeding from the snapshot file over a cold full load
+            RosterSnapshotFile.awaitWarmStart();
+        }
+
+        synchronized (refreshLock) {
+            if (!loaded || highWaterMark == null) {
+                fullLoad();
+            } else {
+                applyDelta();
+            }
+        }
+    }
+
+    /**
+     * Install a roster restored from the snapshot file; ignored if the roster is already loaded.
+     * The next refresh fetches only rows changed since the given high-water mark.
+     */
+    public static boolean seed(Collection<Participant> participants, Timestamp mark) {
+        synchronized (refreshLock) {
+            if (loaded) {
+                return false;
+            }
+
+            roster.clear();
+            idChecksum = 0;
+            for (Participant p : participants) {
+                put(p);
+            }
+            highWaterMark = mark;
+            loaded = true;
+            Logger.info("Participant roster restored from snapshot (" + roster.size() + " participants)");
+            return true;
+        }
+    }
+
+    /**
+     * Refresh, then hand the roster and its high-water mark to the consumer under the refresh lock.
+     * The consumer must only copy from the store; it blocks refreshes, so it should not do I/O.
+     */
+    static void withSnapshot(BiConsumer<RosterStore, Timestamp> consumer) {
+        refresh();
+        synchronized (refreshLock) {
+            consumer.accept(roster, highWaterMark);
+        }
+    }
+
+    /**
+     * Drop the roster; the next refresh performs a full load
+     */
+    public static void invalidate() {
+        synchronized (refreshLock) {
+            roster.clear();
+            idChecksum = 0;
+            highWaterMark = null;
+            loaded = false;
+        }
+    }
+
+    /**
+     * Remove a participant deleted through this process without waiting for the checksum scan
+     */
+    public static void onParticipantDeleted(String participantId) {
+        synchronized (refreshLock) {
+            if (loaded && roster.remove(participantId)) {
+                idChecksum -= crc(participantId);
+            }
+        }
+    }
+
+    private static void fullLoad() {
+        // Take the mark before reading so rows changed during the load are picked up next time
+        Timestamp mark = queryHighWaterMark();
+
+        // Until the load completes the roster is partial; a failure leaves it unloaded
+        loaded = false;
+        roster.clear();
+        idChecksum = 0;
+        if (OFF_HEAP) {
+            // Stream rows straight into the store instead of materializing the table on the heap
+            ParticipantDAO.forEachParticipant(ParticipantRoster::put);
+        } else {
+            // The throwing loader, so a failed read is never taken for the whole table
+            List<Participant> participants;
+            try {
+                participants = ParticipantDAO.loadAllParticipantsParallel(ParticipantDAO.DEFAULT_LOAD_PARTITIONS, true);
+            } catch (SQLException e) {
+                throw new UncheckedSQLException("Error loading participant roster", e);
+            }
+            for (Participant p : participants) {
+                put(p);
+            }
+        }
+
+        highWaterMark = mark;
+        loaded = true;
+        Logger.info("Participant roster fully loaded (" + roster.size() + " participants)");
+    }
+
+    private static void applyDelta() {
+        String query = "SELECT * FROM participants WHERE updated_at >= ? ORDER BY updated_at";
+        int changed = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            // Rows read again inside the overlap window are simply re-applied
+            Timestamp newMark = queryHighWaterMark(conn);
+            pstmt.setTimestamp(1, highWaterMark);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ParticipantRowMapper mapper = new ParticipantRowMapper(rs);
+                while (rs.next()) {
+                    put(mapper.map(rs));
+                    changed++;
+                }
+            }
+
+            highWaterMark = newMark;
+
+            if (!checksumMatches(conn) && !reconcileDeletions(conn)) {
+                Logger.warning("Participant roster out of sync after delta, reloading");
+                fullLoad();
+                return;
+            }
+
+        } catch (SQLException e) {
+            Logger.error("Error refreshing participant roster, reloading", e);
+            fullLoad();
+            return;
+        }
+
+        Logger.debug("Participant roster refreshed: " + changed + " changed rows, " + roster.size() + " total");
+    }
+
+    /**
+     * Compare row count and the sum of CRC32(id) with the local copy
+     */
+    private static boolean checksumMatches(Connection conn) throws SQLException {
+        String query = "SELECT COUNT(*), COALESCE(SUM(CRC32(id)), 0) FROM participants";
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            if (rs.next()) {
+                return rs.getInt(1) == roster.size() && rs.getLong(2) == idChecksum;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove locally held IDs that no longer exist; returns true if the roster then matches
+     */
+    private static boolean reconcileDeletions(Connection conn) throws SQLException {
+        Set<String> existing = new HashSet<>();
+
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery("SELECT id FROM participants")) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        }
+
+        List<String> deleted = new ArrayList<>();
+        roster.forEach(p -> {
+            if (!existing.contains(p.getId())) {
+                deleted.add(p.getId());
+            }
+        });
+        for (String id : deleted) {
+            roster.remove(id);
+            idChecksum -= crc(id);
+        }
+
+        if (!deleted.isEmpty()) {
+            Logger.info("Removed " + deleted.size() + " deleted participants from roster");
+        }
+        return existing.size() == roster.size();
+    }
+
+    private static Timestamp queryHighWaterMark() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return queryHighWaterMark(conn);
+        } catch (SQLException e) {
+            Logger.error("Error reading participant high-water mark", e);
+        }
+        return null;
+    }
+
+    /**
+     * The database clock minus the overlap window; the local clock may differ from the server's
+     */
+    private static Timestamp queryHighWaterMark(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            if (rs.next()) {
+                return new Timestamp(rs.getTimestamp(1).getTime() - OVERLAP_MILLIS);
+            }
+        }
+        return null;
+    }
+
+    private static void put(Participant participant) {
+        // Rows written by other instances reach this node's key filters through here
+        KeyFilters.addParticipant(participant);
+        if (roster.put(participant)) {
+            idChecksum += crc(participant.getId());
+        }
+    }
+
+    private static long crc(String id) {
+        CRC32 crc = new CRC32();
+        crc.update(id.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,74 @@
+package Database;
+
+import Entity.Participant;
+import Enums.Game;
+import Enums.PersonalityType;
+import Enums.Role;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of a participants result set to Participant objects.
+ * Column positions are resolved once when the mapper is created, so each row is read by index;
+ * create one mapper per result set. The stored personality_type is used when the query selects it,
+ * so the score does not have to be classified again.
+ */
+public final class ParticipantRowMapper {
+    private final int idColumn;
+    private final int nameColumn;
+    private final int emailColumn;
+    private final int gameColumn;
+    private final int skillColumn;
+    private final int roleColumn;
+    private final int scoreColumn;
+    private final int typeColumn; // 0 when not selected
+
+    public ParticipantRowMapper(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        this.idColumn = require(meta, "id");
+        this.nameColumn = require(meta, "name");
+        this.emailColumn = require(meta, "email");
+        this.gameColumn = require(meta, "preferred_game");
+        this.skillColumn = require(meta, "skill_level");
+        this.roleColumn = require(meta, "preferred_role");
+        this.scoreColumn = require(meta, "personality_score");
+        this.typeColumn = find(meta, "personality_type");
+    }
+
+    /**
+     * Map the current row
+     */
+    public Participant map(ResultSet rs) throws SQLException {
+        PersonalityType type = typeColumn > 0 ? PersonalityType.fromDisplayName(rs.getString(typeColumn)) : null;
+
+        return new Participant(
+                rs.getString(idColumn),
+                rs.getString(nameColumn),
+                rs.getString(emailColumn),
+                Game.fromDisplayName(rs.getString(gameColumn)),
+                rs.getInt(skillColumn),
+                Role.fromDisplayName(rs.getString(roleColumn)),
+                rs.getInt(scoreColumn),
+                type
+        );
+    }
+
+    private static int require(ResultSetMetaData meta, String column) throws SQLException {
+        int index = find(meta, column);
+        if (index == 0) {
+            throw new SQLException("Result set has no column " + column);
+        }
+        return index;
+    }
+
+    private static int find(ResultSetMetaData meta, String column) throws SQLException {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (meta.getColumnLabel(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,390 @@
+package Database;
+
+import Entity.Participant;
+import Enums.Game;
+import Enums.Role;
+import Log.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Write-behind buffer for participant profile edits.
+ * Pending field changes are coalesced per participant and written as a single UPDATE each,
+ * batched in one transaction, on a short interval or when flush() is called. Reads through
+ * ParticipantDAO see pending changes immediately (read-your-writes).
+ *
+ * Each edit returns a future that completes once its row is committed (true), or with false
+ * when the participant no longer exists or the write was rejected. A duplicate email rejects
+ * only the email edits; the participant's other changed fields are still written.
+ * Edits that fail for any other reason stay queued and are retried with exponential backoff.
+ */
+public class ProfileUpdateBuffer {
+    private static final long FLUSH_INTERVAL_MILLIS = 250;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    // COALESCE keeps one statement shape for every combination of changed fields, so all rows batch together
+    private static final String UPDATE_QUERY = "UPDATE participants SET " +
+            "email = COALESCE(?, email), " +
+            "skill_level = COALESCE(?, skill_level), " +
+            "preferred_game = COALESCE(?, preferred_game), " +
+            "preferred_role = COALESCE(?, preferred_role), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ?";
+
+    private static final Map<String, PendingProfile> pending = new ConcurrentHashMap<>();
+    // Changes taken by a flush but not yet committed; still visible to readers
+    private static final Map<String, PendingProfile> inFlight = new ConcurrentHashMap<>();
+    private static final Object flushLock = new Object();
+    private static ScheduledExecutorService scheduler = null;
+    // Backoff after a failed write; only the background flusher waits for it
+    private static volatile long retryDelayMillis = 0;
+    private static volatile long nextAttemptAt = 0;
+
+    private ProfileUpdateBuffer() {}
+
+    /**
+     * Queue an email change; completes with false at once if another participant already uses
+     * the email, whether stored or still queued
+     */
+    public static CompletableFuture<Boolean> updateEmail(String participantId, String newEmail) {
+        if (isEmailQueued(newEmail, normalize(participantId))
+                || AuthenticationService.participantEmailTaken(newEmail, participantId)) {
+            Logger.warning("Email update rejected for " + participantId + ": email already in use");
+            return CompletableFuture.completedFuture(false);
+        }
+        KeyFilters.addParticipantEmail(newEmail);
+        return merge(participantId, newEmail, null, null, null);
+    }
+
+    public static CompletableFuture<Boolean> updateSkill(String participantId, int newSkill) {
+        return merge(participantId, null, newSkill, null, null);
+    }
+
+    public static CompletableFuture<Boolean> updateGame(String participantId, Game newGame) {
+        return merge(participantId, null, null, newGame, null);
+    }
+
+    public static CompletableFuture<Boolean> updateRole(String participantId, Role newRole) {
+        return merge(participantId, null, null, null, newRole);
+    }
+
+    public static boolean hasPending(String participantId) {
+        if (participantId == null) return false;
+        String key = normalize(participantId);
+        return pending.containsKey(key) || inFlight.containsKey(key);
+    }
+
+    public static int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Apply any pending changes for this participant on top of the stored values
+     */
+    public static Participant overlay(Participant participant) {
+        if (participant == null) return null;
+
+        // flush() publishes to inFlight before removing from pending, so reading in this order never misses a change
+        String key = normalize(participant.getId());
+        PendingProfile queued = pending.get(key);
+        PendingProfile flushing = inFlight.get(key);
+        if (flushing == null && queued == null) {
+            return participant;
+        }
+
+        PendingProfile changes = flushing == null ? queued
+                : queued == null ? flushing
+                : flushing.mergedWith(queued);
+
+        return new Participant(
+                participant.getId(),
+                participant.getName(),
+                changes.email != null ? changes.email : participant.getEmail(),
+                changes.game != null ? changes.game : participant.getGame(),
+                changes.skill != null ? changes.skill : participant.getSkillLevel(),
+                changes.role != null ? changes.role : participant.getRole(),
+                participant.getPersonalityScore(),
+                participant.getPersonalityType()
+        );
+    }
+
+    /**
+     * Write all pending changes now; returns the number of participants updated
+     */
+    public static int flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+
+            // Take ownership of the current entries; edits arriving meanwhile start new entries.
+            // Each entry is visible in inFlight before it leaves pending.
+            List<String> ids = new ArrayList<>();
+            List<PendingProfile> changes = new ArrayList<>();
+            for (String id : new ArrayList<>(pending.keySet())) {
+                pending.computeIfPresent(id, (key, change) -> {
+                    inFlight.put(key, change);
+                    ids.add(key);
+                    changes.add(change);
+                    return null;
+                });
+            }
+
+            Boolean[] results = writeBatch(ids, changes);
+
+            int written = 0;
+            boolean retrying = false;
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                PendingProfile change = changes.get(i);
+                if (results[i] == null) {
+                    // Back in the queue before it leaves inFlight; newer edits queued meanwhile win
+                    pending.merge(id, change, (newer, failed) -> failed.mergedWith(newer));
+                    retrying = true;
+                } else {
+                    ParticipantCache.invalidate(id);
+                    if (results[i]) {
+                        FormationView.invalidateParticipant(id);
+                        written++;
+                    }
+                }
+                inFlight.remove(id);
+                if (results[i] != null) {
+                    change.complete(results[i]);
+                }
+            }
+
+            if (retrying) {
+                retryDelayMillis = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(FLUSH_INTERVAL_MILLIS, retryDelayMillis * 2));
+                nextAttemptAt = System.currentTimeMillis() + retryDelayMillis;
+                Logger.warning("Profile updates still queued, retrying in " + retryDelayMillis + " ms");
+            } else {
+                retryDelayMillis = 0;
+            }
+            return written;
+        }
+    }
+
+    /**
+     * Flush remaining changes and stop the background flusher
+     */
+    public static void shutdown() {
+        ScheduledExecutorService executor;
+        synchronized (ProfileUpdateBuffer.class) {
+            executor = scheduler;
+            scheduler = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        int written = flush();
+
+        // Whatever could not be written is reported to its callers as failed
+        int lost = 0;
+        for (String id : new ArrayList<>(pending.keySet())) {
+            PendingProfile change = pending.remove(id);
+            if (change != null) {
+                change.complete(false);
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            Logger.error("Profile update buffer stopped with " + lost + " unwritten updates");
+        }
+        Logger.info("Profile update buffer stopped (" + written + " updates flushed on shutdown)");
+    }
+
+    private static CompletableFuture<Boolean> merge(String participantId, String email, Integer skill, Game game, Role role) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        pending.merge(normalize(participantId), new PendingProfile(email, skill, game, role, result),
+                PendingProfile::mergedWith);
+        ensureScheduled();
+        return result;
+    }
+
+    private static boolean isEmailQueued(String email, String exceptParticipant) {
+        for (Map<String, PendingProfile> changes : List.of(pending, inFlight)) {
+            for (Map.Entry<String, PendingProfile> entry : changes.entrySet()) {
+                String queued = entry.getValue().email;
+                if (queued != null && queued.equalsIgnoreCase(email.trim()) && !entry.getKey().equals(exceptParticipant)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static synchronized void ensureScheduled() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "profile-update-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (System.currentTimeMillis() >= nextAttemptAt) {
+                    flush();
+                }
+            } catch (RuntimeException e) {
+                Logger.error("Error flushing profile updates", e);
+            }
+        }, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write the changes; per row true if committed, false if rejected for good, null to retry later
+     */
+    private static Boolean[] writeBatch(List<String> ids, List<PendingProfile> changes) {
+        Boolean[] results = new Boolean[ids.size()];
+
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_QUERY)) {
+
+            conn.setAutoCommit(false);
+            int[] counts;
+            try {
+                for (int i = 0; i < ids.size(); i++) {
+                    bind(pstmt, ids.get(i), changes.get(i));
+                    pstmt.addBatch();
+                }
+                counts = pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+            for (int i = 0; i < ids.size(); i++) {
+                // A missing row means the participant was deleted
+                results[i] = counts[i] != 0;
+            }
+            Logger.info("Flushed coalesced profile updates for " + ids.size() + " participants");
+            return results;
+
+        } catch (SQLException | RuntimeException e) {
+            Logger.warning("Profile update batch failed, retrying individually: " + e.getMessage());
+        }
+
+        // Row by row, so one rejected row does not hold back the others
+        for (int i = 0; i < ids.size(); i++) {
+            results[i] = writeRow(ids.get(i), changes, i);
+        }
+        return results;
+    }
+
+    /**
+     * Write one participant's change; true if committed, false if rejected for good, null to
+     * retry later. A duplicate email fails only the email edits: the change is replaced (in the
+     * list and in inFlight) by its other fields, which are written on their own.
+     */
+    private static Boolean writeRow(String participantId, List<PendingProfile> changes, int index) {
+        PendingProfile change = changes.get(index);
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPDATE_QUERY)) {
+            bind(pstmt, participantId, change);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (e.getErrorCode() == 1062 && change.email != null) { // Duplicate entry; email is the only unique column
+                Logger.error("Email update rejected for " + participantId + ": " + e.getMessage());
+                PendingProfile rest = change.withoutEmail();
+                changes.set(index, rest);
+                inFlight.put(participantId, rest);
+                return rest.isEmpty() ? Boolean.FALSE : writeRow(participantId, changes, index);
+            }
+            Logger.error("Profile update rejected for " + participantId + ": " + e.getMessage());
+            return false;
+        } catch (SQLException | RuntimeException e) {
+            Logger.warning("Profile update for " + participantId + " failed, will retry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, String participantId, PendingProfile change) throws SQLException {
+        pstmt.setString(1, change.email);
+        if (change.skill != null) {
+            pstmt.setInt(2, change.skill);
+        } else {
+            pstmt.setNull(2, Types.INTEGER);
+        }
+        pstmt.setString(3, change.game != null ? change.game.getDisplayName() : null);
+        pstmt.setString(4, change.role != null ? change.role.getDisplayName() : null);
+        pstmt.setString(5, participantId);
+    }
+
+    private static String normalize(String participantId) {
+        return participantId.trim().toUpperCase();
+    }
+
+    /**
+     * Changed fields for one participant; null means unchanged.
+     * The futures of the edits it contains complete when it is written; those of email edits
+     * are kept apart so a rejected email fails only them.
+     */
+    private static final class PendingProfile {
+        private final String email;
+        private final Integer skill;
+        private final Game game;
+        private final Role role;
+        private final List<CompletableFuture<Boolean>> emailResults;
+        private final List<CompletableFuture<Boolean>> otherResults;
+
+        private PendingProfile(String email, Integer skill, Game game, Role role, CompletableFuture<Boolean> result) {
+            this(email, skill, game, role,
+                    email != null ? List.of(result) : List.of(),
+                    email != null ? List.of() : List.of(result));
+        }
+
+        private PendingProfile(String email, Integer skill, Game game, Role role,
+                               List<CompletableFuture<Boolean>> emailResults, List<CompletableFuture<Boolean>> otherResults) {
+            this.email = email;
+            this.skill = skill;
+            this.game = game;
+            this.role = role;
+            this.emailResults = emailResults;
+            this.otherResults = otherResults;
+        }
+
+        private PendingProfile mergedWith(PendingProfile newer) {
+            return new PendingProfile(
+                    newer.email != null ? newer.email : email,
+                    newer.skill != null ? newer.skill : skill,
+                    newer.game != null ? newer.game : game,
+                    newer.role != null ? newer.role : role,
+                    concat(emailResults, newer.emailResults),
+                    concat(otherResults, newer.otherResults));
+        }
+
+        /**
+         * Fail the email edits and keep the other changed fields
+         */
+        private PendingProfile withoutEmail() {
+            emailResults.forEach(result -> result.complete(false));
+            return new PendingProfile(null, skill, game, role, List.of(), otherResults);
+        }
+
+        private boolean isEmpty() {
+            return email == null && skill == null && game == null && role == null;
+        }
+
+        private void complete(boolean written) {
+            emailResults.forEach(result -> result.complete(written));
+            otherResults.forEach(result -> result.complete(written));
+        }
+
+        private static <T> List<T> concat(List<T> first, List<T> second) {
+            if (first.isEmpty()) return second;
+            if (second.isEmpty()) return first;
+            List<T> all = new ArrayList<>(first);
+            all.addAll(second);
+            return List.copyOf(all);
+        }
+    }
+}
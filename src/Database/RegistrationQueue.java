@@ -0,0 +1,185 @@
+package Database;
+
+import Entity.Participant;
+import Log.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Group-commit pipeline for participant sign-ups.
+ * Inserts are queued and written as one JDBC batch per transaction, flushed when the batch
+ * is full or the oldest entry has waited MAX_DELAY_MILLIS. Each caller gets a future that
+ * completes once its row is committed (true) or has failed (false).
+ */
+public class RegistrationQueue {
+    private static final int MAX_BATCH_SIZE = 250;
+    private static final long MAX_DELAY_MILLIS = 5;
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private static final BlockingQueue<PendingRegistration> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private static Thread flusher = null;
+    private static volatile boolean running = false;
+
+    private RegistrationQueue() {}
+
+    /**
+     * Queue a participant insert. Blocks only when the queue is full (backpressure).
+     */
+    public static CompletableFuture<Boolean> submit(Participant participant, String password) {
+        PendingRegistration pending = new PendingRegistration(participant, password);
+        ensureStarted();
+
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.complete(false);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Take back a registration that is still waiting for its batch; it completes with false.
+     * Returns false if its batch has already started, in which case it completes as written.
+     */
+    public static boolean withdraw(CompletableFuture<Boolean> result) {
+        if (queue.removeIf(pending -> pending.result == result)) {
+            result.complete(false);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stop the flusher after writing everything still queued
+     */
+    public static void shutdown() {
+        Thread thread;
+        synchronized (RegistrationQueue.class) {
+            running = false;
+            thread = flusher;
+            flusher = null;
+        }
+
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Anything enqueued after the flusher exited
+        List<PendingRegistration> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        Logger.info("Registration queue stopped");
+    }
+
+    private static synchronized void ensureStarted() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(RegistrationQueue::runFlusher, "registration-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        Logger.info("Registration queue started (batch " + MAX_BATCH_SIZE + ", delay " + MAX_DELAY_MILLIS + "ms)");
+    }
+
+    private static void runFlusher() {
+        List<PendingRegistration> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRegistration first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Collect more until the batch is full or the first entry's delay budget is spent
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MILLIS);
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+                        break;
+                    }
+                    PendingRegistration next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // shutdown() interrupts us; flush what we have and re-check the loop condition
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch = new ArrayList<>(MAX_BATCH_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Write one batch in a single transaction. If the batch fails (e.g. one duplicate ID),
+     * it is rolled back and the rows are retried individually so only the bad row fails.
+     */
+    private static void flush(List<PendingRegistration> batch) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ParticipantDAO.INSERT_PARTICIPANT_QUERY)) {
+
+            conn.setAutoCommit(false);
+            try {
+                for (PendingRegistration pending : batch) {
+                    ParticipantDAO.bindInsert(pstmt, pending.participant, pending.password);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+            for (PendingRegistration pending : batch) {
+                ParticipantDAO.onParticipantInserted(pending.participant);
+                pending.result.complete(true);
+            }
+            Logger.info("Group-committed " + batch.size() + " participant registrations");
+            return;
+
+        } catch (SQLException | RuntimeException e) {
+            Logger.warning("Registration batch of " + batch.size() + " failed, retrying individually: " + e.getMessage());
+        }
+
+        for (PendingRegistration pending : batch) {
+            try {
+                pending.result.complete(ParticipantDAO.insertParticipant(pending.participant, pending.password));
+            } catch (RuntimeException e) {
+                Logger.error("Error inserting participant " + pending.participant.getId(), e);
+                pending.result.complete(false);
+            }
+        }
+    }
+
+    private static final class PendingRegistration {
+        private final Participant participant;
+        private final String password;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingRegistration(Participant participant, String password) {
+            this.participant = participant;
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package Database;
+
+import Entity.Participant;
+import Entity.ParticipantView;
+import Entity.Team;
+import Log.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary snapshot of the participant roster and each organizer's active formation, used for
+ * warm starts. It is written on shutdown and periodically. At startup the file is memory-mapped
+ * and loaded in the background, and trusted only while the database change markers (participant
+ * count and MAX(updated_at), active-formation pointers) still match the ones it was written with.
+ */
+public class RosterSnapshotFile {
+    private static final Path SNAPSHOT_PATH = Paths.get("data", "roster.snapshot");
+    private static final int MAGIC = 0x544D5253; // "TMRS"
+    private static final int FORMAT_VERSION = 4;
+    private static final long SNAPSHOT_INTERVAL_MINUTES = 5;
+
+    private static volatile CompletableFuture<Void> warmStart = null;
+    // Markers of the last snapshot written or loaded with a fresh formation
+    private static volatile Marker lastMarker = null;
+    private static ScheduledExecutorService scheduler = null;
+
+    private RosterSnapshotFile() {}
+
+    /**
+     * Start loading the snapshot on a background thread; the first roster or formation read waits for it
+     */
+    public static void loadInBackground() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        warmStart = future;
+
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                Logger.error("Warm start from snapshot failed", e);
+            } finally {
+                future.complete(null);
+            }
+            // Views the snapshot did not restore are loaded now, so participant lookups stay in memory
+            try {
+                FormationView.warmUp();
+            } catch (RuntimeException e) {
+                Logger.error("Warming up formation views failed", e);
+            }
+        }, "roster-warm-start");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Block until a warm start in progress has finished (returns at once if none is running)
+     */
+    public static void awaitWarmStart() {
+        CompletableFuture<Void> future = warmStart;
+        if (future != null && !future.isDone()) {
+            future.join();
+        }
+    }
+
+    public static synchronized void startPeriodicSnapshots() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "roster-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                save();
+            } catch (RuntimeException e) {
+                Logger.error("Error writing roster snapshot", e);
+            }
+        }, SNAPSHOT_INTERVAL_MINUTES, SNAPSHOT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop periodic snapshots and write a final one
+     */
+    public static void stop() {
+        ScheduledExecutorService executor;
+        synchronized (RosterSnapshotFile.class) {
+            executor = scheduler;
+            scheduler = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        save();
+    }
+
+    /**
+     * Write the roster and every organizer's active formation to the snapshot file
+     */
+    public static boolean save() {
+        // Markers are read before the data, so the data is never older than its marker
+        Marker marker = readMarker();
+        if (marker == null) {
+            return false;
+        }
+
+        // The served views are written as is, unless an active formation changed since the last
+        // snapshot (possibly on another instance); only then are they rebuilt from the database
+        Marker previous = lastMarker;
+        if (previous == null || previous.memberCount != marker.memberCount
+                || previous.memberChecksum != marker.memberChecksum) {
+            FormationView.invalidate();
+        }
+        Map<String, FormationView> views = new TreeMap<>();
+        for (String organizer : marker.organizers) {
+            views.put(organizer, FormationView.current(organizer));
+        }
+
+        // Copy the roster while refreshes are held off, then write the file without the lock
+        ByteArrayOutputStream roster = new ByteArrayOutputStream();
+        Timestamp[] mark = {null};
+        int[] count = {0};
+        try {
+            ParticipantRoster.withSnapshot((participants, highWaterMark) -> {
+                writeParticipants(new DataOutputStream(roster), participants);
+                mark[0] = highWaterMark;
+                count[0] = participants.size();
+            });
+        } catch (UncheckedIOException e) {
+            Logger.error("Error copying roster for snapshot", e);
+            return false;
+        }
+
+        Path tmp = SNAPSHOT_PATH.resolveSibling(SNAPSHOT_PATH.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(SNAPSHOT_PATH.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                write(out, marker, mark[0], roster, views);
+            }
+            Files.move(tmp, SNAPSHOT_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastMarker = marker;
+            Logger.info("Roster snapshot written (" + count[0] + " participants, "
+                    + views.size() + " active formations)");
+            return true;
+        } catch (IOException e) {
+            Logger.error("Error writing roster snapshot", e);
+            return false;
+        }
+    }
+
+    private static void load() {
+        if (!Files.exists(SNAPSHOT_PATH)) {
+            Logger.debug("No roster snapshot, starting cold");
+            return;
+        }
+
+        Snapshot snapshot;
+        try (FileChannel channel = FileChannel.open(SNAPSHOT_PATH, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            snapshot = read(buffer);
+        } catch (IOException | RuntimeException e) {
+            Logger.warning("Ignoring unreadable roster snapshot: " + e.getMessage());
+            return;
+        }
+
+        // Anything published or invalidated from here on wins over the snapshot; the markers are
+        // read afterwards, so a save committed before this point shows up as a changed marker
+        Map<String, Long> generations = new HashMap<>();
+        for (String organizer : snapshot.formations.keySet()) {
+            generations.put(organizer, FormationView.getGeneration(organizer));
+        }
+
+        Marker current = readMarker();
+        if (current == null) {
+            return;
+        }
+
+        boolean participantsFresh = current.participantCount == snapshot.marker.participantCount
+                && current.maxUpdatedAt == snapshot.marker.maxUpdatedAt;
+        boolean teamsFresh = participantsFresh
+                && current.memberCount == snapshot.marker.memberCount
+                && current.memberChecksum == snapshot.marker.memberChecksum;
+
+        Timestamp mark = snapshot.highWaterMark < 0 ? null : new Timestamp(snapshot.highWaterMark);
+        if (mark == null || !ParticipantRoster.seed(snapshot.participants.values(), mark)) {
+            return;
+        }
+
+        if (!participantsFresh) {
+            // Stale: fetch only the rows changed since the snapshot (the roster checks deletions itself)
+            Logger.info("Roster snapshot is stale, applying changes from the database");
+            ParticipantRoster.refresh();
+        }
+
+        if (teamsFresh) {
+            boolean seeded = true;
+            for (Map.Entry<String, StoredView> formation : snapshot.formations.entrySet()) {
+                StoredView stored = formation.getValue();
+                List<Team> teams = new ArrayList<>();
+                for (Map.Entry<Integer, List<String>> entry : stored.teams.entrySet()) {
+                    Team team = new Team(entry.getKey());
+                    for (String id : entry.getValue()) {
+                        Participant p = snapshot.participants.get(id);
+                        if (p != null) {
+                            team.addMember(p);
+                        }
+                    }
+                    teams.add(team);
+                }
+
+                List<Participant> unassigned = new ArrayList<>();
+                for (String id : stored.unassigned) {
+                    Participant p = snapshot.participants.get(id);
+                    if (p != null) {
+                        unassigned.add(p);
+                    }
+                }
+                String organizer = formation.getKey();
+                seeded &= FormationView.seed(organizer, stored.formationId, stored.activatedAt, teams, unassigned,
+                        generations.get(organizer));
+            }
+            if (seeded) {
+                lastMarker = snapshot.marker;
+            }
+        }
+    }
+
+    /**
+     * Current change markers, or null if the database could not be read
+     */
+    private static Marker readMarker() {
+        String participantQuery = "SELECT COUNT(*), MAX(updated_at) FROM participants";
+        // Stored teams are immutable, so the active-formation pointers identify the membership;
+        // the activation time orders organizers' formations for participant lookups
+        String memberQuery = "SELECT COUNT(*), " +
+                "COALESCE(SUM(CRC32(CONCAT(organizer_id, ':', formation_id, ':', activated_at))), 0) " +
+                "FROM active_formations";
+        String organizerQuery = "SELECT organizer_id FROM active_formations ORDER BY organizer_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            Marker marker = new Marker();
+            try (ResultSet rs = stmt.executeQuery(participantQuery)) {
+                if (rs.next()) {
+                    marker.participantCount = rs.getInt(1);
+                    Timestamp maxUpdatedAt = rs.getTimestamp(2);
+                    marker.maxUpdatedAt = maxUpdatedAt == null ? -1 : maxUpdatedAt.getTime();
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(memberQuery)) {
+                if (rs.next()) {
+                    marker.memberCount = rs.getInt(1);
+                    marker.memberChecksum = rs.getLong(2);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(organizerQuery)) {
+                while (rs.next()) {
+                    marker.organizers.add(rs.getString(1));
+                }
+            }
+            return marker;
+
+        } catch (SQLException | RuntimeException e) {
+            Logger.error("Error reading roster change markers", e);
+        }
+
+        return null;
+    }
+
+    private static void write(DataOutputStream out, Marker marker, Timestamp mark,
+                              ByteArrayOutputStream participants, Map<String, FormationView> views) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(marker.participantCount);
+        out.writeLong(marker.maxUpdatedAt);
+        out.writeInt(marker.memberCount);
+        out.writeLong(marker.memberChecksum);
+        out.writeLong(mark == null ? -1 : mark.getTime());
+        participants.writeTo(out);
+
+        out.writeInt(views.size());
+        for (Map.Entry<String, FormationView> entry : views.entrySet()) {
+            FormationView view = entry.getValue();
+            writeString(out, entry.getKey());
+            out.writeInt(view.getFormationId());
+            out.writeLong(view.getActivatedAt());
+
+            out.writeInt(view.getTeams().size());
+            for (Team team : view.getTeams()) {
+                out.writeInt(team.getTeamId());
+                out.writeInt(team.getMembers().size());
+                for (Participant p : team.getMembers()) {
+                    writeString(out, p.getId());
+                }
+            }
+
+            out.writeInt(view.getUnassigned().size());
+            for (Participant p : view.getUnassigned()) {
+                writeString(out, p.getId());
+            }
+        }
+    }
+
+    private static void writeParticipants(DataOutputStream out, RosterStore participants) {
+        try {
+            out.writeInt(participants.size());
+            // Visited through views, so an off-heap roster is copied without materializing it
+            participants.forEach(p -> {
+                try {
+                    writeParticipant(out, p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeParticipant(DataOutputStream out, ParticipantView p) throws IOException {
+        writeString(out, p.getId());
+        writeString(out, p.getName());
+        writeString(out, p.getEmail());
+        writeString(out, p.getGame().getDisplayName());
+        out.writeInt(p.getSkillLevel());
+        writeString(out, p.getRole().getDisplayName());
+        out.writeInt(p.getPersonalityScore());
+    }
+
+    private static Snapshot read(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+            throw new IOException("not a roster snapshot or unsupported version");
+        }
+
+        Snapshot snapshot = new Snapshot();
+        snapshot.marker.participantCount = in.getInt();
+        snapshot.marker.maxUpdatedAt = in.getLong();
+        snapshot.marker.memberCount = in.getInt();
+        snapshot.marker.memberChecksum = in.getLong();
+        snapshot.highWaterMark = in.getLong();
+
+        int participantCount = in.getInt();
+        for (int i = 0; i < participantCount; i++) {
+            Participant p = new Participant(readString(in), readString(in), readString(in),
+                    readString(in), in.getInt(), readString(in), in.getInt());
+            snapshot.participants.put(p.getId(), p);
+        }
+
+        int formationCount = in.getInt();
+        for (int f = 0; f < formationCount; f++) {
+            StoredView stored = new StoredView();
+            snapshot.formations.put(readString(in), stored);
+            stored.formationId = in.getInt();
+            stored.activatedAt = in.getLong();
+
+            int teamCount = in.getInt();
+            for (int i = 0; i < teamCount; i++) {
+                int teamId = in.getInt();
+                int memberCount = in.getInt();
+                List<String> ids = new ArrayList<>(memberCount);
+                for (int j = 0; j < memberCount; j++) {
+                    ids.add(readString(in));
+                }
+                stored.teams.put(teamId, ids);
+            }
+
+            int unassignedCount = in.getInt();
+            for (int i = 0; i < unassignedCount; i++) {
+                stored.unassigned.add(readString(in));
+            }
+        }
+
+        return snapshot;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Marker {
+        private int participantCount;
+        private long maxUpdatedAt = -1;
+        private int memberCount;
+        private long memberChecksum;
+        // Organizers with an active formation; not stored in the file
+        private final List<String> organizers = new ArrayList<>();
+    }
+
+    private static final class Snapshot {
+        private final Marker marker = new Marker();
+        private long highWaterMark;
+        private final Map<String, Participant> participants = new LinkedHashMap<>();
+        private final Map<String, StoredView> formations = new TreeMap<>();
+    }
+
+    private static final class StoredView {
+        private int formationId;
+        private long activatedAt;
+        private final SortedMap<Integer, List<String>> teams = new TreeMap<>();
+        private final List<String> unassigned = new ArrayList<>();
+    }
+}
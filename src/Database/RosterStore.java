@@ -0,0 +1,36 @@
+package Database;
+
+import Entity.Participant;
+import Entity.ParticipantView;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage behind ParticipantRoster: participants keyed by ID
+ */
+interface RosterStore {
+
+    Participant get(String participantId);
+
+    /**
+     * Insert or replace; returns true if the ID was not present before
+     */
+    boolean put(Participant participant);
+
+    boolean remove(String participantId);
+
+    int size();
+
+    void clear();
+
+    /**
+     * All participants ordered by ID
+     */
+    List<Participant> values();
+
+    /**
+     * Visit every participant without materializing the roster; the view is only valid inside the callback
+     */
+    void forEach(Consumer<? super ParticipantView> action);
+}
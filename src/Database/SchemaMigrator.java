@@ -0,0 +1,235 @@
+package Database;
+
+import Log.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies versioned schema migrations at startup.
+ * Applied versions are recorded in schema_migrations; each pending migration runs once, in order.
+ * SQL/Schema.sql mirrors the schema after the last migration.
+ */
+public class SchemaMigrator {
+    // MySQL error codes for objects that already exist (columns, indexes or keys created by hand)
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_MULTIPLE_PRI_KEY = 1068;
+    private static final int ER_FK_DUP_NAME = 1826;
+    // ... or that were already dropped
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+    private static final int ER_NO_SUCH_TABLE = 1146;
+    // DDL on a large table can take minutes, well past the default query timeout
+    private static final long MIGRATION_BUDGET_MILLIS = Deadline.budgetFor("schemaMigration", 600_000);
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        MIGRATIONS.add(new Migration(1, "Baseline tables",
+                "CREATE TABLE IF NOT EXISTS organizers (" +
+                        "id VARCHAR(20) PRIMARY KEY, " +
+                        "name VARCHAR(100) NOT NULL, " +
+                        "email VARCHAR(100) NOT NULL UNIQUE, " +
+                        "password VARCHAR(255) NOT NULL, " +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+                "CREATE TABLE IF NOT EXISTS participants (" +
+                        "id VARCHAR(20) PRIMARY KEY, " +
+                        "name VARCHAR(100) NOT NULL, " +
+                        "email VARCHAR(100) NOT NULL UNIQUE, " +
+                        "password VARCHAR(255) NOT NULL, " +
+                        "preferred_game VARCHAR(50) NOT NULL, " +
+                        "skill_level INT NOT NULL, " +
+                        "preferred_role VARCHAR(50) NOT NULL, " +
+                        "personality_score INT NOT NULL, " +
+                        "personality_type VARCHAR(20) NOT NULL, " +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP)",
+                "CREATE TABLE IF NOT EXISTS teams (" +
+                        "team_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                        "team_size INT NOT NULL, " +
+                        "avg_skill_level DECIMAL(5,2) NOT NULL, " +
+                        "role_diversity INT NOT NULL, " +
+                        "created_by VARCHAR(20), " +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+                "CREATE TABLE IF NOT EXISTS team_members (" +
+                        "team_id INT NOT NULL, " +
+                        "participant_id VARCHAR(20) NOT NULL, " +
+                        "PRIMARY KEY (team_id, participant_id), " +
+                        "FOREIGN KEY (team_id) REFERENCES teams(team_id) ON DELETE CASCADE, " +
+                        "FOREIGN KEY (participant_id) REFERENCES participants(id) ON DELETE CASCADE)",
+                "CREATE TABLE IF NOT EXISTS team_formations (" +
+                        "formation_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                        "formation_name VARCHAR(100) NOT NULL, " +
+                        "team_size INT NOT NULL, " +
+                        "total_participants INT NOT NULL, " +
+                        "teams_formed INT NOT NULL, " +
+                        "participants_assigned INT NOT NULL, " +
+                        "participants_remaining INT NOT NULL, " +
+                        "created_by VARCHAR(20), " +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+                "CREATE TABLE IF NOT EXISTS formation_teams (" +
+                        "formation_id INT NOT NULL, " +
+                        "team_id INT NOT NULL, " +
+                        "PRIMARY KEY (formation_id, team_id), " +
+                        "FOREIGN KEY (formation_id) REFERENCES team_formations(formation_id) ON DELETE CASCADE)",
+                "INSERT IGNORE INTO organizers (id, name, email, password) " +
+                        "VALUES ('ORG001', 'Administrator', 'admin@teammate.com', 'admin123')"));
+
+        MIGRATIONS.add(new Migration(2, "Formation version snapshots",
+                "CREATE TABLE IF NOT EXISTS formation_snapshots (" +
+                        "formation_id INT PRIMARY KEY, " +
+                        "membership MEDIUMBLOB NOT NULL, " +
+                        "FOREIGN KEY (formation_id) REFERENCES team_formations(formation_id) ON DELETE CASCADE)",
+                "CREATE TABLE IF NOT EXISTS active_formation (" +
+                        "slot TINYINT PRIMARY KEY, " +
+                        "formation_id INT NOT NULL)"));
+
+        MIGRATIONS.add(new Migration(3, "Covering indexes for hot DAO queries",
+                // getParticipantTeamId and the LEFT JOIN ... IS NULL in getUnassignedParticipants
+                "CREATE INDEX idx_team_members_participant_team ON team_members (participant_id, team_id)",
+                // ParticipantRoster delta refresh
+                "CREATE INDEX idx_participants_updated_at ON participants (updated_at)",
+                // getTeamFormationHistory: filter created_by, order by created_at, all selected columns
+                "CREATE INDEX idx_team_formations_history ON team_formations (created_by, created_at, " +
+                        "formation_name, team_size, total_participants, teams_formed, " +
+                        "participants_assigned, participants_remaining)"));
+
+        MIGRATIONS.add(new Migration(4, "Hi/lo ID block sequences",
+                "CREATE TABLE IF NOT EXISTS id_blocks (" +
+                        "name VARCHAR(40) PRIMARY KEY, " +
+                        "next_value BIGINT NOT NULL)",
+                "INSERT IGNORE INTO id_blocks (name, next_value) VALUES ('participant', 1), ('organizer', 1)"));
+
+        // Team rows become immutable and formation versions link to them. Existing links point at rows
+        // that later saves rewrote, so they are dropped; the live teams are cleared on every shutdown anyway.
+        MIGRATIONS.add(new Migration(5, "Immutable formation versions",
+                "DELETE FROM formation_teams",
+                "DELETE FROM active_formation",
+                // Active-formation joins from a participant's team rows
+                "CREATE INDEX idx_formation_teams_team ON formation_teams (team_id, formation_id)"));
+
+        // The primary key (team_id, participant_id) already serves lookups by team
+        MIGRATIONS.add(new Migration(6, "Drop redundant team_members index",
+                "DROP INDEX idx_team_members_team_participant ON team_members"));
+
+        // One active formation per organizer instead of a single shared pointer; the current pointer
+        // moves to the organizer that saved it ('' for formations saved without one)
+        MIGRATIONS.add(new Migration(7, "Active formation per organizer",
+                "CREATE TABLE IF NOT EXISTS active_formations (" +
+                        "organizer_id VARCHAR(20) PRIMARY KEY, " +
+                        "formation_id INT NOT NULL, " +
+                        "INDEX idx_active_formations_formation (formation_id), " +
+                        "FOREIGN KEY (formation_id) REFERENCES team_formations(formation_id) ON DELETE CASCADE)",
+                "INSERT IGNORE INTO active_formations (organizer_id, formation_id) " +
+                        "SELECT COALESCE(tf.created_by, ''), af.formation_id FROM active_formation af " +
+                        "JOIN team_formations tf ON tf.formation_id = af.formation_id",
+                "DROP TABLE IF EXISTS active_formation"));
+
+        // Participant lookups resolve to the most recently activated formation that places them
+        MIGRATIONS.add(new Migration(8, "Activation time of active formations",
+                "ALTER TABLE active_formations ADD COLUMN activated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)"));
+    }
+
+    private SchemaMigrator() {}
+
+    /**
+     * Apply all pending migrations; returns false if any migration failed
+     */
+    public static boolean migrate() {
+        Deadline deadline = Deadline.start("schemaMigration", MIGRATION_BUDGET_MILLIS);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                return false;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                        "version INT PRIMARY KEY, " +
+                        "description VARCHAR(200) NOT NULL, " +
+                        "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+
+            int current = getCurrentVersion(conn);
+            int applied = 0;
+
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                apply(conn, migration);
+                applied++;
+            }
+
+            if (applied > 0) {
+                Logger.info("Applied " + applied + " schema migration(s), schema now at version " + getCurrentVersion(conn));
+            } else {
+                Logger.debug("Schema up to date at version " + current);
+            }
+            return true;
+
+        } catch (SQLException e) {
+            Logger.error("Schema migration failed", e);
+            System.err.println("ERROR: Schema migration failed: " + e.getMessage());
+        } finally {
+            deadline.close();
+        }
+
+        return false;
+    }
+
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private static int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_migrations")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        Logger.info("Applying schema migration V" + migration.version + ": " + migration.description);
+
+        // MySQL commits DDL implicitly, so each statement must be safe to re-run after a partial failure
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                try {
+                    stmt.executeUpdate(sql);
+                } catch (SQLException e) {
+                    if (isAlreadyApplied(e)) {
+                        Logger.debug("Skipping already applied statement in V" + migration.version + ": " + e.getMessage());
+                    } else {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_migrations (version, description) VALUES (?, ?)")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean isAlreadyApplied(SQLException e) {
+        int code = e.getErrorCode();
+        return code == ER_DUP_FIELDNAME || code == ER_DUP_KEYNAME || code == ER_MULTIPLE_PRI_KEY
+                || code == ER_FK_DUP_NAME || code == ER_CANT_DROP_FIELD_OR_KEY || code == ER_NO_SUCH_TABLE;
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
@@ -1,50 +1,98 @@
 package Database;
 
+import Entity.FormationSnapshot;
 import Entity.Participant;
 import Entity.Team;
 import Log.Logger;
 import Main.FormationStatistics;
 
+import java.io.*;
 import java.sql.*;
 import java.util.*;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public class TeamDAO {
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    // The save transaction writes every new team and link at once; it gets its own budget
+    private static final long SAVE_BUDGET_MILLIS = Deadline.budgetFor("saveFormation", 120_000);
 
     /**
-     * Save formed teams to database
+     * Record a saved formation as an immutable version and make it the organizer's active one, all in
+     * one transaction: rows for new or changed teams, the team_formations row, its team links, one
+     * packed membership blob, and the organizer's active-formation pointer. Team rows are never
+     * updated or deleted, so every stored version keeps pointing at the teams it was saved with; a
+     * team identical to one of the organizer's active formation is linked again instead of being
+     * rewritten. Other organizers' formations are not touched.
+     * teams and team_members therefore grow with the formation history, by the new or changed
+     * teams of each version; rows no version links to are removed by deleteUnlinkedTeams.
+     * Returns the new formation ID, or -1 if nothing was saved.
      */
-    public static boolean saveTeamsToDatabase(List<Team> teams, int teamSize, String organizerId) {
+    public static int saveFormationVersion(List<Team> teams, List<Participant> unassigned,
+                                           FormationStatistics stats, String formationName, String organizerId) {
         if (teams == null || teams.isEmpty()) {
             Logger.warning("No teams to save to database");
-            return false;
+            return -1;
         }
 
+        int teamSize = stats.getTeamSize();
+        Deadline deadline = Deadline.start("saveFormation", SAVE_BUDGET_MILLIS);
         Connection conn = null;
         try {
-            conn = DatabaseConnection.getConnection();
+            conn = DatabaseConnection.openConnection();
             conn.setAutoCommit(false);
 
-            // Clear existing team assignments
-            clearAllTeamAssignments(conn);
+            Map<Set<String>, StoredTeam> active = loadActiveTeams(conn, organizerId);
+            List<Team> persistedTeams = new ArrayList<>(teams.size());
+            List<Team> newTeams = new ArrayList<>();
 
-            // Insert teams and members
             for (Team team : teams) {
-                int teamId = insertTeam(conn, team, teamSize, organizerId);
+                Set<String> memberIds = memberIds(team);
+                StoredTeam match = active.remove(memberIds);
+                boolean reused = match != null && !match.differsFrom(team, teamSize, organizerId);
+                int teamId = reused ? match.teamId : insertTeam(conn, team, teamSize, organizerId);
+                if (teamId < 0) {
+                    throw new SQLException("No ID generated for new team");
+                }
 
-                if (teamId > 0) {
-                    // Insert team members
-                    for (Participant p : team.getMembers()) {
-                        insertTeamMember(conn, teamId, p.getId());
-                    }
+                Team persisted = new Team(teamId);
+                for (Participant p : team.getMembers()) {
+                    persisted.addMember(p);
                 }
+                persistedTeams.add(persisted);
+                if (!reused) {
+                    newTeams.add(persisted);
+                }
+            }
+            insertMembers(conn, newTeams);
+
+            int formationId = insertFormation(conn, stats, formationName, organizerId);
+            insertFormationLinks(conn, formationId, persistedTeams);
+
+            byte[] membership = encodeMembership(persistedTeams, unassigned, teamSize);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO formation_snapshots (formation_id, membership) VALUES (?, ?)")) {
+                pstmt.setInt(1, formationId);
+                pstmt.setBytes(2, membership);
+                pstmt.executeUpdate();
             }
 
+            long activatedAt = System.currentTimeMillis();
+            setActiveFormation(conn, organizerId, formationId, activatedAt);
             conn.commit();
-            Logger.info("Successfully saved " + teams.size() + " teams to database");
-            return true;
+            Logger.info("Stored formation version " + formationId + " (" + teams.size() + " teams, "
+                    + newTeams.size() + " new, " + membership.length + " bytes)");
 
-        } catch (SQLException e) {
-            Logger.error("Error saving teams to database", e);
+            if (unassigned != null) {
+                FormationView.publish(organizerId, formationId, activatedAt, persistedTeams, unassigned);
+            } else {
+                FormationView.invalidate(organizerId);
+            }
+            return formationId;
+
+        } catch (SQLException | IOException e) {
+            Logger.error("Error saving formation version", e);
             if (conn != null) {
                 try {
                     conn.rollback();
@@ -52,16 +100,87 @@ public class TeamDAO {
                     Logger.error("Error rolling back transaction", ex);
                 }
             }
-            return false;
+            return -1;
         } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                } catch (SQLException e) {
-                    Logger.error("Error resetting auto-commit", e);
+            closeTransaction(conn);
+            deadline.close();
+        }
+    }
+
+    /**
+     * Restore auto-commit and close; the connection is closed even if the reset fails
+     */
+    private static void closeTransaction(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            Logger.error("Error resetting auto-commit", e);
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                Logger.error("Error closing connection", e);
+            }
+        }
+    }
+
+    /**
+     * Load the teams of the organizer's active formation keyed by their member IDs
+     */
+    private static Map<Set<String>, StoredTeam> loadActiveTeams(Connection conn, String organizerId) throws SQLException {
+        Map<Integer, StoredTeam> byId = new HashMap<>();
+        String teamQuery = "SELECT t.team_id, t.team_size, t.avg_skill_level, t.role_diversity, t.created_by " +
+                "FROM active_formations af " +
+                "JOIN formation_teams ft ON ft.formation_id = af.formation_id " +
+                "JOIN teams t ON t.team_id = ft.team_id " +
+                "WHERE af.organizer_id = ?";
+        String memberQuery = "SELECT tm.team_id, tm.participant_id " +
+                "FROM active_formations af " +
+                "JOIN formation_teams ft ON ft.formation_id = af.formation_id " +
+                "JOIN team_members tm ON tm.team_id = ft.team_id " +
+                "WHERE af.organizer_id = ?";
+
+        try (PreparedStatement teamStmt = conn.prepareStatement(teamQuery);
+             PreparedStatement memberStmt = conn.prepareStatement(memberQuery)) {
+            teamStmt.setString(1, FormationView.scope(organizerId));
+            memberStmt.setString(1, FormationView.scope(organizerId));
+            try (ResultSet rs = teamStmt.executeQuery()) {
+                while (rs.next()) {
+                    int teamId = rs.getInt("team_id");
+                    byId.put(teamId, new StoredTeam(teamId,
+                            rs.getInt("team_size"),
+                            rs.getDouble("avg_skill_level"),
+                            rs.getLong("role_diversity"),
+                            rs.getString("created_by")));
                 }
             }
+
+            try (ResultSet rs = memberStmt.executeQuery()) {
+                while (rs.next()) {
+                    StoredTeam team = byId.get(rs.getInt("team_id"));
+                    if (team != null) {
+                        team.members.add(rs.getString("participant_id"));
+                    }
+                }
+            }
+        }
+
+        Map<Set<String>, StoredTeam> byMembers = new HashMap<>();
+        for (StoredTeam team : byId.values()) {
+            byMembers.put(team.members, team);
+        }
+        return byMembers;
+    }
+
+    private static Set<String> memberIds(Team team) {
+        Set<String> ids = new HashSet<>();
+        for (Participant p : team.getMembers()) {
+            ids.add(p.getId());
         }
+        return ids;
     }
 
     /**
@@ -91,63 +210,171 @@ public class TeamDAO {
     }
 
     /**
-     * Insert a team member
+     * Insert the members of newly inserted teams
      */
-    private static void insertTeamMember(Connection conn, int teamId, String participantId) throws SQLException {
-        String query = "INSERT INTO team_members (team_id, participant_id) VALUES (?, ?)";
-
-        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setInt(1, teamId);
-            pstmt.setString(2, participantId);
-            pstmt.executeUpdate();
+    private static void insertMembers(Connection conn, List<Team> newTeams) throws SQLException {
+        if (newTeams.isEmpty()) return;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO team_members (team_id, participant_id) VALUES (?, ?)")) {
+            for (Team team : newTeams) {
+                for (Participant p : team.getMembers()) {
+                    pstmt.setInt(1, team.getTeamId());
+                    pstmt.setString(2, p.getId());
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
         }
     }
 
     /**
-     * Clear all existing team assignments
+     * An organizer's active formation as loaded for its view; formation -1 if it has none
      */
-    public static void clearAllTeamAssignments(Connection conn) throws SQLException {
-        String deleteMembers = "DELETE FROM team_members";
-        String deleteTeams = "DELETE FROM teams";
-
-        try (Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(deleteMembers);
-            stmt.executeUpdate(deleteTeams);
-            Logger.info("Cleared all existing team assignments");
+    static final class ActiveTeams {
+        final int formationId;
+        final long activatedAt;
+        final List<Team> teams;
+
+        private ActiveTeams(int formationId, long activatedAt, List<Team> teams) {
+            this.formationId = formationId;
+            this.activatedAt = activatedAt;
+            this.teams = teams;
         }
     }
 
     /**
-     * Get all teams from database
+     * Team row of the active formation, used to diff against a new formation
      */
-    public static List<Team> getAllTeamsFromDatabase() {
-        List<Team> teams = new ArrayList<>();
-        String query = "SELECT DISTINCT t.team_id FROM teams t ORDER BY t.team_id";
+    private static final class StoredTeam {
+        private final int teamId;
+        private final int teamSize;
+        private final double avgSkill;
+        private final long roleDiversity;
+        private final String createdBy;
+        private final Set<String> members = new HashSet<>();
+
+        private StoredTeam(int teamId, int teamSize, double avgSkill, long roleDiversity, String createdBy) {
+            this.teamId = teamId;
+            this.teamSize = teamSize;
+            this.avgSkill = avgSkill;
+            this.roleDiversity = roleDiversity;
+            this.createdBy = createdBy;
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        private boolean differsFrom(Team team, int newTeamSize, String organizerId) {
+            // avg_skill_level is stored as a rounded decimal
+            return teamSize != newTeamSize
+                    || Math.abs(avgSkill - team.getAverageSkill()) >= 0.005
+                    || roleDiversity != team.getRoleDiversity()
+                    || !Objects.equals(createdBy, organizerId);
+        }
+    }
 
-            while (rs.next()) {
-                int teamId = rs.getInt("team_id");
-                Team team = getTeamById(teamId);
-                if (team != null) {
-                    teams.add(team);
-                }
+    /**
+     * Delete teams (and, by cascade, their members) that no formation version links to, such as
+     * teams written before formations were versioned. Teams created in the last hour are left
+     * alone, since a save still in progress links its new teams only when it commits.
+     */
+    public static int deleteUnlinkedTeams() {
+        String query = "DELETE FROM teams WHERE created_at < NOW() - INTERVAL 1 HOUR " +
+                "AND NOT EXISTS (SELECT 1 FROM formation_teams ft WHERE ft.team_id = teams.team_id)";
+
+        try (Connection conn = DatabaseConnection.openConnection();
+             Statement stmt = conn.createStatement()) {
+            int deleted = stmt.executeUpdate(query);
+            if (deleted > 0) {
+                Logger.info("Deleted " + deleted + " teams not linked to any formation version");
             }
+            return deleted;
+        } catch (SQLException e) {
+            Logger.error("Error deleting unlinked teams", e);
+            return 0;
+        }
+    }
 
-            Logger.info("Retrieved " + teams.size() + " teams from database");
+    /**
+     * Get the teams of an organizer's active formation
+     */
+    public static List<Team> getAllTeamsFromDatabase(String organizerId) {
+        try {
+            return loadAllTeams(organizerId);
         } catch (SQLException e) {
             Logger.error("Error retrieving teams from database", e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Get the teams of an organizer's active formation, throwing instead of returning a partial or empty list
+     */
+    static List<Team> loadAllTeams(String organizerId) throws SQLException {
+        return loadActiveFormation(organizerId).teams;
+    }
+
+    /**
+     * Load an organizer's active formation with its teams, throwing instead of returning a partial result
+     */
+    static ActiveTeams loadActiveFormation(String organizerId) throws SQLException {
+        String query = "SELECT af.formation_id, af.activated_at, ft.team_id FROM active_formations af " +
+                "LEFT JOIN formation_teams ft ON ft.formation_id = af.formation_id " +
+                "WHERE af.organizer_id = ? ORDER BY ft.team_id";
+
+        int formationId = -1;
+        long activatedAt = 0;
+        List<Team> teams = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setString(1, FormationView.scope(organizerId));
+            List<Integer> teamIds = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    formationId = rs.getInt("formation_id");
+                    activatedAt = rs.getTimestamp("activated_at").getTime();
+                    int teamId = rs.getInt("team_id");
+                    if (!rs.wasNull()) {
+                        teamIds.add(teamId);
+                    }
+                }
+            }
+            for (int teamId : teamIds) {
+                teams.add(loadTeam(conn, teamId));
+            }
         }
 
-        return teams;
+        Logger.info("Retrieved " + teams.size() + " teams from database");
+        return new ActiveTeams(formationId, activatedAt, teams);
+    }
+
+    /**
+     * Organizers that have an active formation
+     */
+    static List<String> loadActiveOrganizers() throws SQLException {
+        List<String> organizers = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.openConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT organizer_id FROM active_formations ORDER BY organizer_id")) {
+            while (rs.next()) {
+                organizers.add(rs.getString("organizer_id"));
+            }
+        }
+        return organizers;
     }
 
     /**
      * Get a specific team by ID with all its members
      */
     public static Team getTeamById(int teamId) {
+        try (Connection conn = DatabaseConnection.openConnection()) {
+            return loadTeam(conn, teamId);
+        } catch (SQLException e) {
+            Logger.error("Error retrieving team by ID", e);
+            return null;
+        }
+    }
+
+    private static Team loadTeam(Connection conn, int teamId) throws SQLException {
         Team team = new Team(teamId);
 
         String query = "SELECT p.* FROM participants p " +
@@ -155,38 +382,30 @@ public class TeamDAO {
                 "WHERE tm.team_id = ? " +
                 "ORDER BY p.id";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, teamId);
 
             try (ResultSet rs = pstmt.executeQuery()) {
+                ParticipantRowMapper mapper = new ParticipantRowMapper(rs);
                 while (rs.next()) {
-                    Participant p = new Participant(
-                            rs.getString("id"),
-                            rs.getString("name"),
-                            rs.getString("email"),
-                            rs.getString("preferred_game"),
-                            rs.getInt("skill_level"),
-                            rs.getString("preferred_role"),
-                            rs.getInt("personality_score")
-                    );
-                    team.addMember(p);
+                    team.addMember(mapper.map(rs));
                 }
             }
-        } catch (SQLException e) {
-            Logger.error("Error retrieving team by ID", e);
-            return null;
         }
 
         return team;
     }
 
     /**
-     * Get team assignment for a specific participant
+     * Get the team a participant belongs to in an active formation. When several organizers'
+     * active formations place the participant, the most recently activated one wins.
      */
     public static Integer getParticipantTeamId(String participantId) {
-        String query = "SELECT team_id FROM team_members WHERE participant_id = ?";
+        String query = "SELECT tm.team_id FROM active_formations af " +
+                "JOIN formation_teams ft ON ft.formation_id = af.formation_id " +
+                "JOIN team_members tm ON tm.team_id = ft.team_id " +
+                "WHERE tm.participant_id = ? " +
+                "ORDER BY af.activated_at DESC, af.formation_id DESC LIMIT 1";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -206,16 +425,15 @@ public class TeamDAO {
     }
 
     /**
-     * Save team formation history
+     * Insert the team_formations history row and return its generated ID
      */
-    public static int saveTeamFormation(FormationStatistics stats, String formationName, String organizerId) {
+    private static int insertFormation(Connection conn, FormationStatistics stats, String formationName,
+                                       String organizerId) throws SQLException {
         String query = "INSERT INTO team_formations (formation_name, team_size, total_participants, " +
                 "teams_formed, participants_assigned, participants_remaining, created_by) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-
+        try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, formationName);
             pstmt.setInt(2, stats.getTeamSize());
             pstmt.setInt(3, stats.getTotalParticipants());
@@ -223,49 +441,30 @@ public class TeamDAO {
             pstmt.setInt(5, stats.getParticipantsAssigned());
             pstmt.setInt(6, stats.getParticipantsRemaining());
             pstmt.setString(7, organizerId);
+            pstmt.executeUpdate();
 
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        int formationId = generatedKeys.getInt(1);
-                        Logger.info("Saved team formation history with ID: " + formationId);
-                        return formationId;
-                    }
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
                 }
             }
-        } catch (SQLException e) {
-            Logger.error("Error saving team formation history", e);
         }
 
-        return -1;
+        throw new SQLException("No ID generated for formation " + formationName);
     }
 
     /**
-     * Link teams to a formation
+     * Link the teams of a version to its formation
      */
-    public static void linkTeamsToFormation(int formationId, List<Team> teams) {
-        String query = "INSERT INTO formation_teams (formation_id, team_id) VALUES (?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-
-            conn.setAutoCommit(false);
-
+    private static void insertFormationLinks(Connection conn, int formationId, List<Team> teams) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO formation_teams (formation_id, team_id) VALUES (?, ?)")) {
             for (Team team : teams) {
                 pstmt.setInt(1, formationId);
                 pstmt.setInt(2, team.getTeamId());
                 pstmt.addBatch();
             }
-
             pstmt.executeBatch();
-            conn.commit();
-
-            Logger.info("Linked " + teams.size() + " teams to formation " + formationId);
-
-        } catch (SQLException e) {
-            Logger.error("Error linking teams to formation", e);
         }
     }
 
@@ -274,7 +473,10 @@ public class TeamDAO {
      */
     public static List<Map<String, Object>> getTeamFormationHistory(String organizerId) {
         List<Map<String, Object>> history = new ArrayList<>();
-        String query = "SELECT * FROM team_formations WHERE created_by = ? ORDER BY created_at DESC";
+        // Column list matches idx_team_formations_history so the query is index-only
+        String query = "SELECT formation_id, formation_name, team_size, total_participants, teams_formed, " +
+                "participants_assigned, participants_remaining, created_at " +
+                "FROM team_formations WHERE created_by = ? ORDER BY created_at DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -302,4 +504,161 @@ public class TeamDAO {
 
         return history;
     }
-}
\ No newline at end of file
+
+    /**
+     * Load a stored formation version, resolving member IDs through the given lookup.
+     * Members that no longer exist are skipped.
+     */
+    public static FormationSnapshot loadFormationVersion(int formationId, Function<String, Participant> resolver) {
+        String query = "SELECT membership FROM formation_snapshots WHERE formation_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+
+            pstmt.setInt(1, formationId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return decodeMembership(formationId, rs.getBytes("membership"), resolver);
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error loading formation snapshot", e);
+        } catch (IOException e) {
+            Logger.error("Corrupt formation snapshot " + formationId, e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Point the organizer's active formation at one of its own saved versions; its teams become the
+     * current teams without rewriting any rows. Returns false for versions that belong to another
+     * organizer or have no linked teams.
+     */
+    public static boolean activateFormation(int formationId, String organizerId) {
+        String linked = "SELECT 1 FROM team_formations tf " +
+                "WHERE tf.formation_id = ? AND tf.created_by <=> ? " +
+                "AND EXISTS (SELECT 1 FROM formation_teams ft WHERE ft.formation_id = tf.formation_id)";
+
+        try (Connection conn = DatabaseConnection.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(linked)) {
+
+            pstmt.setInt(1, formationId);
+            pstmt.setString(2, organizerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    Logger.warning("Formation " + formationId + " has no linked teams of organizer " + organizerId + " to activate");
+                    return false;
+                }
+            }
+
+            setActiveFormation(conn, organizerId, formationId, System.currentTimeMillis());
+            FormationView.invalidate(organizerId);
+            Logger.info("Active formation of " + FormationView.scope(organizerId) + " set to " + formationId);
+            return true;
+        } catch (SQLException e) {
+            Logger.error("Error activating formation", e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the organizer's active formation ID, or -1 if none has been recorded
+     */
+    public static int getActiveFormationId(String organizerId) {
+        String query = "SELECT formation_id FROM active_formations WHERE organizer_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, FormationView.scope(organizerId));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("formation_id");
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error reading active formation", e);
+        }
+
+        return -1;
+    }
+
+    private static void setActiveFormation(Connection conn, String organizerId, int formationId,
+                                           long activatedAt) throws SQLException {
+        String query = "INSERT INTO active_formations (organizer_id, formation_id, activated_at) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE formation_id = VALUES(formation_id), activated_at = VALUES(activated_at)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, FormationView.scope(organizerId));
+            pstmt.setInt(2, formationId);
+            pstmt.setTimestamp(3, new Timestamp(activatedAt));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Pack team membership as deflated (teamSize, teams: [teamNo, member IDs], unassigned IDs)
+     */
+    private static byte[] encodeMembership(List<Team> teams, List<Participant> unassigned, int teamSize) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(SNAPSHOT_FORMAT_VERSION);
+            out.writeInt(teamSize);
+            out.writeInt(teams.size());
+            for (Team team : teams) {
+                out.writeInt(team.getTeamId());
+                out.writeInt(team.getMembers().size());
+                for (Participant p : team.getMembers()) {
+                    out.writeUTF(p.getId());
+                }
+            }
+
+            List<Participant> remaining = unassigned == null ? Collections.emptyList() : unassigned;
+            out.writeInt(remaining.size());
+            for (Participant p : remaining) {
+                out.writeUTF(p.getId());
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static FormationSnapshot decodeMembership(int formationId, byte[] membership,
+                                                      Function<String, Participant> resolver) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(membership)))) {
+            int format = in.readUnsignedByte();
+            if (format != SNAPSHOT_FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format " + format);
+            }
+
+            int teamSize = in.readInt();
+            int teamCount = in.readInt();
+            List<Team> teams = new ArrayList<>(teamCount);
+            for (int i = 0; i < teamCount; i++) {
+                Team team = new Team(in.readInt());
+                int memberCount = in.readInt();
+                for (int m = 0; m < memberCount; m++) {
+                    Participant p = resolver.apply(in.readUTF());
+                    if (p != null) {
+                        team.addMember(p);
+                    }
+                }
+                teams.add(team);
+            }
+
+            int remainingCount = in.readInt();
+            List<Participant> unassigned = new ArrayList<>(remainingCount);
+            for (int i = 0; i < remainingCount; i++) {
+                Participant p = resolver.apply(in.readUTF());
+                if (p != null) {
+                    unassigned.add(p);
+                }
+            }
+
+            return new FormationSnapshot(formationId, teamSize, teams, unassigned);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package Database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * Gives every statement a query timeout: the time left on the thread's Deadline, or
+ * db.query.timeout.seconds when no deadline is bound. Once a deadline has expired no
+ * further statements are created for it.
+ */
+final class TimedConnection {
+    private static final int DEFAULT_QUERY_TIMEOUT_SECONDS =
+            Math.max(1, DatabaseConfig.getInt("db.query.timeout.seconds", 30));
+
+    private TimedConnection() {}
+
+    static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TimedConnection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    boolean createsStatement = name.equals("createStatement") || name.startsWith("prepare");
+                    Deadline deadline = Deadline.current();
+                    if (createsStatement && deadline != null && deadline.isExpired()) {
+                        deadline.reportExceeded();
+                        throw new SQLTimeoutException("Latency budget exceeded: " + deadline.getOperation());
+                    }
+
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+
+                    if (result instanceof Statement statement) {
+                        statement.setQueryTimeout(deadline != null
+                                ? (int) Math.max(1, (deadline.remainingMillis() + 999) / 1000)
+                                : DEFAULT_QUERY_TIMEOUT_SECONDS);
+                    }
+                    return result;
+                });
+    }
+}
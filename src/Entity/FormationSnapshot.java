@@ -0,0 +1,36 @@
+package Entity;
+
+import java.util.List;
+
+/**
+ * A stored formation version: its teams and the participants left unassigned
+ */
+public class FormationSnapshot {
+    private final int formationId;
+    private final int teamSize;
+    private final List<Team> teams;
+    private final List<Participant> unassigned;
+
+    public FormationSnapshot(int formationId, int teamSize, List<Team> teams, List<Participant> unassigned) {
+        this.formationId = formationId;
+        this.teamSize = teamSize;
+        this.teams = teams;
+        this.unassigned = unassigned;
+    }
+
+    public int getFormationId() {
+        return formationId;
+    }
+
+    public int getTeamSize() {
+        return teamSize;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    public List<Participant> getUnassigned() {
+        return unassigned;
+    }
+}
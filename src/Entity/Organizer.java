@@ -1,5 +1,7 @@
 package Entity;
 
+import Database.IdAllocator;
+
 public class Organizer {
     private final String id;
     private final String name;
@@ -15,16 +17,12 @@ public class Organizer {
 
     // Constructor without ID (for new organizer registration - auto-generate ID)
     public Organizer(String name, String email, String password) {
-        this.id = generateId();
+        this.id = IdAllocator.nextOrganizerId();
         this.name = name;
         this.email = email;
         this.password = password;
     }
 
-    private String generateId() {
-        return "ORG" + String.format("%03d", (int)(Math.random() * 1000));
-    }
-
     // Getters
     public String getId() {
         return id;
@@ -1,115 +1,138 @@
 package Entity;
 
+import Database.IdAllocator;
 import Enums.Game;
 import Enums.Role;
 import Enums.PersonalityType;
 
-public class Participant {
-    private final String id;
-    private final String name;
-    private final String email;
-    private final Game game;
-    private final int skillLevel;
-    private final Role role;
-    private final int personalityScore;
-    private final PersonalityType personalityType;
+import java.nio.charset.StandardCharsets;
 
-    public Participant(String id, String name, String email, String game, int skillLevel, String role, int personalityScore) {
-        this.id = id;
-        this.name = name;
-        this.email = email;
-        this.game = parseGame(game);
-        this.skillLevel = skillLevel;
-        this.role = parseRole(role);
-        this.personalityScore = personalityScore;
-        this.personalityType = PersonalityType.classify(personalityScore);
-    }
+/**
+ * A registered participant, stored compactly because rosters can hold millions of them.
+ * IDs of the form letter + digits (P000001042, P005) are kept as a number; enums, skill and score
+ * are packed into one long; first names or name prefixes and email domains are shared through a
+ * string pool; the rest of the name and the email local part are kept as UTF-8 bytes.
+ * Getters rebuild the strings on each call.
+ */
+public class Participant implements ParticipantView {
+    private static final StringPool POOL = new StringPool();
+    private static final Game[] GAMES = Game.values();
+    private static final Role[] ROLES = Role.values();
+    private static final PersonalityType[] TYPES = PersonalityType.values();
 
-    // Constructor without ID (for survey completion - auto-generate ID)
-    public Participant(String name, String email, Game game, int skillLevel, Role role, int personalityScore) {
-        this.id = generateId();
-        this.name = name;
-        this.email = email;
-        this.game = game;
-        this.skillLevel = skillLevel;
-        this.role = role;
-        this.personalityScore = personalityScore;
-        this.personalityType = PersonalityType.classify(personalityScore);
-    }
+    private static final int NONE = -1;
 
-    private String generateId() {
-        // Generate a unique ID with timestamp to avoid collisions
-        return "P" + System.currentTimeMillis() % 100000;
+    // Letter (5 bits) | digit count (4 bits) | number (50 bits), or NONE if the ID is kept in text
+    private final long idCode;
+    // Score (32 bits) | skill (16 bits) | game (3 bits) | role (3 bits) | personality type (2 bits)
+    private final long attributes;
+    // Name head code + 1, email domain code + 1 (0 = none), [ID if not encoded], name tail, email local part.
+    // All but the last field are prefixed with their varint length.
+    private final byte[] text;
+
+    public Participant(String id, String name, String email, String game, int skillLevel, String role, int personalityScore) {
+        this(id, name, email, Game.fromDisplayName(game), skillLevel, Role.fromDisplayName(role), personalityScore, null);
     }
 
-    private Game parseGame(String gameStr) {
-        for (Game g : Game.values()) {
-            if (g.getDisplayName().equalsIgnoreCase(gameStr)) {
-                return g;
-            }
+    // Constructor from already-decoded values; a null personality type is classified from the score
+    public Participant(String id, String name, String email, Game game, int skillLevel, Role role,
+                       int personalityScore, PersonalityType personalityType) {
+        if (skillLevel < Short.MIN_VALUE || skillLevel > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Skill level out of range: " + skillLevel);
         }
-        return Game.CHESS; // Default
+        PersonalityType type = personalityType != null ? personalityType : PersonalityType.classify(personalityScore);
+
+        this.idCode = encodeId(id);
+        this.attributes = (personalityScore & 0xFFFFFFFFL)
+                | ((long) (skillLevel & 0xFFFF) << 32)
+                | ((long) game.ordinal() << 48)
+                | ((long) role.ordinal() << 51)
+                | ((long) type.ordinal() << 54);
+
+        int split = nameSplit(name);
+        int at = email.lastIndexOf('@');
+        this.text = encodeText(
+                split > 0 ? POOL.intern(name.substring(0, split)) : NONE,
+                at >= 0 ? POOL.intern(email.substring(at + 1)) : NONE,
+                idCode == NONE ? id : null,
+                split > 0 ? name.substring(split) : name,
+                at >= 0 ? email.substring(0, at) : email);
     }
 
-    private Role parseRole(String roleStr) {
-        for (Role r : Role.values()) {
-            if (r.getDisplayName().equalsIgnoreCase(roleStr)) {
-                return r;
-            }
-        }
-        return Role.SUPPORTER; // Default
+    // Constructor without ID (for survey completion - auto-generate ID)
+    public Participant(String name, String email, Game game, int skillLevel, Role role, int personalityScore) {
+        this(IdAllocator.nextParticipantId(), name, email, game, skillLevel, role, personalityScore, null);
     }
 
     // Getters
+    @Override
     public String getId() {
-        return id;
+        return idCode == NONE ? textReader().field() : decodeId(idCode);
     }
 
+    @Override
     public String getName() {
-        return name;
+        Reader reader = textReader();
+        if (idCode == NONE) {
+            reader.skipField();
+        }
+        String tail = reader.field();
+        return reader.nameHead == NONE ? tail : POOL.get(reader.nameHead) + tail;
     }
 
+    @Override
     public String getEmail() {
-        return email;
+        Reader reader = textReader();
+        if (idCode == NONE) {
+            reader.skipField();
+        }
+        reader.skipField();
+        String local = reader.rest();
+        return reader.emailDomain == NONE ? local : local + "@" + POOL.get(reader.emailDomain);
     }
 
+    @Override
     public Game getGame() {
-        return game;
+        return GAMES[(int) ((attributes >>> 48) & 0x7)];
     }
 
+    @Override
     public int getSkillLevel() {
-        return skillLevel;
+        return (short) (attributes >>> 32);
     }
 
+    @Override
     public Role getRole() {
-        return role;
+        return ROLES[(int) ((attributes >>> 51) & 0x7)];
     }
 
+    @Override
     public int getPersonalityScore() {
-        return personalityScore;
+        return (int) attributes;
     }
 
+    @Override
     public PersonalityType getPersonalityType() {
-        return personalityType;
+        return TYPES[(int) ((attributes >>> 54) & 0x3)];
     }
 
     @Override
     public String toString() {
         return String.format("%-8s | %-20s | %-25s | %-12s | Skill: %-2d | %-12s | %s (Score: %d)",
-                id, name, email, game.getDisplayName(), skillLevel, role.getDisplayName(),
-                personalityType.getDisplayName(), personalityScore);
+                getId(), getName(), getEmail(), getGame().getDisplayName(), getSkillLevel(),
+                getRole().getDisplayName(), getPersonalityType().getDisplayName(), getPersonalityScore());
     }
 
     public String toCSVString() {
         return String.format("%s,%s,%s,%s,%d,%s,%d,%s",
-                id,
-                name,
-                email,
-                game.getDisplayName(),
-                skillLevel,
-                role.getDisplayName(),
-                personalityScore,
-                personalityType.getDisplayName());
+                getId(),
+                getName(),
+                getEmail(),
+                getGame().getDisplayName(),
+                getSkillLevel(),
+                getRole().getDisplayName(),
+                getPersonalityScore(),
+                getPersonalityType().getDisplayName());
     }
 
     @Override
@@ -117,11 +140,162 @@ public class Participant {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Participant that = (Participant) o;
-        return id.equals(that.id);
+        // Encoding is canonical, so equal IDs have equal codes
+        return idCode == that.idCode && (idCode != NONE || getId().equals(that.getId()));
     }
 
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return idCode != NONE ? Long.hashCode(idCode) : getId().hashCode();
+    }
+
+    /**
+     * An ID of a letter followed by 1-15 digits as a non-negative number that keeps the digit count,
+     * or -1 for IDs in any other form. Distinct IDs always get distinct codes.
+     */
+    public static long encodeId(String id) {
+        int length = id.length();
+        if (length < 2 || length > 16 || id.charAt(0) < 'A' || id.charAt(0) > 'Z') {
+            return NONE;
+        }
+
+        long number = 0;
+        for (int i = 1; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NONE;
+            }
+            number = number * 10 + (c - '0');
+        }
+        if (number >= (1L << 50)) {
+            return NONE;
+        }
+        return ((long) (id.charAt(0) - 'A') << 54) | ((long) (length - 1) << 50) | number;
+    }
+
+    /**
+     * The ID a non-negative code from encodeId stands for
+     */
+    public static String decodeId(long code) {
+        char letter = (char) ('A' + (code >>> 54));
+        int width = (int) ((code >>> 50) & 0xF);
+        String digits = Long.toString(code & ((1L << 50) - 1));
+
+        StringBuilder id = new StringBuilder(width + 1).append(letter);
+        for (int i = digits.length(); i < width; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    /**
+     * Length of the shared head of a name: up to and including its first space or underscore
+     */
+    private static int nameSplit(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == ' ' || c == '_') {
+                return i + 1;
+            }
+        }
+        return NONE;
+    }
+
+    private static byte[] encodeText(int nameHead, int emailDomain, String id, String nameTail, String emailLocal) {
+        byte[] idBytes = id == null ? null : id.getBytes(StandardCharsets.UTF_8);
+        byte[] tailBytes = nameTail.getBytes(StandardCharsets.UTF_8);
+        byte[] localBytes = emailLocal.getBytes(StandardCharsets.UTF_8);
+
+        int size = varIntSize(nameHead + 1) + varIntSize(emailDomain + 1)
+                + varIntSize(tailBytes.length) + tailBytes.length + localBytes.length;
+        if (idBytes != null) {
+            size += varIntSize(idBytes.length) + idBytes.length;
+        }
+
+        byte[] text = new byte[size];
+        int pos = putVarInt(text, 0, nameHead + 1);
+        pos = putVarInt(text, pos, emailDomain + 1);
+        if (idBytes != null) {
+            pos = putField(text, pos, idBytes);
+        }
+        pos = putField(text, pos, tailBytes);
+        System.arraycopy(localBytes, 0, text, pos, localBytes.length);
+        return text;
+    }
+
+    private static int putField(byte[] text, int pos, byte[] field) {
+        pos = putVarInt(text, pos, field.length);
+        System.arraycopy(field, 0, text, pos, field.length);
+        return pos + field.length;
+    }
+
+    private static int putVarInt(byte[] text, int pos, int value) {
+        while (value >= 0x80) {
+            text[pos++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        text[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Reader positioned after the pool codes, which it has already decoded
+     */
+    private Reader textReader() {
+        Reader reader = new Reader(text);
+        reader.nameHead = reader.varInt() - 1;
+        reader.emailDomain = reader.varInt() - 1;
+        return reader;
+    }
+
+    /**
+     * Sequential decoder over the text bytes
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int pos = 0;
+        private int nameHead = NONE;
+        private int emailDomain = NONE;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int varInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private String field() {
+            int length = varInt();
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private void skipField() {
+            int length = varInt();
+            pos += length;
+        }
+
+        private String rest() {
+            return new String(bytes, pos, bytes.length - pos, StandardCharsets.UTF_8);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package Entity;
+
+import Enums.Game;
+import Enums.PersonalityType;
+import Enums.Role;
+
+/**
+ * Read-only participant attributes, implemented by Participant and by flyweight cursors
+ * over rosters that do not keep Participant objects
+ */
+public interface ParticipantView {
+    String getId();
+
+    String getName();
+
+    String getEmail();
+
+    Game getGame();
+
+    int getSkillLevel();
+
+    Role getRole();
+
+    int getPersonalityScore();
+
+    PersonalityType getPersonalityType();
+}
@@ -0,0 +1,62 @@
+package Entity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary of strings shared by many participants (first names, name prefixes,
+ * email domains). Each distinct string is stored once and referred to by its int code.
+ * Entries are never removed; the pool only holds the repeated fragments, not whole names or addresses.
+ */
+final class StringPool {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[][] chunks = new String[16][];
+    // Written after each new entry, so a reader that sees a code also sees its string
+    private volatile int size = 0;
+
+    int intern(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+
+            int next = size;
+            int chunk = next >>> CHUNK_BITS;
+            String[][] current = chunks;
+            if (chunk == current.length) {
+                String[][] grown = new String[current.length * 2][];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[chunk] == null) {
+                current[chunk] = new String[CHUNK_SIZE];
+            }
+            current[chunk][next & (CHUNK_SIZE - 1)] = value;
+            chunks = current;
+            size = next + 1;
+
+            codes.put(value, next);
+            return next;
+        }
+    }
+
+    String get(int code) {
+        if (code >= size) {
+            throw new IllegalArgumentException("Unknown string code: " + code);
+        }
+        return chunks[code >>> CHUNK_BITS][code & (CHUNK_SIZE - 1)];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -1,5 +1,9 @@
 package Enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum Game {
     CHESS("Chess"),
     FIFA("FIFA"),
@@ -18,6 +22,31 @@ public enum Game {
         return displayName;
     }
 
+    // Exact display names first, then lower-cased ones for case-insensitive matches
+    private static final Map<String, Game> BY_NAME = new HashMap<>();
+    private static final Map<String, Game> BY_LOWER_NAME = new HashMap<>();
+
+    static {
+        for (Game value : values()) {
+            BY_NAME.put(value.displayName, value);
+            BY_LOWER_NAME.put(value.displayName.toLowerCase(Locale.ROOT), value);
+        }
+    }
+
+    /**
+     * Look up by display name, ignoring case; unknown names map to CHESS
+     */
+    public static Game fromDisplayName(String name) {
+        if (name == null) {
+            return CHESS;
+        }
+        Game value = BY_NAME.get(name);
+        if (value == null) {
+            value = BY_LOWER_NAME.getOrDefault(name.toLowerCase(Locale.ROOT), CHESS);
+        }
+        return value;
+    }
+
     public static Game fromInt(int choice) {
         if (choice >= 1 && choice <= values().length) {
             return values()[choice - 1];
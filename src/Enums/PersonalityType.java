@@ -1,5 +1,9 @@
 package Enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum PersonalityType {
     LEADER("Leader", 90, 100),
     BALANCED("Balanced", 70, 89),
@@ -19,6 +23,27 @@ public enum PersonalityType {
         return displayName;
     }
 
+    private static final Map<String, PersonalityType> BY_NAME = new HashMap<>();
+    private static final Map<String, PersonalityType> BY_LOWER_NAME = new HashMap<>();
+
+    static {
+        for (PersonalityType type : values()) {
+            BY_NAME.put(type.displayName, type);
+            BY_LOWER_NAME.put(type.displayName.toLowerCase(Locale.ROOT), type);
+        }
+    }
+
+    /**
+     * Look up by display name, ignoring case; returns null for unknown names
+     */
+    public static PersonalityType fromDisplayName(String name) {
+        if (name == null) {
+            return null;
+        }
+        PersonalityType type = BY_NAME.get(name);
+        return type != null ? type : BY_LOWER_NAME.get(name.toLowerCase(Locale.ROOT));
+    }
+
     public static PersonalityType classify(int score) {
         for (PersonalityType type : values()) {
             if (score >= type.minScore && score <= type.maxScore) {
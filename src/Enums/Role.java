@@ -1,5 +1,9 @@
 package Enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum Role {
     STRATEGIST("Strategist"),
     ATTACKER("Attacker"),
@@ -17,6 +21,31 @@ public enum Role {
         return displayName;
     }
 
+    // Exact display names first, then lower-cased ones for case-insensitive matches
+    private static final Map<String, Role> BY_NAME = new HashMap<>();
+    private static final Map<String, Role> BY_LOWER_NAME = new HashMap<>();
+
+    static {
+        for (Role value : values()) {
+            BY_NAME.put(value.displayName, value);
+            BY_LOWER_NAME.put(value.displayName.toLowerCase(Locale.ROOT), value);
+        }
+    }
+
+    /**
+     * Look up by display name, ignoring case; unknown names map to SUPPORTER
+     */
+    public static Role fromDisplayName(String name) {
+        if (name == null) {
+            return SUPPORTER;
+        }
+        Role value = BY_NAME.get(name);
+        if (value == null) {
+            value = BY_LOWER_NAME.getOrDefault(name.toLowerCase(Locale.ROOT), SUPPORTER);
+        }
+        return value;
+    }
+
     public static Role fromInt(int choice) {
         if (choice >= 1 && choice <= values().length) {
             return values()[choice - 1];
@@ -0,0 +1,18 @@
+package Exceptions;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps an SQLException where a checked exception cannot be thrown, such as while a
+ * stream of database rows is being consumed
+ */
+public class UncheckedSQLException extends RuntimeException {
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -1,5 +1,10 @@
 package Main;
 
+import Entity.Participant;
+import Entity.Team;
+
+import java.util.List;
+
 public class FormationStatistics {
     private final int totalParticipants;
     private final int teamsFormed;
@@ -16,6 +21,18 @@ public class FormationStatistics {
         this.teamSize = teamSize;
     }
 
+    /**
+     * Statistics of an already formed set of teams
+     */
+    public static FormationStatistics of(List<Team> teams, List<Participant> unassigned, int teamSize) {
+        int assigned = 0;
+        for (Team team : teams) {
+            assigned += team.getSize();
+        }
+        int remaining = unassigned == null ? 0 : unassigned.size();
+        return new FormationStatistics(assigned + remaining, teams.size(), assigned, remaining, teamSize);
+    }
+
     // Getters for database operations
     public int getTotalParticipants() {
         return totalParticipants;
@@ -2,6 +2,13 @@ package Main;
 
 import Database.AuthenticationService;
 import Database.DatabaseConnection;
+import Database.Deadline;
+import Database.KeyFilters;
+import Database.ParticipantCache;
+import Database.ProfileUpdateBuffer;
+import Database.RegistrationQueue;
+import Database.RosterSnapshotFile;
+import Database.SchemaMigrator;
 import Database.TeamDAO;
 import Entity.Organizer;
 import Entity.Participant;
@@ -9,43 +16,96 @@ import Enums.Game;
 import Enums.Role;
 import Exceptions.*;
 import Log.Logger;
+import Manager.FormationJob;
+import Manager.OrganizerSession;
+import Manager.SessionManager;
+import Manager.SessionRegistry;
 import Manager.TeamManager;
+import Manager.UserSession;
+import Repository.Repositories;
+import Threads.WorkerPools;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public class TeamMateApp {
     private static final Scanner scanner = new Scanner(System.in);
-    private static final TeamManager teamManager = new TeamManager();
-    private static String loggedInParticipantId = null;
-    private static String loggedInOrganizerId = null;
 
     public static void main(String[] args) {
         Logger.info("=== TeamMate System Started ===");
 
-        // Test database connection
-        System.out.println("Testing database connection...");
-        if (!DatabaseConnection.testConnection()) {
-            System.out.println("✗ Failed to connect to database. Please check your MySQL server.");
-            System.out.println("Make sure MySQL is running and credentials in DatabaseConnection.java are correct.");
-            System.exit(1);
+        // -Dteammate.storage=log|memory skips MySQL entirely
+        String storage = System.getProperty("teammate.storage", "mysql");
+        if ("memory".equalsIgnoreCase(storage)) {
+            Repositories.useInMemory();
+            System.out.println("✓ Using in-memory storage (data is not persisted)\n");
+        } else if ("log".equalsIgnoreCase(storage)) {
+            Path logPath = Paths.get(System.getProperty("teammate.log.path", "data/teammate.log"));
+            if (Repositories.useLogStore(logPath) != null) {
+                System.out.println("✓ Using embedded log store: " + logPath + "\n");
+            } else {
+                System.out.println("✗ Could not open log store " + logPath + ". See logs for details.");
+                System.exit(1);
+            }
+        } else {
+            // Test database connection
+            System.out.println("Testing database connection...");
+            if (DatabaseConnection.testConnection()) {
+                System.out.println("✓ Database connection successful!\n");
+
+                // Bring the schema up to date before anything queries it
+                if (!SchemaMigrator.migrate()) {
+                    System.out.println("⚠ Warning: Schema migrations could not be applied. See logs for details.");
+                }
+
+                // Restore the roster from the last snapshot while the user is at the menu
+                RosterSnapshotFile.loadInBackground();
+                RosterSnapshotFile.startPeriodicSnapshots();
+
+                // Lets lookups for unknown IDs and emails skip the database
+                KeyFilters.buildInBackground();
+
+                // Teams no formation version links to are never read again
+                WorkerPools.io().submit(TeamDAO::deleteUnlinkedTeams);
+            } else if ("memory".equalsIgnoreCase(System.getProperty("teammate.storage.fallback"))) {
+                // Opt-in: -Dteammate.storage.fallback=memory
+                System.out.println("✗ Failed to connect to database. Please check your MySQL server.");
+                System.out.println("⚠ Continuing with in-memory storage - data will not be persisted.\n");
+                Repositories.useInMemory();
+            } else {
+                System.out.println("✗ Failed to connect to database. Please check your MySQL server.");
+                System.out.println("Make sure MySQL is running and credentials in DatabaseConfig.properties are correct,");
+                System.out.println("or start with -Dteammate.storage=memory to run without persistence.");
+                System.exit(1);
+            }
         }
-        System.out.println("✓ Database connection successful!\n");
 
-        Logger.logSystemEvent("Application initialized with database");
+        Logger.logSystemEvent("Application initialized with " + (Repositories.isInMemory() ? "in-memory storage" : "database"));
 
         System.out.println("╔═══════════════════════════════╗");
         System.out.println("║   Welcome to TeamMate App     ║");
         System.out.println("╚═══════════════════════════════╝");
 
-        // Add shutdown hook to clear teams on exit
+        // Flush buffered writes and release the stores on exit; active formations are kept
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            Logger.info("Application shutting down - clearing team formations");
-            clearAllTeamsFromDatabase();
-            Logger.logSystemEvent("Application shutdown - teams cleared");
+            Logger.info("Application shutting down");
+            // Let in-flight formation and save tasks finish before the stores close
+            WorkerPools.shutdown();
+            RegistrationQueue.shutdown();
+            ProfileUpdateBuffer.shutdown();
+            SessionManager.shutdown();
+            SessionRegistry.closeAll();
+            if (Repositories.isMySQL()) {
+                RosterSnapshotFile.stop();
+            }
+            Repositories.shutdown();
+            ParticipantCache.logStats();
+            WorkerPools.logStats();
+            Deadline.logStats();
+            Logger.logSystemEvent("Application shutdown");
         }));
 
         while (true) {
@@ -58,25 +118,31 @@ public class TeamMateApp {
             int choice = getIntInput();
             Logger.debug("User selected main menu option: " + choice);
 
-            switch (choice) {
-                case 1:
-                    Logger.info("Organizer mode selected");
-                    organizerLogin();
-                    break;
-                case 2:
-                    Logger.info("Participant mode selected");
-                    participantLogin();
-                    break;
-                case 3:
-                    Logger.info("User exiting application");
-                    System.out.println("\nThank you for using TeamMate!");
-                    DatabaseConnection.closeConnection();
-                    Logger.logSystemEvent("Application shutdown");
-                    scanner.close();
-                    System.exit(0);
-                default:
-                    Logger.warning("Invalid main menu choice: " + choice);
-                    System.out.println("Invalid choice. Please try again.");
+            try {
+                switch (choice) {
+                    case 1:
+                        Logger.info("Organizer mode selected");
+                        organizerLogin();
+                        break;
+                    case 2:
+                        Logger.info("Participant mode selected");
+                        participantLogin();
+                        break;
+                    case 3:
+                        Logger.info("User exiting application");
+                        System.out.println("\nThank you for using TeamMate!");
+                        DatabaseConnection.closeConnection();
+                        Logger.logSystemEvent("Application shutdown");
+                        scanner.close();
+                        System.exit(0);
+                    default:
+                        Logger.warning("Invalid main menu choice: " + choice);
+                        System.out.println("Invalid choice. Please try again.");
+                }
+            } catch (UncheckedSQLException e) {
+                // A database read failed part-way; report it instead of working on partial data
+                Logger.error(e.getMessage(), e.getCause());
+                System.out.println("\n✗ Database error: " + e.getCause().getMessage());
             }
         }
     }
@@ -121,17 +187,18 @@ public class TeamMateApp {
 
         Logger.info("Organizer login attempt: " + organizerId);
 
-        Organizer organizer = AuthenticationService.authenticateOrganizer(organizerId, password);
-
-        if (organizer != null) {
-            loggedInOrganizerId = organizerId;
-            teamManager.setCurrentOrganizer(organizerId);
+        UserSession session = SessionManager.loginOrganizer(organizerId, password);
 
+        if (session != null) {
             System.out.println("\n✓ Login successful!");
-            System.out.println("Welcome, " + organizer.getName() + "!");
+            System.out.println("Welcome, " + session.getName() + "!");
 
             Logger.logUserAction(organizerId, "Logged in successfully");
-            organizerMenu();
+            try {
+                organizerMenu(session.getToken());
+            } finally {
+                SessionManager.logout(session.getToken());
+            }
         } else {
             System.out.println("\n✗ Error: Invalid Organizer ID or password.");
             Logger.warning("Failed organizer login attempt: " + organizerId);
@@ -157,6 +224,11 @@ public class TeamMateApp {
             return;
         }
 
+        if (Repositories.organizers().emailExists(email)) {
+            System.out.println("✗ Error: Email already registered");
+            return;
+        }
+
         System.out.print("Enter password: ");
         String password = scanner.nextLine().trim();
 
@@ -167,7 +239,7 @@ public class TeamMateApp {
 
         Organizer newOrganizer = new Organizer(name, email, password);
 
-        if (AuthenticationService.registerOrganizer(newOrganizer)) {
+        if (Repositories.organizers().register(newOrganizer)) {
             System.out.println("\n✓ Registration successful!");
             System.out.println("═══════════════════════════════════");
             System.out.println("Your Organizer ID: " + newOrganizer.getId());
@@ -180,8 +252,14 @@ public class TeamMateApp {
         }
     }
 
-    private static void organizerMenu() {
+    private static void organizerMenu(String token) {
         Logger.info("Entered Organizer Menu");
+        UserSession loggedIn = SessionManager.authorize(token);
+        if (loggedIn == null) {
+            System.out.println("\n✗ Your session has expired. Please log in again.");
+            return;
+        }
+        String loggedInOrganizerId = loggedIn.getUserId();
 
         while (true) {
             System.out.println("\n╔═══════════════════════════════════════╗");
@@ -194,15 +272,24 @@ public class TeamMateApp {
             System.out.println("3. View Formed Teams");
             System.out.println("4. View Remaining Participants");
             System.out.println("5. Load Previous Team Formation from CSV");
-            System.out.println("6. Logout");
+            System.out.println("6. Formation History / Restore");
+            System.out.println("7. Logout");
             System.out.print("Enter choice: ");
 
             int choice = getIntInput();
             Logger.debug("Organizer menu choice: " + choice);
 
+            UserSession userSession = SessionManager.authorize(token);
+            if (userSession == null) {
+                System.out.println("\n✗ Your session has expired. Please log in again.");
+                return;
+            }
+            OrganizerSession session = userSession.getOrganizerSession();
+            TeamManager teamManager = session.getTeamManager();
+
             switch (choice) {
                 case 1:
-                    formTeamsWithOptions();
+                    formTeamsWithOptions(teamManager);
                     break;
                 case 2:
                     Logger.logUserAction(loggedInOrganizerId, "Viewed all participants");
@@ -217,10 +304,13 @@ public class TeamMateApp {
                     teamManager.viewRemainingParticipants();
                     break;
                 case 5:
-                    loadPreviousTeamFormation();
+                    loadPreviousTeamFormation(teamManager);
                     break;
                 case 6:
-                    handleLogout();
+                    formationHistoryMenu(session);
+                    break;
+                case 7:
+                    handleLogout(token, loggedInOrganizerId);
                     return;
                 default:
                     Logger.warning("Invalid organizer menu choice: " + choice);
@@ -229,19 +319,10 @@ public class TeamMateApp {
         }
     }
 
-    private static void handleLogout() {
+    private static void handleLogout(String token, String loggedInOrganizerId) {
+        SessionManager.logout(token);
         Logger.logUserAction(loggedInOrganizerId, "Logged out");
         System.out.println("\n✓ Logged out successfully!");
-        loggedInOrganizerId = null;
-    }
-
-    private static void clearAllTeamsFromDatabase() {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            TeamDAO.clearAllTeamAssignments(conn);
-            Logger.info("All teams cleared from database");
-        } catch (SQLException e) {
-            Logger.error("Error clearing teams", e);
-        }
     }
 
     private static void participantLogin() {
@@ -288,16 +369,18 @@ public class TeamMateApp {
 
         Logger.info("Participant login attempt: " + participantId);
 
-        Participant participant = AuthenticationService.authenticateParticipant(participantId, password);
-
-        if (participant != null) {
-            loggedInParticipantId = participantId;
+        UserSession session = SessionManager.loginParticipant(participantId, password);
 
+        if (session != null) {
             System.out.println("\n✓ Login successful!");
-            System.out.println("Welcome, " + participant.getName() + "!");
+            System.out.println("Welcome, " + session.getName() + "!");
 
             Logger.logUserAction(participantId, "Logged in successfully");
-            participantMenu();
+            try {
+                participantMenu(new TeamManager(), session.getToken());
+            } finally {
+                SessionManager.logout(session.getToken());
+            }
         } else {
             Logger.warning("Failed login attempt - Invalid credentials: " + participantId);
             System.out.println("\n✗ Error: Invalid Participant ID or password.");
@@ -308,10 +391,16 @@ public class TeamMateApp {
     private static void registerNewParticipant() {
         Logger.info("New participant registration started");
         System.out.println("\n=== NEW PARTICIPANT REGISTRATION ===");
-        completeSurvey();
+        completeSurvey(new TeamManager());
     }
 
-    private static void participantMenu() {
+    private static void participantMenu(TeamManager teamManager, String token) {
+        UserSession loggedIn = SessionManager.authorize(token);
+        if (loggedIn == null) {
+            System.out.println("\n✗ Your session has expired. Please log in again.");
+            return;
+        }
+        String loggedInParticipantId = loggedIn.getUserId();
         Logger.info("Participant " + loggedInParticipantId + " entered participant menu");
 
         while (true) {
@@ -328,22 +417,28 @@ public class TeamMateApp {
             int choice = getIntInput();
             Logger.debug("Participant " + loggedInParticipantId + " menu choice: " + choice);
 
+            UserSession session = SessionManager.authorize(token);
+            if (session == null) {
+                System.out.println("\n✗ Your session has expired. Please log in again.");
+                return;
+            }
+
             switch (choice) {
                 case 1:
                     Logger.logUserAction(loggedInParticipantId, "Viewed own information");
-                    viewMyInfo();
+                    viewMyInfo(teamManager, session.getParticipant());
                     break;
                 case 2:
                     Logger.logUserAction(loggedInParticipantId, "Viewed team assignment");
-                    viewMyTeamAssignment();
+                    viewMyTeamAssignment(teamManager, session.getParticipant());
                     break;
                 case 3:
-                    updateMyProfile();
+                    updateMyProfile(teamManager, session);
                     break;
                 case 4:
+                    SessionManager.logout(token);
                     Logger.logUserAction(loggedInParticipantId, "Logged out");
                     System.out.println("\n✓ Logged out successfully!");
-                    loggedInParticipantId = null;
                     return;
                 default:
                     Logger.warning("Invalid participant menu choice: " + choice);
@@ -353,7 +448,7 @@ public class TeamMateApp {
     }
 
 
-    private static void loadPreviousTeamFormation() {
+    private static void loadPreviousTeamFormation(TeamManager teamManager) {
         System.out.print("\nEnter team formation CSV file path: ");
         scanner.nextLine();
         String filePath = scanner.nextLine().trim();
@@ -368,7 +463,22 @@ public class TeamMateApp {
         teamManager.loadTeamFormationFromCSV(filePath);
     }
 
-    private static void formTeamsWithOptions() {
+    private static void formationHistoryMenu(OrganizerSession session) {
+        String loggedInOrganizerId = session.getOrganizerId();
+        TeamManager teamManager = session.getTeamManager();
+        Logger.logUserAction(loggedInOrganizerId, "Viewed formation history");
+        teamManager.viewFormationHistory();
+
+        System.out.print("\nEnter formation ID to restore (0 to go back): ");
+        int formationId = getIntInput();
+
+        if (formationId > 0) {
+            Logger.logUserAction(loggedInOrganizerId, "Restored formation " + formationId);
+            teamManager.restoreFormation(formationId);
+        }
+    }
+
+    private static void formTeamsWithOptions(TeamManager teamManager) {
         try {
             System.out.print("\nEnter team size (3-10): ");
             int size = getIntInput();
@@ -377,24 +487,28 @@ public class TeamMateApp {
             teamManager.setTeamSize(size);
             System.out.println("Team size set to: " + size);
 
+            // Decided up front so teams can be written to the file while they are formed
+            System.out.print("\nDo you want to export the teams to CSV? (Y/N): ");
+            scanner.nextLine(); // Clear buffer
+            String saveChoice = scanner.nextLine().trim().toUpperCase();
+            String filePath = null;
+            if (saveChoice.equals("Y") || saveChoice.equals("YES")) {
+                filePath = chooseExportPath();
+            }
+
             Logger.info("Starting team formation process");
-            FormationStatistics stats = teamManager.formTeams();
+            System.out.println("\nForming teams...");
+            FormationJob job = teamManager.formTeamsAsync(filePath);
+            FormationStatistics stats = job.awaitFormation();
 
             if (stats != null) {
+                System.out.println("✓ Successfully formed " + stats.getTeamsFormed() + " teams!");
                 stats.display();
 
-                // Automatically save to database
-                teamManager.saveTeamsToDatabase();
-                System.out.println("\n✓ Teams automatically saved to database!");
-
-                // Ask if user wants to save to CSV
-                System.out.print("\nDo you want to export these teams to CSV? (Y/N): ");
-                scanner.nextLine(); // Clear buffer
-                String saveChoice = scanner.nextLine().trim().toUpperCase();
-
-                if (saveChoice.equals("Y") || saveChoice.equals("YES")) {
-                    exportTeamsToCSV();
-                }
+                // Saving continues while the organizer carries on
+                System.out.println("\n⏳ Saving teams to the database" + (filePath != null ? " and " + filePath : "")
+                        + " in the background...");
+                reportSaveProgress(job, filePath);
             }
 
         } catch (InvalidTeamSizeException e) {
@@ -403,30 +517,39 @@ public class TeamMateApp {
         }
     }
 
-    private static void exportTeamsToCSV() {
+    private static void reportSaveProgress(FormationJob job, String filePath) {
+        // A save that returns false has already reported its error
+        job.getPersisted().whenComplete((saved, e) -> {
+            if (e != null) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                Logger.error("Background formation save failed: " + cause.getMessage());
+                System.out.println("\n✗ [Background] Error saving teams to database: " + cause.getMessage());
+            } else if (saved) {
+                System.out.println("\n✓ [Background] Teams saved to database.");
+            }
+        });
+        job.getExported().whenComplete((written, e) -> {
+            if (e != null) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                Logger.error("CSV export failed: " + filePath + " - " + cause.getMessage());
+                System.out.println("\n✗ [Background] Error exporting to " + filePath + ": " + cause.getMessage());
+            } else if (written) {
+                Logger.info("Teams exported to CSV: " + filePath);
+                System.out.println("\n✓ [Background] Teams and remaining participants saved to " + filePath);
+            }
+        });
+    }
+
+    private static String chooseExportPath() {
         String autoFileName = generateTeamFileName();
         System.out.println("\nSuggested filename: " + autoFileName);
         System.out.print("Press Enter to use this name, or type a custom path: ");
         String filePath = scanner.nextLine().trim();
 
-        if (filePath.isEmpty()) {
-            filePath = autoFileName;
-        }
-
-        Logger.info("Exporting teams to CSV: " + filePath);
-        teamManager.saveTeamsToCSV(filePath);
-
-        if (teamManager.hasRemainingParticipants()) {
-            System.out.print("\nSave remaining participants to the same file? (Y/N): ");
-            String saveRemaining = scanner.nextLine().trim().toUpperCase();
-
-            if (saveRemaining.equals("Y") || saveRemaining.equals("YES")) {
-                teamManager.appendRemainingParticipantsToCSV(filePath);
-            }
-        }
+        return filePath.isEmpty() ? autoFileName : filePath;
     }
 
-    private static void completeSurvey() {
+    private static void completeSurvey(TeamManager teamManager) {
         try {
             System.out.println("\n=== PARTICIPANT SURVEY ===\n");
 
@@ -455,6 +578,11 @@ public class TeamMateApp {
                 throw new InvalidEmailException("Invalid email format. Must contain '@' and proper domain");
             }
 
+            if (Repositories.participants().emailExists(email)) {
+                Logger.warning("Email already registered: " + email);
+                throw new InvalidEmailException("Email already registered");
+            }
+
             // SKILL LEVEL VALIDATION
             System.out.print("Enter your skill level (1-10): ");
             int skill = getIntInput();
@@ -524,12 +652,15 @@ public class TeamMateApp {
             System.out.println("════════════════════════════════════════════════════");
             System.out.println("Your personality type: " + participant.getPersonalityType().getDisplayName());
 
-            loggedInParticipantId = participant.getId();
-
             System.out.print("\nPress Enter to continue to your dashboard...");
             scanner.nextLine();
 
-            participantMenu();
+            UserSession session = SessionManager.openParticipantSession(participant);
+            try {
+                participantMenu(teamManager, session.getToken());
+            } finally {
+                SessionManager.logout(session.getToken());
+            }
 
         } catch (InvalidRatingException | InvalidSkillLevelException | InvalidEmailException e) {
             Logger.error("Survey completion error", e);
@@ -537,25 +668,18 @@ public class TeamMateApp {
         }
     }
 
-    private static void viewMyInfo() {
-        try {
-            teamManager.viewParticipantInfo(loggedInParticipantId);
-        } catch (ParticipantNotFoundException e) {
-            Logger.error("Error viewing participant info", e);
-            System.out.println("✗ Error: " + e.getMessage());
-        }
+    // The participant cached in the session at login; only team membership is looked up
+    private static void viewMyInfo(TeamManager teamManager, Participant me) {
+        teamManager.viewParticipantInfo(me);
     }
 
-    private static void viewMyTeamAssignment() {
-        try {
-            teamManager.viewParticipantTeamAssignment(loggedInParticipantId);
-        } catch (ParticipantNotFoundException e) {
-            Logger.error("Error viewing team assignment", e);
-            System.out.println("✗ Error: " + e.getMessage());
-        }
+    private static void viewMyTeamAssignment(TeamManager teamManager, Participant me) {
+        teamManager.viewParticipantTeamAssignment(me);
     }
 
-    private static void updateMyProfile() {
+    private static void updateMyProfile(TeamManager teamManager, UserSession session) {
+        String loggedInParticipantId = session.getUserId();
+        Participant me = session.getParticipant();
         Logger.logUserAction(loggedInParticipantId, "Started profile update");
 
         System.out.println("\n=== UPDATE PROFILE ===");
@@ -579,7 +703,8 @@ public class TeamMateApp {
                         throw new InvalidEmailException("Invalid email format");
                     }
                     teamManager.updateParticipantEmail(loggedInParticipantId, newEmail);
-                    System.out.println("✓ Email updated successfully in database!");
+                    session.refreshParticipant(withProfile(me, newEmail, me.getGame(), me.getSkillLevel(), me.getRole()));
+                    printProfileUpdated(teamManager, loggedInParticipantId, "Email");
                     break;
                 case 2:
                     System.out.print("Enter new skill level (1-10): ");
@@ -588,7 +713,8 @@ public class TeamMateApp {
                         throw new InvalidSkillLevelException("Skill level must be between 1 and 10");
                     }
                     teamManager.updateParticipantSkill(loggedInParticipantId, newSkill);
-                    System.out.println("✓ Skill level updated successfully in database!");
+                    session.refreshParticipant(withProfile(me, me.getEmail(), me.getGame(), newSkill, me.getRole()));
+                    printProfileUpdated(teamManager, loggedInParticipantId, "Skill level");
                     break;
                 case 3:
                     Game.displayOptions();
@@ -596,7 +722,8 @@ public class TeamMateApp {
                     int gameChoice = getIntInput();
                     Game newGame = Game.fromInt(gameChoice);
                     teamManager.updateParticipantGame(loggedInParticipantId, newGame);
-                    System.out.println("✓ Preferred game updated successfully in database!");
+                    session.refreshParticipant(withProfile(me, me.getEmail(), newGame, me.getSkillLevel(), me.getRole()));
+                    printProfileUpdated(teamManager, loggedInParticipantId, "Preferred game");
                     break;
                 case 4:
                     Role.displayOptions();
@@ -604,7 +731,8 @@ public class TeamMateApp {
                     int roleChoice = getIntInput();
                     Role newRole = Role.fromInt(roleChoice);
                     teamManager.updateParticipantRole(loggedInParticipantId, newRole);
-                    System.out.println("✓ Preferred role updated successfully in database!");
+                    session.refreshParticipant(withProfile(me, me.getEmail(), me.getGame(), me.getSkillLevel(), newRole));
+                    printProfileUpdated(teamManager, loggedInParticipantId, "Preferred role");
                     break;
                 case 5:
                     return;
@@ -617,6 +745,19 @@ public class TeamMateApp {
         }
     }
 
+    private static void printProfileUpdated(TeamManager teamManager, String participantId, String field) {
+        if (teamManager.isProfileUpdatePending(participantId)) {
+            System.out.println("✓ " + field + " update accepted; it will be saved shortly.");
+        } else {
+            System.out.println("✓ " + field + " updated successfully!");
+        }
+    }
+
+    private static Participant withProfile(Participant p, String email, Game game, int skill, Role role) {
+        return new Participant(p.getId(), p.getName(), email, game, skill, role,
+                p.getPersonalityScore(), p.getPersonalityType());
+    }
+
     private static int getIntInput() {
         while (!scanner.hasNextInt()) {
             Logger.warning("Invalid integer input received");
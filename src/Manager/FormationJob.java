@@ -0,0 +1,65 @@
+package Manager;
+
+import Log.Logger;
+import Main.FormationStatistics;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Progress of one TeamManager.formTeamsAsync run. Formation completes first; the database save
+ * and the CSV export finish later, independently of each other.
+ */
+public final class FormationJob {
+    private final CompletableFuture<FormationStatistics> formed;
+    private final CompletableFuture<Boolean> persisted;
+    private final CompletableFuture<Boolean> exported;
+
+    FormationJob(CompletableFuture<FormationStatistics> formed, CompletableFuture<Boolean> persisted,
+                 CompletableFuture<Boolean> exported) {
+        this.formed = formed;
+        this.persisted = persisted;
+        this.exported = exported;
+    }
+
+    public CompletableFuture<FormationStatistics> getFormed() {
+        return formed;
+    }
+
+    /**
+     * Completes with true once the teams are committed to the database
+     */
+    public CompletableFuture<Boolean> getPersisted() {
+        return persisted;
+    }
+
+    /**
+     * Completes with true once the CSV file is written, or false if no export was requested
+     * or formation failed
+     */
+    public CompletableFuture<Boolean> getExported() {
+        return exported;
+    }
+
+    /**
+     * Completes when every stage has finished, successfully or not
+     */
+    public CompletableFuture<Void> completion() {
+        return CompletableFuture.allOf(formed, persisted, exported).handle((ignored, e) -> null);
+    }
+
+    /**
+     * Wait for formation only; on failure the cause is reported and null is returned
+     */
+    public FormationStatistics awaitFormation() {
+        try {
+            return formed.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            Logger.error("Team formation failed: " + cause.getMessage());
+            System.out.println("✗ Error: " + cause.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package Manager;
+
+/**
+ * One organizer's working session. The session owns its TeamManager, so the roster,
+ * formed teams and team size it works on are never shared with other organizers.
+ * Sessions are opened and closed through SessionRegistry.
+ */
+public final class OrganizerSession {
+    private final String organizerId;
+    private final TeamManager teamManager;
+    private final long openedAt;
+
+    // Logins currently using this session; only changed inside the registry's map operations
+    private int holders = 0;
+
+    OrganizerSession(String organizerId, TeamManager teamManager) {
+        this.organizerId = organizerId;
+        this.teamManager = teamManager;
+        this.openedAt = System.currentTimeMillis();
+        teamManager.setCurrentOrganizer(organizerId);
+    }
+
+    public String getOrganizerId() {
+        return organizerId;
+    }
+
+    public TeamManager getTeamManager() {
+        return teamManager;
+    }
+
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    int acquire() {
+        return ++holders;
+    }
+
+    int release() {
+        return --holders;
+    }
+}
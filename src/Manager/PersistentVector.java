@@ -0,0 +1,175 @@
+package Manager;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list with cheap appends. Elements live in a 32-way trie plus a tail array;
+ * plus() copies only the tail or one path of the trie and shares everything else with
+ * the previous version, so old versions stay valid and unchanged. Bulk loads go through a
+ * Builder, which fills whole leaves and links them into the trie once.
+ */
+public final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[0];
+
+    @SuppressWarnings("rawtypes")
+    private static final PersistentVector EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, EMPTY_NODE);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    public static <T> PersistentVector<T> copyOf(Collection<? extends T> values) {
+        if (values instanceof PersistentVector) {
+            @SuppressWarnings("unchecked")
+            PersistentVector<T> vector = (PersistentVector<T>) values;
+            return vector;
+        }
+
+        Builder<T> builder = builder();
+        for (T value : values) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * A new vector with the value appended; this one is unchanged
+     */
+    public PersistentVector<T> plus(T value) {
+        int tailSize = size - tailOffset();
+        if (tailSize < WIDTH) {
+            Object[] newTail = new Object[tailSize + 1];
+            System.arraycopy(tail, 0, newTail, 0, tailSize);
+            newTail[tailSize] = value;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        // Tail is full: push it into the trie, growing a level when the root is full
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[]{root, newPath(shift, tail)};
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int slot = ((size - 1) >>> level) & MASK;
+        Object[] node = new Object[Math.max(parent.length, slot + 1)];
+        System.arraycopy(parent, 0, node, 0, parent.length);
+
+        if (level == BITS) {
+            node[slot] = tailNode;
+        } else {
+            Object[] child = slot < parent.length ? (Object[]) parent[slot] : null;
+            node[slot] = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        return node;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        return level == 0 ? node : new Object[]{newPath(level - BITS, node)};
+    }
+
+    /**
+     * Collects values into full 32-element leaves without copying, then builds the trie bottom-up.
+     * Leaves handed to a built vector are never written again, so the builder can keep adding
+     * after build() without affecting vectors it has returned.
+     */
+    public static final class Builder<T> {
+        private final List<Object[]> leaves = new ArrayList<>();
+        private Object[] current = new Object[WIDTH];
+        private int currentSize = 0;
+
+        private Builder() {}
+
+        public Builder<T> add(T value) {
+            if (currentSize == WIDTH) {
+                leaves.add(current);
+                current = new Object[WIDTH];
+                currentSize = 0;
+            }
+            current[currentSize++] = value;
+            return this;
+        }
+
+        public PersistentVector<T> build() {
+            int size = leaves.size() * WIDTH + currentSize;
+            if (size == 0) {
+                return empty();
+            }
+
+            // The tail is never empty: a full last leaf stays the tail, as it would after plus()
+            Object[] tail = Arrays.copyOf(current, currentSize);
+            List<Object[]> nodes = leaves;
+            int shift = BITS;
+            while (nodes.size() > WIDTH) {
+                List<Object[]> parents = new ArrayList<>((nodes.size() + MASK) / WIDTH);
+                for (int i = 0; i < nodes.size(); i += WIDTH) {
+                    parents.add(nodes.subList(i, Math.min(i + WIDTH, nodes.size())).toArray());
+                }
+                nodes = parents;
+                shift += BITS;
+            }
+            Object[] root = nodes.isEmpty() ? EMPTY_NODE : nodes.toArray();
+            return new PersistentVector<>(size, shift, root, tail);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package Manager;
+
+import Entity.Participant;
+import Entity.Team;
+import Main.FormationStatistics;
+
+import java.util.List;
+
+/**
+ * One immutable version of a TeamManager's roster and formation.
+ * Writers derive a new version with the with* methods; lists are never modified after
+ * publication, so readers can use a version without locks while newer ones are published.
+ */
+public final class RosterState {
+    static final RosterState INITIAL = new RosterState(0, PersistentVector.empty(), List.of(), List.of(), 5, null);
+
+    private final long version;
+    private final PersistentVector<Participant> participants;
+    private final List<Team> formedTeams;
+    private final List<Participant> remainingParticipants;
+    private final int teamSize;
+    private final FormationStatistics lastStatistics;
+
+    private RosterState(long version, PersistentVector<Participant> participants, List<Team> formedTeams,
+                        List<Participant> remainingParticipants, int teamSize, FormationStatistics lastStatistics) {
+        this.version = version;
+        this.participants = participants;
+        this.formedTeams = formedTeams;
+        this.remainingParticipants = remainingParticipants;
+        this.teamSize = teamSize;
+        this.lastStatistics = lastStatistics;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Participant> getParticipants() {
+        return participants;
+    }
+
+    public List<Team> getFormedTeams() {
+        return formedTeams;
+    }
+
+    public List<Participant> getRemainingParticipants() {
+        return remainingParticipants;
+    }
+
+    public int getTeamSize() {
+        return teamSize;
+    }
+
+    public FormationStatistics getLastStatistics() {
+        return lastStatistics;
+    }
+
+    /**
+     * Append one participant, sharing the rest of the roster with this version
+     */
+    RosterState withParticipant(Participant participant) {
+        return new RosterState(version + 1, participants.plus(participant), formedTeams,
+                remainingParticipants, teamSize, lastStatistics);
+    }
+
+    RosterState withParticipants(List<Participant> roster) {
+        return new RosterState(version + 1, PersistentVector.copyOf(roster), formedTeams,
+                remainingParticipants, teamSize, lastStatistics);
+    }
+
+    RosterState withFormedTeams(List<Team> teams) {
+        return new RosterState(version + 1, participants, List.copyOf(teams),
+                remainingParticipants, teamSize, lastStatistics);
+    }
+
+    RosterState withRemainingParticipants(List<Participant> remaining) {
+        return new RosterState(version + 1, participants, formedTeams,
+                List.copyOf(remaining), teamSize, lastStatistics);
+    }
+
+    /**
+     * Install a formation result; statistics are kept when null is passed
+     */
+    RosterState withFormation(List<Team> teams, List<Participant> remaining, int size, FormationStatistics statistics) {
+        return new RosterState(version + 1, participants, List.copyOf(teams), List.copyOf(remaining), size,
+                statistics != null ? statistics : lastStatistics);
+    }
+
+    RosterState withTeamSize(int size) {
+        return new RosterState(version + 1, participants, formedTeams, remainingParticipants, size, lastStatistics);
+    }
+}
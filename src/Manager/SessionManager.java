@@ -0,0 +1,206 @@
+package Manager;
+
+import Database.DatabaseConfig;
+import Entity.Organizer;
+import Entity.Participant;
+import Log.Logger;
+import Repository.Repositories;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues opaque session tokens at login and authorizes later actions with a map lookup.
+ * Idle sessions expire after app.session.timeout minutes. Expiry runs on a timing wheel:
+ * an access only records its time, and when a session's wheel entry comes due it is either
+ * ended or rescheduled for its new deadline.
+ */
+public final class SessionManager {
+    private static final long TIMEOUT_MILLIS =
+            TimeUnit.MINUTES.toMillis(Math.max(1, DatabaseConfig.getInt("app.session.timeout", 30)));
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+    private static final int TOKEN_BYTES = 24;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final Map<String, UserSession> sessions = new ConcurrentHashMap<>();
+    private static final TimingWheel<UserSession> wheel =
+            new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    private static ScheduledExecutorService scheduler = null;
+
+    private SessionManager() {}
+
+    /**
+     * Authenticate an organizer and open a session bound to its formation workspace; null if rejected
+     */
+    public static UserSession loginOrganizer(String organizerId, String password) {
+        Organizer organizer = Repositories.organizers().authenticate(organizerId, password);
+        if (organizer == null) {
+            return null;
+        }
+
+        OrganizerSession workspace = SessionRegistry.openOrganizerSession(organizerId);
+        return register(new UserSession(newToken(), organizer, workspace, System.currentTimeMillis()));
+    }
+
+    /**
+     * Authenticate a participant and open a session; null if rejected
+     */
+    public static UserSession loginParticipant(String participantId, String password) {
+        Participant participant = Repositories.participants().authenticate(participantId, password);
+        if (participant == null) {
+            return null;
+        }
+        return openParticipantSession(participant);
+    }
+
+    /**
+     * Open a session for a participant who has just registered
+     */
+    public static UserSession openParticipantSession(Participant participant) {
+        return register(new UserSession(newToken(), participant, System.currentTimeMillis()));
+    }
+
+    /**
+     * The live session for a token, marking it as used; null if unknown, logged out or expired
+     */
+    public static UserSession authorize(String token) {
+        if (token == null) return null;
+
+        UserSession session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - session.getLastAccess() >= TIMEOUT_MILLIS) {
+            end(session, now, "expired");
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public static void logout(String token) {
+        UserSession session = token == null ? null : sessions.get(token);
+        if (session != null && sessions.remove(token, session)) {
+            close(session, "logged out");
+        }
+    }
+
+    public static int activeSessions() {
+        return sessions.size();
+    }
+
+    public static long getTimeoutMillis() {
+        return TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Advance the expiry wheel to the given time; returns the number of sessions ended
+     */
+    public static int expireIdle(long nowMillis) {
+        List<UserSession> due = wheel.advance(nowMillis);
+        int expired = 0;
+        for (UserSession session : due) {
+            if (sessions.get(session.getToken()) != session) {
+                continue;
+            }
+            if (end(session, nowMillis, "expired")) {
+                expired++;
+            } else {
+                // Used since it was scheduled: wait for the idle period measured from the last access
+                wheel.schedule(session, session.getLastAccess() + TIMEOUT_MILLIS);
+            }
+        }
+        if (expired > 0) {
+            Logger.info("Expired " + expired + " idle sessions (" + sessions.size() + " active)");
+        }
+        return expired;
+    }
+
+    /**
+     * Stop the expiry timer and end every session
+     */
+    public static void shutdown() {
+        ScheduledExecutorService executor;
+        synchronized (SessionManager.class) {
+            executor = scheduler;
+            scheduler = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        for (UserSession session : sessions.values()) {
+            if (sessions.remove(session.getToken(), session)) {
+                close(session, "ended at shutdown");
+            }
+        }
+    }
+
+    private static UserSession register(UserSession session) {
+        sessions.put(session.getToken(), session);
+        wheel.schedule(session, session.getLastAccess() + TIMEOUT_MILLIS);
+        ensureScheduled();
+        Logger.info("Session opened for " + session.getKind() + " " + session.getUserId()
+                + " (" + sessions.size() + " active)");
+        return session;
+    }
+
+    /**
+     * Remove the session if it is still idle past the timeout
+     */
+    private static boolean end(UserSession session, long now, String reason) {
+        boolean[] removed = {false};
+        sessions.computeIfPresent(session.getToken(), (token, current) -> {
+            if (current == session && now - session.getLastAccess() >= TIMEOUT_MILLIS) {
+                removed[0] = true;
+                return null;
+            }
+            return current;
+        });
+        if (removed[0]) {
+            close(session, reason);
+        }
+        return removed[0];
+    }
+
+    private static void close(UserSession session, String reason) {
+        if (session.getOrganizerSession() != null) {
+            SessionRegistry.closeOrganizerSession(session.getOrganizerSession());
+        }
+        Logger.info("Session " + reason + " for " + session.getKind() + " " + session.getUserId()
+                + " (" + sessions.size() + " active)");
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static synchronized void ensureScheduled() {
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                expireIdle(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                Logger.error("Error expiring sessions", e);
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
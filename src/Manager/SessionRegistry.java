@@ -0,0 +1,62 @@
+package Manager;
+
+import Log.Logger;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe registry of organizer sessions, keyed by organizer ID.
+ * A second login by the same organizer joins the existing session; the session is
+ * dropped when its last login closes it.
+ */
+public final class SessionRegistry {
+    private static final Map<String, OrganizerSession> organizerSessions = new ConcurrentHashMap<>();
+
+    private SessionRegistry() {}
+
+    /**
+     * Open (or join) the session of an authenticated organizer
+     */
+    public static OrganizerSession openOrganizerSession(String organizerId) {
+        String key = normalize(organizerId);
+        OrganizerSession session = organizerSessions.compute(key, (id, existing) -> {
+            OrganizerSession s = existing != null ? existing : new OrganizerSession(id, new TeamManager());
+            s.acquire();
+            return s;
+        });
+        Logger.debug("Organizer session opened: " + key + " (active sessions: " + organizerSessions.size() + ")");
+        return session;
+    }
+
+    /**
+     * The open session of an organizer, or null if there is none
+     */
+    public static OrganizerSession getOrganizerSession(String organizerId) {
+        return organizerId == null ? null : organizerSessions.get(normalize(organizerId));
+    }
+
+    /**
+     * Release one login of a session; its formation state is discarded once no login holds it
+     */
+    public static void closeOrganizerSession(OrganizerSession session) {
+        if (session == null) return;
+
+        organizerSessions.computeIfPresent(session.getOrganizerId(),
+                (id, existing) -> existing != session || existing.release() > 0 ? existing : null);
+        Logger.debug("Organizer session closed: " + session.getOrganizerId() + " (active sessions: " + organizerSessions.size() + ")");
+    }
+
+    public static int activeOrganizerSessions() {
+        return organizerSessions.size();
+    }
+
+    public static void closeAll() {
+        organizerSessions.clear();
+    }
+
+    private static String normalize(String organizerId) {
+        return organizerId.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,8 @@
 package Manager;
 
-import Database.ParticipantDAO;
-import Database.TeamDAO;
 import Database.AuthenticationService;
+import Database.Deadline;
+import Entity.FormationSnapshot;
 import Entity.Participant;
 import Entity.Team;
 import Enums.Game;
@@ -11,25 +11,44 @@ import Exceptions.*;
 import Threads.*;
 import Main.FormationStatistics;
 import Log.Logger;
+import Repository.ParticipantRepository;
+import Repository.Repositories;
+import Repository.TeamRepository;
 
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class TeamManager {
-    private List<Participant> participants;
-    private List<Team> formedTeams;
-    private List<Participant> remainingParticipants;
-    private int teamSize = 5;
+    // Roster, formation and team size, replaced as a whole; readers never lock
+    private final AtomicReference<RosterState> state = new AtomicReference<>(RosterState.INITIAL);
     private String currentOrganizerId = null;
+    // Database saves of asynchronous formations, chained so they commit in the order formed
+    private final Object persistLock = new Object();
+    private CompletableFuture<?> persistTail = CompletableFuture.completedFuture(null);
+    private final ParticipantRepository participantRepository;
+    private final TeamRepository teamRepository;
 
     public TeamManager() {
-        this.participants = new ArrayList<>();
-        this.formedTeams = new ArrayList<>();
-        this.remainingParticipants = new ArrayList<>();
+        this(Repositories.participants(), Repositories.teams());
+    }
+
+    public TeamManager(ParticipantRepository participantRepository, TeamRepository teamRepository) {
+        this.participantRepository = participantRepository;
+        this.teamRepository = teamRepository;
         Logger.debug("TeamManager instance created");
     }
 
+    /**
+     * The current roster and formation as one consistent, immutable version
+     */
+    public RosterState snapshot() {
+        return state.get();
+    }
+
     public void setCurrentOrganizer(String organizerId) {
         this.currentOrganizerId = organizerId;
     }
@@ -38,11 +57,10 @@ public class TeamManager {
         // Generate password for the participant
         String password = AuthenticationService.generateParticipantPassword(participant.getId());
 
-        // Insert into database
-        if (ParticipantDAO.insertParticipant(participant, password)) {
-            participants.add(participant);
+        if (participantRepository.insert(participant, password)) {
+            RosterState updated = state.updateAndGet(s -> s.withParticipant(participant));
             Logger.info("Participant added: " + participant.getId() + " - " + participant.getName());
-            Logger.debug("Total participants: " + participants.size());
+            Logger.debug("Total participants: " + updated.getParticipants().size());
         }
     }
 
@@ -52,19 +70,19 @@ public class TeamManager {
             Logger.warning("Invalid team size attempted: " + size);
             throw new InvalidTeamSizeException("Team size must be between 3 and 10");
         }
-        this.teamSize = size;
+        state.updateAndGet(s -> s.withTeamSize(size));
         Logger.info("Team size successfully set to: " + size);
     }
 
     public boolean participantExists(String participantId) {
-        boolean exists = AuthenticationService.participantExists(participantId);
+        boolean exists = participantRepository.exists(participantId);
         Logger.debug("Participant existence check for " + participantId + ": " + exists);
         return exists;
     }
 
     public Participant getParticipantById(String participantId) throws ParticipantNotFoundException {
         Logger.debug("Retrieving participant: " + participantId);
-        Participant participant = ParticipantDAO.getParticipantById(participantId);
+        Participant participant = participantRepository.findById(participantId);
 
         if (participant == null) {
             Logger.warning("Participant not found: " + participantId);
@@ -76,6 +94,7 @@ public class TeamManager {
     }
 
     public boolean hasRemainingParticipants() {
+        List<Participant> remainingParticipants = state.get().getRemainingParticipants();
         boolean hasRemaining = !remainingParticipants.isEmpty();
         Logger.debug("Has remaining participants: " + hasRemaining + " (count: " + remainingParticipants.size() + ")");
         return hasRemaining;
@@ -90,10 +109,8 @@ public class TeamManager {
             boolean isHeader = true;
             int lineNumber = 0;
 
-            formedTeams.clear();
-            remainingParticipants.clear();
-            participants.clear();
-
+            List<Participant> participants = new ArrayList<>();
+            List<Participant> remainingParticipants = new ArrayList<>();
             Map<Integer, Team> teamMap = new HashMap<>();
 
             while ((line = br.readLine()) != null) {
@@ -110,7 +127,7 @@ public class TeamManager {
                         String id = data[1].trim();
 
                         // Get participant from database
-                        Participant p = ParticipantDAO.getParticipantById(id);
+                        Participant p = participantRepository.findById(id);
 
                         if (p != null) {
                             participants.add(p);
@@ -128,9 +145,13 @@ public class TeamManager {
                 }
             }
 
-            formedTeams.addAll(teamMap.values());
+            List<Team> formedTeams = new ArrayList<>(teamMap.values());
             formedTeams.sort(Comparator.comparingInt(Team::getTeamId));
 
+            // Published only once the whole file has been read
+            state.updateAndGet(s -> s.withParticipants(participants)
+                    .withFormation(formedTeams, remainingParticipants, s.getTeamSize(), null));
+
             // Calculate statistics
             int totalParticipants = participants.size();
             int teamsFormed = formedTeams.size();
@@ -193,46 +214,23 @@ public class TeamManager {
     }
 
     public FormationStatistics formTeams() {
+        int teamSize = state.get().getTeamSize();
         Logger.info("Starting team formation process with team size: " + teamSize);
 
-        // Load all participants from database
-        participants = ParticipantDAO.getAllParticipants();
-
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        TeamFormationThread formationThread = new TeamFormationThread(participants, teamSize);
-        Future<List<Team>> future = executor.submit(formationThread);
-
         FormationStatistics stats = null;
 
         try {
+            // Formation runs on the roster as read here; registrations made meanwhile do not affect it
+            TeamFormationThread formationThread = newFormation(teamSize, null);
+            Future<List<Team>> future = WorkerPools.cpu().submit(formationThread);
+
             System.out.println("\nForming teams...");
-            int totalParticipants = participants.size();
 
             List<Team> teams = future.get();
-            formedTeams.clear();
-            formedTeams.addAll(teams);
-
-            // Calculate remaining participants
-            remainingParticipants.clear();
-            Set<Participant> assignedParticipants = new HashSet<>();
-            for (Team team : formedTeams) {
-                assignedParticipants.addAll(team.getMembers());
-            }
+            stats = publishFormation(formationThread, teams, teamSize).getLastStatistics();
 
-            for (Participant p : participants) {
-                if (!assignedParticipants.contains(p)) {
-                    remainingParticipants.add(p);
-                }
-            }
-
-            int teamsFormed = formedTeams.size();
-            int participantsAssigned = assignedParticipants.size();
-            int participantsRemaining = remainingParticipants.size();
-
-            stats = new FormationStatistics(totalParticipants, teamsFormed, participantsAssigned, participantsRemaining, teamSize);
-
-            Logger.info("Team formation completed - Teams: " + teamsFormed);
-            System.out.println("✓ Successfully formed " + teamsFormed + " teams!");
+            Logger.info("Team formation completed - Teams: " + stats.getTeamsFormed());
+            System.out.println("✓ Successfully formed " + stats.getTeamsFormed() + " teams!");
 
         } catch (ExecutionException e) {
             Throwable cause = e.getCause();
@@ -242,41 +240,148 @@ public class TeamManager {
             Logger.error("Team formation interrupted", e);
             System.out.println("✗ Error: Team formation was interrupted");
             Thread.currentThread().interrupt();
-        } finally {
-            executor.shutdown();
+        } catch (RejectedExecutionException e) {
+            Logger.error("Team formation rejected: " + WorkerPools.getStatsSummary(), e);
+            System.out.println("✗ Error: The system is busy. Please try again shortly.");
         }
 
         return stats;
     }
 
+    /**
+     * Form teams on the CPU pool and hand the result to the I/O pool.
+     * When csvPath is given, each team is written to the file as soon as it is formed. The database
+     * save starts when formation completes and runs alongside the end of the export; saves of
+     * successive formations commit in order. The caller can continue once getFormed() completes.
+     */
+    public FormationJob formTeamsAsync(String csvPath) {
+        int teamSize = state.get().getTeamSize();
+        Logger.info("Starting asynchronous team formation with team size: " + teamSize
+                + (csvPath != null ? ", streaming to " + csvPath : ""));
+
+        TeamStreamSaverThread csvWriter = csvPath != null ? new TeamStreamSaverThread(csvPath) : null;
+        // Read the roster before the export starts, so a failed read leaves no writer waiting for teams
+        TeamFormationThread formation = newFormation(teamSize, csvWriter != null ? csvWriter::accept : null);
+        CompletableFuture<Boolean> exported = CompletableFuture.completedFuture(false);
+        if (csvWriter != null) {
+            try {
+                exported = CompletableFuture.supplyAsync(unchecked(csvWriter), WorkerPools.io());
+            } catch (RejectedExecutionException e) {
+                exported = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        CompletableFuture<RosterState> formed;
+        try {
+            formed = CompletableFuture.supplyAsync(unchecked(formation), WorkerPools.cpu())
+                    .thenApply(teams -> publishFormation(formation, teams, teamSize));
+        } catch (RejectedExecutionException e) {
+            formed = CompletableFuture.failedFuture(new RejectedExecutionException("The system is busy. Please try again shortly.", e));
+        }
+
+        if (csvWriter != null) {
+            formed.whenComplete((result, e) -> {
+                if (e == null) {
+                    csvWriter.finish(result.getRemainingParticipants());
+                } else {
+                    csvWriter.abort();
+                }
+            });
+        }
+
+        CompletableFuture<Boolean> persisted;
+        synchronized (persistLock) {
+            CompletableFuture<?> previous = persistTail.handle((ignored, e) -> null);
+            persisted = formed.thenCombineAsync(previous, (result, ignored) -> saveFormation(result), WorkerPools.io());
+            persistTail = persisted;
+        }
+
+        persisted.whenComplete((saved, e) -> Logger.info("Formation save finished: "
+                + (e == null ? (saved ? "committed" : "failed") : "skipped (" + e.getMessage() + ")")));
+        return new FormationJob(formed.thenApply(RosterState::getLastStatistics), persisted, exported);
+    }
+
     /**
      * Save formed teams to database
      */
     public void saveTeamsToDatabase() {
-        if (formedTeams == null || formedTeams.isEmpty()) {
+        saveFormation(state.get());
+    }
+
+    /**
+     * Save the teams of one formation version; false if there was nothing to save or the save failed
+     */
+    private boolean saveFormation(RosterState current) {
+        List<Team> formedTeams = current.getFormedTeams();
+        List<Participant> remainingParticipants = current.getRemainingParticipants();
+        int teamSize = current.getTeamSize();
+        FormationStatistics lastStatistics = current.getLastStatistics();
+
+        if (formedTeams.isEmpty()) {
             Logger.warning("No teams to save to database");
             System.out.println("✗ No teams formed yet. Please form teams first.");
-            return;
+            return false;
         }
 
-        boolean saved = TeamDAO.saveTeamsToDatabase(formedTeams, teamSize, currentOrganizerId);
+        // Teams, version row, snapshot and active pointer are written together
+        FormationStatistics stats = lastStatistics != null ? lastStatistics
+                : FormationStatistics.of(formedTeams, remainingParticipants, teamSize);
+        int formationId = teamRepository.saveFormationVersion(formedTeams, remainingParticipants, stats,
+                TeamRepository.versionName(teamSize), currentOrganizerId);
+        boolean saved = formationId > 0;
 
         if (saved) {
             Logger.info("Teams saved to database successfully");
+            System.out.println("✓ Stored as formation version #" + formationId);
         } else {
             Logger.error("Failed to save teams to database");
             System.out.println("✗ Error saving teams to database");
         }
+        return saved;
+    }
+
+    /**
+     * A formation over the repository's roster, read through views so a roster kept off the heap
+     * is not materialized; only participants placed in teams or left over become objects
+     */
+    private TeamFormationThread newFormation(int teamSize, Consumer<Team> onTeamFormed) {
+        return new TeamFormationThread(participantRepository::forEach, participantRepository::findLoaded,
+                teamSize, onTeamFormed);
+    }
+
+    /**
+     * Publish a completed formation, with the participants it left over, as a new version
+     */
+    private RosterState publishFormation(TeamFormationThread formation, List<Team> teams, int teamSize) {
+        List<Participant> remainingParticipants = formation.getRemaining();
+        int assigned = 0;
+        for (Team team : teams) {
+            assigned += team.getSize();
+        }
+
+        FormationStatistics stats = new FormationStatistics(formation.getParticipantCount(), teams.size(),
+                assigned, remainingParticipants.size(), teamSize);
+        return state.updateAndGet(s -> s.withFormation(teams, remainingParticipants, teamSize, stats));
+    }
+
+    private static <T> Supplier<T> unchecked(Callable<T> task) {
+        return () -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        };
     }
 
     public void saveTeamsToCSV(String filePath) {
         Logger.info("Saving teams to CSV: " + filePath);
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-
-        TeamSaverThread saver = new TeamSaverThread(formedTeams, filePath);
-        Future<Boolean> future = executor.submit(saver);
+        TeamSaverThread saver = new TeamSaverThread(state.get().getFormedTeams(), filePath);
 
         try {
+            Future<Boolean> future = WorkerPools.io().submit(saver);
             Boolean success = future.get();
             if (success) {
                 Logger.info("Teams saved successfully to: " + filePath);
@@ -290,13 +395,15 @@ public class TeamManager {
             Logger.error("Team saving interrupted", e);
             System.out.println("✗ Error: Saving was interrupted");
             Thread.currentThread().interrupt();
-        } finally {
-            executor.shutdown();
+        } catch (RejectedExecutionException e) {
+            Logger.error("Team saving rejected: " + WorkerPools.getStatsSummary(), e);
+            System.out.println("✗ Error: The system is busy. Please try again shortly.");
         }
     }
 
     public void appendRemainingParticipantsToCSV(String filePath) {
         Logger.info("Appending remaining participants to CSV: " + filePath);
+        List<Participant> remainingParticipants = state.get().getRemainingParticipants();
 
         if (remainingParticipants.isEmpty()) {
             Logger.debug("No remaining participants to append");
@@ -321,8 +428,8 @@ public class TeamManager {
     }
 
     public void viewAllParticipants() {
-        // Load from database
-        participants = ParticipantDAO.getAllParticipants();
+        List<Participant> participants = participantRepository.findAll();
+        state.updateAndGet(s -> s.withParticipants(participants));
 
         Logger.debug("Viewing all participants (count: " + participants.size() + ")");
 
@@ -341,8 +448,8 @@ public class TeamManager {
     }
 
     public void viewFormedTeams() {
-        // Load teams from database
-        formedTeams = TeamDAO.getAllTeamsFromDatabase();
+        List<Team> formedTeams = teamRepository.findAll(currentOrganizerId);
+        state.updateAndGet(s -> s.withFormedTeams(formedTeams));
 
         Logger.debug("Viewing formed teams (count: " + formedTeams.size() + ")");
 
@@ -361,8 +468,8 @@ public class TeamManager {
     }
 
     public void viewRemainingParticipants() {
-        // Get unassigned participants from database
-        remainingParticipants = ParticipantDAO.getUnassignedParticipants();
+        List<Participant> remainingParticipants = participantRepository.findUnassigned(currentOrganizerId);
+        state.updateAndGet(s -> s.withRemainingParticipants(remainingParticipants));
 
         Logger.debug("Viewing remaining participants (count: " + remainingParticipants.size() + ")");
 
@@ -381,69 +488,157 @@ public class TeamManager {
     }
 
     public void viewParticipantInfo(String participantId) throws ParticipantNotFoundException {
-        Participant participant = getParticipantById(participantId);
+        viewParticipantInfo(getParticipantById(participantId));
+    }
 
-        System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════════════════════╗");
-        System.out.println("║  PARTICIPANT INFORMATION (From Database)");
-        System.out.println("╚═══════════════════════════════════════════════════════════════════════════════════════════════╝");
-        System.out.println("  " + participant.toString());
+    /**
+     * Show a participant already loaded, e.g. the one cached in its session; only the team is looked up
+     */
+    public void viewParticipantInfo(Participant participant) {
+        String participantId = participant.getId();
+        Deadline deadline = Deadline.start("viewParticipantInfo");
+        try {
+            System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════════════════════╗");
+            System.out.println("║  PARTICIPANT INFORMATION (From Database)");
+            System.out.println("╚═══════════════════════════════════════════════════════════════════════════════════════════════╝");
+            System.out.println("  " + participant.toString());
 
-        Integer teamId = TeamDAO.getParticipantTeamId(participantId);
+            Integer teamId = teamRepository.findTeamIdFor(participantId);
 
-        if (teamId != null) {
-            System.out.println("\n  ✓ Assigned to Team " + teamId);
-        } else {
-            System.out.println("\n  ⚠ Not assigned to any team");
+            if (teamId != null) {
+                System.out.println("\n  ✓ Assigned to Team " + teamId);
+            } else {
+                System.out.println("\n  ⚠ Not assigned to any team");
+            }
+        } finally {
+            deadline.close();
         }
     }
 
     public void viewParticipantTeamAssignment(String participantId) throws ParticipantNotFoundException {
-        Participant participant = getParticipantById(participantId);
+        viewParticipantTeamAssignment(getParticipantById(participantId));
+    }
+
+    public void viewParticipantTeamAssignment(Participant participant) {
+        String participantId = participant.getId();
+        // All lookups share one latency budget
+        Deadline deadline = Deadline.start("viewParticipantTeamAssignment");
+        try {
+            System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════════════════════╗");
+            System.out.println("║  MY TEAM ASSIGNMENT (From Database)");
+            System.out.println("╚═══════════════════════════════════════════════════════════════════════════════════════════════╝");
+
+            Team team = teamRepository.findTeamFor(participantId);
+
+            if (team != null) {
+                int teamId = team.getTeamId();
+                System.out.println("\n✓ You are assigned to Team " + teamId);
+                System.out.println("\n" + team.toString());
+            } else {
+                System.out.println("\n⚠ You have not been assigned to a team yet.");
+            }
+        } finally {
+            deadline.close();
+        }
+    }
+
+    public void viewFormationHistory() {
+        List<Map<String, Object>> history = teamRepository.getFormationHistory(currentOrganizerId);
+        int activeId = teamRepository.getActiveFormationId(currentOrganizerId);
+
+        Logger.debug("Viewing formation history (count: " + history.size() + ")");
+
+        if (history.isEmpty()) {
+            System.out.println("\n✗ No saved formations yet.");
+            return;
+        }
 
         System.out.println("\n╔═══════════════════════════════════════════════════════════════════════════════════════════════╗");
-        System.out.println("║  MY TEAM ASSIGNMENT (From Database)");
+        System.out.println("║  FORMATION HISTORY (" + history.size() + " versions)");
         System.out.println("╚═══════════════════════════════════════════════════════════════════════════════════════════════╝");
 
-        Integer teamId = TeamDAO.getParticipantTeamId(participantId);
+        for (Map<String, Object> formation : history) {
+            int formationId = (Integer) formation.get("formation_id");
+            System.out.println(String.format("  %s #%-5d | %-28s | Size: %-2s | Teams: %-4s | Assigned: %-5s | Remaining: %-5s | %s",
+                    formationId == activeId ? "*" : " ",
+                    formationId,
+                    formation.get("formation_name"),
+                    formation.get("team_size"),
+                    formation.get("teams_formed"),
+                    formation.get("participants_assigned"),
+                    formation.get("participants_remaining"),
+                    formation.get("created_at")));
+        }
+        System.out.println("  (* = active formation)");
+    }
+
+    /**
+     * Make a previously saved formation version the current one
+     */
+    public boolean restoreFormation(int formationId) {
+        Logger.info("Restoring formation version " + formationId);
+
+        Map<String, Participant> byId = new HashMap<>();
+        for (Participant p : participantRepository.findAll()) {
+            byId.put(p.getId(), p);
+        }
+        FormationSnapshot snapshot = teamRepository.loadFormationVersion(formationId, byId::get);
 
-        if (teamId != null) {
-            Team team = TeamDAO.getTeamById(teamId);
-            System.out.println("\n✓ You are assigned to Team " + teamId);
-            System.out.println("\n" + team.toString());
-        } else {
-            System.out.println("\n⚠ You have not been assigned to a team yet.");
+        if (snapshot == null || snapshot.getTeams().isEmpty()) {
+            Logger.warning("Formation version not found or empty: " + formationId);
+            System.out.println("✗ Formation #" + formationId + " not found.");
+            return false;
         }
+
+        // The version's teams are stored unchanged, so restoring only moves the active pointer.
+        // Versions saved before teams were kept per version have nothing to point at and are saved again.
+        if (!teamRepository.activateFormation(formationId, currentOrganizerId)
+                && !teamRepository.saveTeams(snapshot.getTeams(), snapshot.getTeamSize(), currentOrganizerId,
+                        snapshot.getUnassigned())) {
+            System.out.println("✗ Error restoring formation #" + formationId);
+            return false;
+        }
+
+        state.updateAndGet(s -> s.withFormation(snapshot.getTeams(), snapshot.getUnassigned(),
+                snapshot.getTeamSize(), null));
+
+        Logger.info("Restored formation version " + formationId);
+        System.out.println("✓ Formation #" + formationId + " restored (" + snapshot.getTeams().size() + " teams).");
+        return true;
+    }
+
+    /**
+     * Whether a profile change accepted for the participant is still waiting to be stored
+     */
+    public boolean isProfileUpdatePending(String participantId) {
+        return participantRepository.hasPendingUpdate(participantId);
     }
 
     public void updateParticipantEmail(String participantId, String newEmail) throws ParticipantNotFoundException {
-        if (ParticipantDAO.updateParticipantEmail(participantId, newEmail)) {
-            Logger.info("Email updated in database for: " + participantId);
-        } else {
-            throw new ParticipantNotFoundException("Failed to update participant email");
+        if (!participantRepository.updateEmail(participantId, newEmail)) {
+            throw new ParticipantNotFoundException("Failed to update participant email (not found or email already in use)");
         }
+        Logger.info("Email updated for: " + participantId);
     }
 
     public void updateParticipantSkill(String participantId, int newSkill) throws ParticipantNotFoundException {
-        if (ParticipantDAO.updateParticipantSkill(participantId, newSkill)) {
-            Logger.info("Skill updated in database for: " + participantId);
-        } else {
+        if (!participantRepository.updateSkill(participantId, newSkill)) {
             throw new ParticipantNotFoundException("Failed to update participant skill");
         }
+        Logger.info("Skill updated for: " + participantId);
     }
 
     public void updateParticipantGame(String participantId, Game newGame) throws ParticipantNotFoundException {
-        if (ParticipantDAO.updateParticipantGame(participantId, newGame)) {
-            Logger.info("Game updated in database for: " + participantId);
-        } else {
+        if (!participantRepository.updateGame(participantId, newGame)) {
             throw new ParticipantNotFoundException("Failed to update participant game");
         }
+        Logger.info("Game updated for: " + participantId);
     }
 
     public void updateParticipantRole(String participantId, Role newRole) throws ParticipantNotFoundException {
-        if (ParticipantDAO.updateParticipantRole(participantId, newRole)) {
-            Logger.info("Role updated in database for: " + participantId);
-        } else {
+        if (!participantRepository.updateRole(participantId, newRole)) {
             throw new ParticipantNotFoundException("Failed to update participant role");
         }
+        Logger.info("Role updated for: " + participantId);
     }
 }
\ No newline at end of file
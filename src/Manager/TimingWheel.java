@@ -0,0 +1,96 @@
+package Manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: each deadline is placed in the bucket for its tick modulo the wheel size,
+ * so scheduling is O(1) and each tick only looks at one bucket. Entries more than one rotation
+ * away share a bucket with nearer ones and are skipped until their tick comes round.
+ */
+public final class TimingWheel<T> {
+    private final long tickMillis;
+    private final List<Entry<T>>[] buckets;
+    private final int mask;
+    private long processedTick;
+    private int size = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int slots = Integer.highestOneBit(wheelSize);
+        if (slots < wheelSize) {
+            slots <<= 1;
+        }
+
+        this.tickMillis = tickMillis;
+        this.buckets = new List[slots];
+        for (int i = 0; i < slots; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = slots - 1;
+        this.processedTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule an item for the first tick at or after the deadline
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, processedTick + 1);
+        buckets[(int) (tick & mask)].add(new Entry<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Move the wheel forward to the given time and return the items that became due
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        if (nowTick <= processedTick) {
+            return due;
+        }
+
+        // A jump of a full rotation or more visits every bucket once
+        long first = Math.max(processedTick + 1, nowTick - mask);
+        for (long tick = first; tick <= nowTick; tick++) {
+            expire(buckets[(int) (tick & mask)], nowTick, due);
+        }
+        processedTick = nowTick;
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private static <T> void expire(List<Entry<T>> bucket, long nowTick, List<T> due) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry<T> entry = bucket.get(i);
+            if (entry.tick <= nowTick) {
+                due.add(entry.item);
+            } else {
+                bucket.set(kept++, entry);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long tick;
+
+        private Entry(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package Manager;
+
+import Entity.Organizer;
+import Entity.Participant;
+
+/**
+ * An authenticated login, identified by an opaque token issued by SessionManager.
+ * Holds the principal loaded at login so later actions do not read the user row again.
+ */
+public final class UserSession {
+    public enum Kind { PARTICIPANT, ORGANIZER }
+
+    private final String token;
+    private final Kind kind;
+    private final String userId;
+    private final String name;
+    private volatile Object principal;
+    private final OrganizerSession organizerSession;
+    private volatile long lastAccess;
+
+    UserSession(String token, Participant participant, long now) {
+        this(token, Kind.PARTICIPANT, participant.getId(), participant.getName(), participant, null, now);
+    }
+
+    UserSession(String token, Organizer organizer, OrganizerSession organizerSession, long now) {
+        this(token, Kind.ORGANIZER, organizerSession.getOrganizerId(), organizer.getName(), organizer, organizerSession, now);
+    }
+
+    private UserSession(String token, Kind kind, String userId, String name, Object principal,
+                        OrganizerSession organizerSession, long now) {
+        this.token = token;
+        this.kind = kind;
+        this.userId = userId;
+        this.name = name;
+        this.principal = principal;
+        this.organizerSession = organizerSession;
+        this.lastAccess = now;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The participant as loaded at login, or null for an organizer
+     */
+    public Participant getParticipant() {
+        return kind == Kind.PARTICIPANT ? (Participant) principal : null;
+    }
+
+    /**
+     * Replace the cached participant after the user changed their own profile
+     */
+    public void refreshParticipant(Participant participant) {
+        if (kind == Kind.PARTICIPANT && participant.getId().equalsIgnoreCase(userId)) {
+            principal = participant;
+        }
+    }
+
+    /**
+     * The organizer as loaded at login, or null for a participant
+     */
+    public Organizer getOrganizer() {
+        return kind == Kind.ORGANIZER ? (Organizer) principal : null;
+    }
+
+    /**
+     * The organizer's formation workspace, or null for a participant
+     */
+    public OrganizerSession getOrganizerSession() {
+        return organizerSession;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    void touch(long now) {
+        lastAccess = now;
+    }
+}
@@ -0,0 +1,62 @@
+package Repository;
+
+import Entity.Organizer;
+import Log.Logger;
+
+/**
+ * Organizer repository held entirely in memory; starts with the default ORG001 account
+ */
+public class InMemoryOrganizerRepository implements OrganizerRepository {
+    private final InMemoryStore store;
+
+    InMemoryOrganizerRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Organizer authenticate(String organizerId, String password) {
+        Organizer organizer = store.organizersById.get(InMemoryStore.idKey(organizerId));
+
+        if (organizer == null) {
+            Logger.warning("Organizer not found: " + organizerId);
+            return null;
+        }
+        if (!organizer.getPassword().equals(password)) {
+            Logger.warning("Invalid password for organizer: " + organizerId);
+            return null;
+        }
+
+        Logger.info("Organizer authenticated successfully: " + organizerId);
+        return organizer;
+    }
+
+    @Override
+    public boolean register(Organizer organizer) {
+        String key = InMemoryStore.idKey(organizer.getId());
+        String emailKey = InMemoryStore.emailKey(organizer.getEmail());
+
+        if (store.organizerIdByEmail.putIfAbsent(emailKey, key) != null) {
+            Logger.warning("Organizer email already exists: " + organizer.getEmail());
+            System.out.println("✗ Error: Email already registered");
+            return false;
+        }
+        if (store.organizersById.putIfAbsent(key, organizer) != null) {
+            store.organizerIdByEmail.remove(emailKey, key);
+            Logger.warning("Organizer ID already exists: " + organizer.getId());
+            return false;
+        }
+
+        Logger.info("Organizer registered successfully: " + organizer.getId());
+        return true;
+    }
+
+    @Override
+    public boolean exists(String organizerId) {
+        return organizerId != null && store.organizersById.containsKey(InMemoryStore.idKey(organizerId));
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        return email != null && store.organizerIdByEmail.containsKey(InMemoryStore.emailKey(email));
+    }
+}
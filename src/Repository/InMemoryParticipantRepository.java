@@ -0,0 +1,158 @@
+package Repository;
+
+import Entity.Participant;
+import Enums.Game;
+import Enums.Role;
+import Log.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Participant repository held entirely in memory; nothing is persisted
+ */
+public class InMemoryParticipantRepository implements ParticipantRepository {
+    private final InMemoryStore store;
+
+    InMemoryParticipantRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean insert(Participant participant, String password) {
+        String key = InMemoryStore.idKey(participant.getId());
+        String emailKey = InMemoryStore.emailKey(participant.getEmail());
+
+        // Claim the email first so two sign-ups cannot share it
+        if (store.participantIdByEmail.putIfAbsent(emailKey, key) != null) {
+            Logger.warning("Participant email already exists: " + participant.getEmail());
+            return false;
+        }
+        if (store.participantsById.putIfAbsent(key, new InMemoryStore.StoredParticipant(participant, password)) != null) {
+            store.participantIdByEmail.remove(emailKey, key);
+            Logger.warning("Participant ID already exists: " + participant.getId());
+            return false;
+        }
+
+        Logger.info("Participant inserted successfully: " + participant.getId());
+        return true;
+    }
+
+    @Override
+    public Participant findById(String participantId) {
+        return store.getParticipant(participantId);
+    }
+
+    @Override
+    public List<Participant> findAll() {
+        List<Participant> participants = new ArrayList<>(store.participantsById.size());
+        for (InMemoryStore.StoredParticipant stored : store.participantsById.values()) {
+            participants.add(stored.participant);
+        }
+        participants.sort(Comparator.comparing(Participant::getId));
+        return participants;
+    }
+
+    @Override
+    public List<Participant> findUnassigned(String organizerId) {
+        InMemoryStore.TeamIndex teams = store.activeFor(organizerId).teams;
+        List<Participant> unassigned = new ArrayList<>();
+        for (InMemoryStore.StoredParticipant stored : store.participantsById.values()) {
+            if (!teams.teamIdByParticipant.containsKey(InMemoryStore.idKey(stored.participant.getId()))) {
+                unassigned.add(stored.participant);
+            }
+        }
+        unassigned.sort(Comparator.comparing(Participant::getId));
+        return unassigned;
+    }
+
+    @Override
+    public boolean exists(String participantId) {
+        return participantId != null && store.participantsById.containsKey(InMemoryStore.idKey(participantId));
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        return email != null && store.participantIdByEmail.containsKey(InMemoryStore.emailKey(email));
+    }
+
+    @Override
+    public Participant authenticate(String participantId, String password) {
+        InMemoryStore.StoredParticipant stored = store.participantsById.get(InMemoryStore.idKey(participantId));
+
+        if (stored == null) {
+            Logger.warning("Participant not found: " + participantId);
+            return null;
+        }
+        if (!stored.password.equals(password)) {
+            Logger.warning("Invalid password for participant: " + participantId);
+            return null;
+        }
+
+        Logger.info("Participant authenticated successfully: " + participantId);
+        return stored.participant;
+    }
+
+    @Override
+    public boolean updateEmail(String participantId, String newEmail) {
+        Participant current = findById(participantId);
+        if (current == null) return false;
+
+        String key = InMemoryStore.idKey(participantId);
+        String newKey = InMemoryStore.emailKey(newEmail);
+        String owner = store.participantIdByEmail.putIfAbsent(newKey, key);
+        if (owner != null && !owner.equals(key)) {
+            Logger.warning("Email already registered, update rejected for " + participantId + ": " + newEmail);
+            return false;
+        }
+
+        replace(participantId, p -> copy(p, newEmail, p.getGame(), p.getSkillLevel(), p.getRole()));
+        if (!newKey.equals(InMemoryStore.emailKey(current.getEmail()))) {
+            store.participantIdByEmail.remove(InMemoryStore.emailKey(current.getEmail()), key);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean updateSkill(String participantId, int newSkill) {
+        return replace(participantId, p -> copy(p, p.getEmail(), p.getGame(), newSkill, p.getRole()));
+    }
+
+    @Override
+    public boolean updateGame(String participantId, Game newGame) {
+        return replace(participantId, p -> copy(p, p.getEmail(), newGame, p.getSkillLevel(), p.getRole()));
+    }
+
+    @Override
+    public boolean updateRole(String participantId, Role newRole) {
+        return replace(participantId, p -> copy(p, p.getEmail(), p.getGame(), p.getSkillLevel(), newRole));
+    }
+
+    @Override
+    public boolean delete(String participantId) {
+        String key = InMemoryStore.idKey(participantId);
+        InMemoryStore.StoredParticipant removed = store.participantsById.remove(key);
+        if (removed == null) {
+            return false;
+        }
+
+        store.participantIdByEmail.remove(InMemoryStore.emailKey(removed.participant.getEmail()), key);
+        store.removeMember(key);
+
+        Logger.info("Participant deleted: " + participantId);
+        return true;
+    }
+
+    private boolean replace(String participantId, UnaryOperator<Participant> change) {
+        if (participantId == null) return false;
+        return store.participantsById.computeIfPresent(InMemoryStore.idKey(participantId),
+                (k, stored) -> new InMemoryStore.StoredParticipant(change.apply(stored.participant), stored.password)) != null;
+    }
+
+    private static Participant copy(Participant p, String email, Game game, int skill, Role role) {
+        return new Participant(p.getId(), p.getName(), email, game, skill, role,
+                p.getPersonalityScore(), p.getPersonalityType());
+    }
+}
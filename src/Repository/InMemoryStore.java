@@ -0,0 +1,206 @@
+package Repository;
+
+import Entity.Organizer;
+import Entity.Participant;
+import Entity.Team;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared state of the in-memory repositories.
+ * Participants and organizers are held in concurrent hash indexes by ID and by email;
+ * each organizer's current formation is an immutable index (by team and by participant),
+ * and the map of them is swapped atomically on save.
+ */
+class InMemoryStore {
+    final Map<String, StoredParticipant> participantsById = new ConcurrentHashMap<>();
+    final Map<String, String> participantIdByEmail = new ConcurrentHashMap<>();
+    final Map<String, Organizer> organizersById = new ConcurrentHashMap<>();
+    final Map<String, String> organizerIdByEmail = new ConcurrentHashMap<>();
+
+    // Current formation by organizer key, in activation order (most recent last); replaced as a whole under teamLock
+    final Object teamLock = new Object();
+    volatile Map<String, ActiveFormation> active = Map.of();
+
+    final NavigableMap<Integer, StoredFormation> formations = new ConcurrentSkipListMap<>();
+    final AtomicInteger formationIds = new AtomicInteger();
+
+    InMemoryStore() {
+        // Same default account as the MySQL baseline migration
+        Organizer admin = new Organizer("ORG001", "Administrator", "admin@teammate.com", "admin123");
+        organizersById.put(admin.getId(), admin);
+        organizerIdByEmail.put(emailKey(admin.getEmail()), admin.getId());
+    }
+
+    static String idKey(String id) {
+        return id.trim().toUpperCase();
+    }
+
+    static String emailKey(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    /**
+     * Key of an organizer's current formation; formations saved without an organizer share the '' key
+     */
+    static String organizerKey(String organizerId) {
+        return organizerId == null ? "" : organizerId;
+    }
+
+    ActiveFormation activeFor(String organizerId) {
+        return active.getOrDefault(organizerKey(organizerId), ActiveFormation.NONE);
+    }
+
+    /**
+     * The most recently activated current formation that places the participant, or null if none does
+     */
+    ActiveFormation activeContaining(String participantKey) {
+        ActiveFormation found = null;
+        for (ActiveFormation formation : active.values()) {
+            if (formation.teams.teamIdByParticipant.containsKey(participantKey)) {
+                found = formation;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Make a formation the organizer's current one, activated after all others; callers hold teamLock
+     */
+    void setActive(String organizerId, ActiveFormation formation) {
+        Map<String, ActiveFormation> updated = new LinkedHashMap<>(active);
+        String key = organizerKey(organizerId);
+        updated.remove(key);
+        updated.put(key, formation);
+        active = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * Drop a participant from every current formation, as ON DELETE CASCADE does on team_members
+     */
+    void removeMember(String participantKey) {
+        synchronized (teamLock) {
+            Map<String, ActiveFormation> updated = new LinkedHashMap<>(active);
+            boolean changed = false;
+            for (Map.Entry<String, ActiveFormation> entry : updated.entrySet()) {
+                ActiveFormation formation = entry.getValue();
+                if (formation.teams.teamIdByParticipant.containsKey(participantKey)) {
+                    entry.setValue(new ActiveFormation(formation.formationId,
+                            InMemoryTeamRepository.withoutMember(formation.teams, participantKey)));
+                    changed = true;
+                }
+            }
+            if (changed) {
+                active = Collections.unmodifiableMap(updated);
+            }
+        }
+    }
+
+    Participant getParticipant(String participantId) {
+        if (participantId == null) return null;
+        StoredParticipant stored = participantsById.get(idKey(participantId));
+        return stored == null ? null : stored.participant;
+    }
+
+    /**
+     * Build a Team from stored member IDs using current participant data; deleted members are skipped
+     */
+    Team materialize(int teamId, List<String> memberIds) {
+        Team team = new Team(teamId);
+        for (String id : memberIds) {
+            Participant p = getParticipant(id);
+            if (p != null) {
+                team.addMember(p);
+            }
+        }
+        return team;
+    }
+
+    static final class StoredParticipant {
+        final Participant participant;
+        final String password;
+
+        StoredParticipant(Participant participant, String password) {
+            this.participant = participant;
+            this.password = password;
+        }
+    }
+
+    /**
+     * Immutable membership of a current formation
+     */
+    static final class TeamIndex {
+        final SortedMap<Integer, List<String>> membersByTeam;
+        final Map<String, Integer> teamIdByParticipant;
+
+        TeamIndex(SortedMap<Integer, List<String>> membersByTeam) {
+            Map<String, Integer> byParticipant = new HashMap<>();
+            for (Map.Entry<Integer, List<String>> entry : membersByTeam.entrySet()) {
+                for (String id : entry.getValue()) {
+                    byParticipant.put(idKey(id), entry.getKey());
+                }
+            }
+            this.membersByTeam = Collections.unmodifiableSortedMap(membersByTeam);
+            this.teamIdByParticipant = byParticipant;
+        }
+    }
+
+    /**
+     * An organizer's current formation: the version it was taken from and its live membership
+     */
+    static final class ActiveFormation {
+        static final ActiveFormation NONE = new ActiveFormation(-1, new TeamIndex(new TreeMap<>()));
+
+        final int formationId;
+        final TeamIndex teams;
+
+        ActiveFormation(int formationId, TeamIndex teams) {
+            this.formationId = formationId;
+            this.teams = teams;
+        }
+    }
+
+    /**
+     * A saved formation version: history columns plus packed member IDs
+     */
+    static final class StoredFormation {
+        final int formationId;
+        final String formationName;
+        final int teamSize;
+        final int totalParticipants;
+        final int teamsFormed;
+        final int participantsAssigned;
+        final int participantsRemaining;
+        final String createdBy;
+        final Timestamp createdAt;
+        final SortedMap<Integer, List<String>> membersByTeam;
+        final List<String> unassigned;
+
+        StoredFormation(int formationId, String formationName, int teamSize, int totalParticipants,
+                        int teamsFormed, int participantsAssigned, int participantsRemaining, String createdBy,
+                        SortedMap<Integer, List<String>> membersByTeam, List<String> unassigned) {
+            this(formationId, formationName, teamSize, totalParticipants, teamsFormed, participantsAssigned,
+                    participantsRemaining, createdBy, new Timestamp(System.currentTimeMillis()), membersByTeam, unassigned);
+        }
+
+        StoredFormation(int formationId, String formationName, int teamSize, int totalParticipants,
+                        int teamsFormed, int participantsAssigned, int participantsRemaining, String createdBy,
+                        Timestamp createdAt, SortedMap<Integer, List<String>> membersByTeam, List<String> unassigned) {
+            this.formationId = formationId;
+            this.formationName = formationName;
+            this.teamSize = teamSize;
+            this.totalParticipants = totalParticipants;
+            this.teamsFormed = teamsFormed;
+            this.participantsAssigned = participantsAssigned;
+            this.participantsRemaining = participantsRemaining;
+            this.createdBy = createdBy;
+            this.createdAt = createdAt;
+            this.membersByTeam = membersByTeam;
+            this.unassigned = unassigned;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package Repository;
+
+import Entity.FormationSnapshot;
+import Entity.Participant;
+import Entity.Team;
+import Log.Logger;
+import Main.FormationStatistics;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Team repository held entirely in memory.
+ * Membership is stored as participant IDs, so teams always reflect current profile data.
+ * Each organizer has its own current formation.
+ */
+public class InMemoryTeamRepository implements TeamRepository {
+    private final InMemoryStore store;
+
+    InMemoryTeamRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Team> findAll(String organizerId) {
+        List<Team> teams = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> entry : store.activeFor(organizerId).teams.membersByTeam.entrySet()) {
+            teams.add(store.materialize(entry.getKey(), entry.getValue()));
+        }
+        return teams;
+    }
+
+    @Override
+    public Team findById(int teamId) {
+        // Team numbers restart with every formation; the most recently activated current one wins
+        InMemoryStore.ActiveFormation found = null;
+        for (InMemoryStore.ActiveFormation formation : store.active.values()) {
+            if (formation.teams.membersByTeam.containsKey(teamId)) {
+                found = formation;
+            }
+        }
+        return found == null ? null : store.materialize(teamId, found.teams.membersByTeam.get(teamId));
+    }
+
+    @Override
+    public Integer findTeamIdFor(String participantId) {
+        if (participantId == null) return null;
+        String key = InMemoryStore.idKey(participantId);
+        InMemoryStore.ActiveFormation formation = store.activeContaining(key);
+        return formation == null ? null : formation.teams.teamIdByParticipant.get(key);
+    }
+
+    @Override
+    public Team findTeamFor(String participantId) {
+        if (participantId == null) return null;
+        // Read one index version so the team and the lookup agree
+        String key = InMemoryStore.idKey(participantId);
+        InMemoryStore.ActiveFormation formation = store.activeContaining(key);
+        if (formation == null) return null;
+
+        int teamId = formation.teams.teamIdByParticipant.get(key);
+        return store.materialize(teamId, formation.teams.membersByTeam.get(teamId));
+    }
+
+    @Override
+    public int saveFormationVersion(List<Team> teams, List<Participant> unassigned,
+                                    FormationStatistics stats, String formationName, String organizerId) {
+        List<String> unassignedIds = new ArrayList<>();
+        if (unassigned != null) {
+            for (Participant p : unassigned) {
+                unassignedIds.add(p.getId());
+            }
+        }
+
+        SortedMap<Integer, List<String>> members = toMemberIds(teams);
+        InMemoryStore.TeamIndex index = new InMemoryStore.TeamIndex(members);
+
+        int formationId = store.formationIds.incrementAndGet();
+        store.formations.put(formationId, new InMemoryStore.StoredFormation(formationId, formationName,
+                stats.getTeamSize(), stats.getTotalParticipants(), stats.getTeamsFormed(),
+                stats.getParticipantsAssigned(), stats.getParticipantsRemaining(), organizerId,
+                Collections.unmodifiableSortedMap(members), Collections.unmodifiableList(unassignedIds)));
+
+        synchronized (store.teamLock) {
+            store.setActive(organizerId, new InMemoryStore.ActiveFormation(formationId, index));
+        }
+
+        Logger.info("Stored formation version " + formationId + " (" + teams.size() + " teams) in memory");
+        return formationId;
+    }
+
+    @Override
+    public FormationSnapshot loadFormationVersion(int formationId, Function<String, Participant> resolver) {
+        InMemoryStore.StoredFormation formation = store.formations.get(formationId);
+        if (formation == null) {
+            return null;
+        }
+
+        List<Team> teams = new ArrayList<>();
+        for (Map.Entry<Integer, List<String>> entry : formation.membersByTeam.entrySet()) {
+            Team team = new Team(entry.getKey());
+            for (String id : entry.getValue()) {
+                Participant p = resolver.apply(id);
+                if (p != null) {
+                    team.addMember(p);
+                }
+            }
+            if (team.getSize() > 0) {
+                teams.add(team);
+            }
+        }
+
+        List<Participant> unassigned = new ArrayList<>();
+        for (String id : formation.unassigned) {
+            Participant p = resolver.apply(id);
+            if (p != null) {
+                unassigned.add(p);
+            }
+        }
+
+        return new FormationSnapshot(formationId, formation.teamSize, teams, unassigned);
+    }
+
+    @Override
+    public boolean activateFormation(int formationId, String organizerId) {
+        InMemoryStore.StoredFormation formation = store.formations.get(formationId);
+        if (formation == null || !Objects.equals(formation.createdBy, organizerId)) {
+            Logger.warning("Formation " + formationId + " has no teams of organizer " + organizerId + " to activate");
+            return false;
+        }
+
+        synchronized (store.teamLock) {
+            // Members deleted since the version was saved are not brought back
+            SortedMap<Integer, List<String>> members = new TreeMap<>();
+            for (Map.Entry<Integer, List<String>> entry : formation.membersByTeam.entrySet()) {
+                List<String> ids = new ArrayList<>(entry.getValue());
+                ids.removeIf(id -> store.getParticipant(id) == null);
+                members.put(entry.getKey(), Collections.unmodifiableList(ids));
+            }
+            store.setActive(organizerId, new InMemoryStore.ActiveFormation(formationId, new InMemoryStore.TeamIndex(members)));
+        }
+        return true;
+    }
+
+    @Override
+    public int getActiveFormationId(String organizerId) {
+        return store.activeFor(organizerId).formationId;
+    }
+
+    @Override
+    public List<Map<String, Object>> getFormationHistory(String organizerId) {
+        List<Map<String, Object>> history = new ArrayList<>();
+
+        // Formation IDs increase with creation time, so descending ID order is newest first
+        for (InMemoryStore.StoredFormation f : store.formations.descendingMap().values()) {
+            if (!Objects.equals(f.createdBy, organizerId)) {
+                continue;
+            }
+            Map<String, Object> formation = new HashMap<>();
+            formation.put("formation_id", f.formationId);
+            formation.put("formation_name", f.formationName);
+            formation.put("team_size", f.teamSize);
+            formation.put("total_participants", f.totalParticipants);
+            formation.put("teams_formed", f.teamsFormed);
+            formation.put("participants_assigned", f.participantsAssigned);
+            formation.put("participants_remaining", f.participantsRemaining);
+            formation.put("created_at", f.createdAt);
+            history.add(formation);
+        }
+
+        return history;
+    }
+
+    /**
+     * Copy of the index with one participant removed from its team
+     */
+    static InMemoryStore.TeamIndex withoutMember(InMemoryStore.TeamIndex index, String participantKey) {
+        SortedMap<Integer, List<String>> members = new TreeMap<>();
+        for (Map.Entry<Integer, List<String>> entry : index.membersByTeam.entrySet()) {
+            List<String> ids = new ArrayList<>(entry.getValue());
+            ids.removeIf(id -> InMemoryStore.idKey(id).equals(participantKey));
+            members.put(entry.getKey(), Collections.unmodifiableList(ids));
+        }
+        return new InMemoryStore.TeamIndex(members);
+    }
+
+    private static SortedMap<Integer, List<String>> toMemberIds(List<Team> teams) {
+        SortedMap<Integer, List<String>> members = new TreeMap<>();
+        for (Team team : teams) {
+            List<String> ids = new ArrayList<>(team.getSize());
+            for (Participant p : team.getMembers()) {
+                ids.add(p.getId());
+            }
+            members.put(team.getTeamId(), Collections.unmodifiableList(ids));
+        }
+        return members;
+    }
+}
@@ -0,0 +1,29 @@
+package Repository;
+
+import Entity.Organizer;
+
+/**
+ * Organizer repository persisted in the embedded log store
+ */
+public class LogOrganizerRepository extends InMemoryOrganizerRepository {
+    private final LogStore store;
+
+    LogOrganizerRepository(LogStore store) {
+        super(store);
+        this.store = store;
+    }
+
+    @Override
+    public boolean register(Organizer organizer) {
+        store.writeLock.lock();
+        try {
+            if (!super.register(organizer)) {
+                return false;
+            }
+            store.recordOrganizer(organizer);
+            return true;
+        } finally {
+            store.writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package Repository;
+
+import Entity.Participant;
+import Enums.Game;
+import Enums.Role;
+import Log.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Participant repository persisted in the embedded log store
+ */
+public class LogParticipantRepository implements ParticipantRepository {
+    private final LogStore store;
+
+    LogParticipantRepository(LogStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public boolean insert(Participant participant, String password) {
+        // The log is the record of the write; no per-insert log line on this hot path
+        return store.insertParticipant(participant, password);
+    }
+
+    @Override
+    public Participant findById(String participantId) {
+        return store.getParticipant(participantId);
+    }
+
+    @Override
+    public List<Participant> findAll() {
+        List<Participant> participants = new ArrayList<>();
+        for (InMemoryStore.StoredParticipant stored : store.readAllParticipants()) {
+            participants.add(stored.participant);
+        }
+        participants.sort(Comparator.comparing(Participant::getId));
+        return participants;
+    }
+
+    @Override
+    public List<Participant> findUnassigned(String organizerId) {
+        InMemoryStore.TeamIndex teams = store.activeFor(organizerId).teams;
+        List<Participant> unassigned = new ArrayList<>();
+        for (InMemoryStore.StoredParticipant stored : store.readAllParticipants()) {
+            if (!teams.teamIdByParticipant.containsKey(InMemoryStore.idKey(stored.participant.getId()))) {
+                unassigned.add(stored.participant);
+            }
+        }
+        unassigned.sort(Comparator.comparing(Participant::getId));
+        return unassigned;
+    }
+
+    @Override
+    public boolean exists(String participantId) {
+        return store.containsParticipant(participantId);
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        // The email index is rebuilt on replay, so this never touches the log
+        return email != null && store.participantIdByEmail.containsKey(InMemoryStore.emailKey(email));
+    }
+
+    @Override
+    public Participant authenticate(String participantId, String password) {
+        InMemoryStore.StoredParticipant stored = store.readParticipant(participantId);
+
+        if (stored == null) {
+            Logger.warning("Participant not found: " + participantId);
+            return null;
+        }
+        if (!stored.password.equals(password)) {
+            Logger.warning("Invalid password for participant: " + participantId);
+            return null;
+        }
+
+        Logger.info("Participant authenticated successfully: " + participantId);
+        return stored.participant;
+    }
+
+    @Override
+    public boolean updateEmail(String participantId, String newEmail) {
+        return store.updateParticipant(participantId, p -> copy(p, newEmail, p.getGame(), p.getSkillLevel(), p.getRole()));
+    }
+
+    @Override
+    public boolean updateSkill(String participantId, int newSkill) {
+        return store.updateParticipant(participantId, p -> copy(p, p.getEmail(), p.getGame(), newSkill, p.getRole()));
+    }
+
+    @Override
+    public boolean updateGame(String participantId, Game newGame) {
+        return store.updateParticipant(participantId, p -> copy(p, p.getEmail(), newGame, p.getSkillLevel(), p.getRole()));
+    }
+
+    @Override
+    public boolean updateRole(String participantId, Role newRole) {
+        return store.updateParticipant(participantId, p -> copy(p, p.getEmail(), p.getGame(), p.getSkillLevel(), newRole));
+    }
+
+    @Override
+    public boolean delete(String participantId) {
+        return store.deleteParticipant(participantId);
+    }
+
+    private static Participant copy(Participant p, String email, Game game, int skill, Role role) {
+        return new Participant(p.getId(), p.getName(), email, game, skill, role,
+                p.getPersonalityScore(), p.getPersonalityType());
+    }
+}
@@ -0,0 +1,769 @@
+package Repository;
+
+import Database.IdAllocator;
+import Entity.Organizer;
+import Entity.Participant;
+import Log.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded append-only log backing the file repositories.
+ * Every change is appended to a memory-mapped file as [length][type][crc][payload].
+ * Participants are indexed by ID to the offset of their latest record and decoded from the
+ * mapping on read; teams, organizers and formations are small and kept decoded in memory.
+ * Each record is forced to disk before the write returns, unless teammate.log.sync=false.
+ * On open the log is replayed up to the first torn or corrupt record, and it is compacted
+ * in the background once more than half of it is superseded records.
+ */
+public class LogStore extends InMemoryStore implements Closeable {
+    private static final byte PARTICIPANT_PUT = 1;
+    private static final byte PARTICIPANT_DELETE = 2;
+    // Types 3 and 6 held the single shared formation; they are still replayed from older logs
+    private static final byte TEAMS_PUT = 3;
+    private static final byte ORGANIZER_PUT = 4;
+    private static final byte FORMATION_PUT = 5;
+    private static final byte ACTIVE_FORMATION = 6;
+    private static final byte ACTIVE_FORMATIONS = 7;
+
+    private static final int MAGIC = 0x544D4C47; // "TMLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int INITIAL_CAPACITY = 16 << 20;
+    // A single mapping is limited to 2 GB; compaction keeps the log well below that
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final long COMPACTION_MIN_GARBAGE = 16 << 20;
+    // -Dteammate.log.sync=false leaves appends in the page cache until the next force (growth,
+    // compaction or close): faster, but writes acknowledged since then are lost if the machine crashes
+    private static final boolean SYNC_ON_APPEND = !"false".equalsIgnoreCase(System.getProperty("teammate.log.sync"));
+
+    private final Path path;
+    final ReentrantLock writeLock = new ReentrantLock();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Segment segment;
+
+    // Guarded by writeLock
+    private FileChannel channel;
+    private int writePosition;
+    private long deadBytes = 0;
+    private int activeRecordSize = 0;
+    // Replay state of the legacy single-formation records
+    private SortedMap<Integer, List<String>> legacyTeams = new TreeMap<>();
+    private int legacyFormationId = -1;
+    private boolean compactionScheduled = false;
+    private boolean closed = false;
+
+    private LogStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Open (or create) the log at this path and replay it
+     */
+    public static LogStore open(Path path) throws IOException {
+        LogStore store = new LogStore(path);
+        store.writeLock.lock();
+        try {
+            store.recover();
+        } finally {
+            store.writeLock.unlock();
+        }
+        return store;
+    }
+
+    public int participantCount() {
+        return segment.offsets.size();
+    }
+
+    /**
+     * Highest allocator sequence number among stored participant or organizer IDs, 0 if none
+     */
+    public long maxSequenceNumber(boolean organizers) {
+        Collection<String> ids = organizers ? organizersById.keySet() : segment.offsets.keySet();
+        long max = 0;
+        for (String id : ids) {
+            max = Math.max(max, IdAllocator.sequenceNumber(id));
+        }
+        return max;
+    }
+
+    public long sizeBytes() {
+        writeLock.lock();
+        try {
+            return writePosition;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- participants
+
+    @Override
+    Participant getParticipant(String participantId) {
+        StoredParticipant stored = readParticipant(participantId);
+        return stored == null ? null : stored.participant;
+    }
+
+    StoredParticipant readParticipant(String participantId) {
+        if (participantId == null) return null;
+        String key = idKey(participantId);
+
+        while (true) {
+            Segment current = segment;
+            Integer offset = current.offsets.get(key);
+            if (offset == null) {
+                return null;
+            }
+            // An offset published after a remap can lie past an older mapping; re-read the segment
+            if (offset + RECORD_HEADER_SIZE <= current.buffer.capacity()
+                    && offset + RECORD_HEADER_SIZE + current.buffer.getInt(offset) <= current.buffer.capacity()) {
+                return decodeParticipant(payloadAt(current.buffer, offset));
+            }
+        }
+    }
+
+    List<StoredParticipant> readAllParticipants() {
+        Segment current = segment;
+        List<StoredParticipant> participants = new ArrayList<>(current.offsets.size());
+        for (String key : current.offsets.keySet()) {
+            StoredParticipant stored = readParticipant(key);
+            if (stored != null) {
+                participants.add(stored);
+            }
+        }
+        return participants;
+    }
+
+    boolean containsParticipant(String participantId) {
+        return participantId != null && segment.offsets.containsKey(idKey(participantId));
+    }
+
+    boolean insertParticipant(Participant participant, String password) {
+        String key = idKey(participant.getId());
+        String emailKey = emailKey(participant.getEmail());
+
+        writeLock.lock();
+        try {
+            if (segment.offsets.containsKey(key)) {
+                Logger.warning("Participant ID already exists: " + participant.getId());
+                return false;
+            }
+            if (participantIdByEmail.containsKey(emailKey)) {
+                Logger.warning("Participant email already exists: " + participant.getEmail());
+                return false;
+            }
+
+            int offset = append(PARTICIPANT_PUT, encodeParticipant(participant, password));
+            segment.offsets.put(key, offset);
+            participantIdByEmail.put(emailKey, key);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Append a new version of a participant; returns false if it does not exist
+     */
+    boolean updateParticipant(String participantId, UnaryOperator<Participant> change) {
+        if (participantId == null) return false;
+        String key = idKey(participantId);
+
+        writeLock.lock();
+        try {
+            Integer oldOffset = segment.offsets.get(key);
+            if (oldOffset == null) {
+                return false;
+            }
+
+            StoredParticipant current = decodeParticipant(payloadAt(segment.buffer, oldOffset));
+            Participant updated = change.apply(current.participant);
+
+            String oldEmail = emailKey(current.participant.getEmail());
+            String newEmail = emailKey(updated.getEmail());
+            if (!newEmail.equals(oldEmail)) {
+                String owner = participantIdByEmail.get(newEmail);
+                if (owner != null && !owner.equals(key)) {
+                    Logger.warning("Email already registered, update rejected for " + participantId + ": " + updated.getEmail());
+                    return false;
+                }
+            }
+
+            int offset = append(PARTICIPANT_PUT, encodeParticipant(updated, current.password));
+            segment.offsets.put(key, offset);
+            deadBytes += recordSize(segment.buffer, oldOffset);
+            if (!newEmail.equals(oldEmail)) {
+                participantIdByEmail.remove(oldEmail, key);
+                participantIdByEmail.put(newEmail, key);
+            }
+            maybeScheduleCompaction();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    boolean deleteParticipant(String participantId) {
+        if (participantId == null) return false;
+        String key = idKey(participantId);
+
+        writeLock.lock();
+        try {
+            if (!segment.offsets.containsKey(key)) {
+                return false;
+            }
+
+            int deleteOffset = append(PARTICIPANT_DELETE, encodeId(key));
+            applyDelete(key);
+            deadBytes += recordSize(segment.buffer, deleteOffset);
+            maybeScheduleCompaction();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- teams, organizers, formations
+
+    /**
+     * Append every organizer's current formation; callers hold writeLock while changing them
+     */
+    void recordActiveFormations() {
+        int offset = append(ACTIVE_FORMATIONS, encodeActive(active));
+        deadBytes += activeRecordSize;
+        activeRecordSize = recordSize(segment.buffer, offset);
+        maybeScheduleCompaction();
+    }
+
+    void recordOrganizer(Organizer organizer) {
+        append(ORGANIZER_PUT, encodeOrganizer(organizer));
+    }
+
+    void recordFormation(StoredFormation formation) {
+        append(FORMATION_PUT, encodeFormation(formation));
+    }
+
+    // ---------------------------------------------------------------- compaction and lifecycle
+
+    /**
+     * Rewrite the log with only live records, then swap it in atomically
+     */
+    public void compact() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) return;
+            long before = writePosition;
+            Segment old = segment;
+            Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+
+            long live = writePosition - deadBytes;
+            int capacity = (int) Math.min(MAX_CAPACITY, Math.max(INITIAL_CAPACITY, live * 2));
+            Map<String, Integer> offsets = new ConcurrentHashMap<>(Math.max(16, old.offsets.size() * 2));
+            int position;
+
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                writeFileHeader(target);
+                position = FILE_HEADER_SIZE;
+
+                for (Organizer organizer : organizersById.values()) {
+                    position = writeRecord(target, position, ORGANIZER_PUT, encodeOrganizer(organizer));
+                }
+
+                // Live participant records are copied verbatim
+                for (Map.Entry<String, Integer> entry : old.offsets.entrySet()) {
+                    int size = recordSize(old.buffer, entry.getValue());
+                    target.put(position, old.buffer, entry.getValue(), size);
+                    offsets.put(entry.getKey(), position);
+                    position += size;
+                }
+
+                for (StoredFormation formation : formations.values()) {
+                    position = writeRecord(target, position, FORMATION_PUT, encodeFormation(formation));
+                }
+
+                int activeOffset = position;
+                position = writeRecord(target, position, ACTIVE_FORMATIONS, encodeActive(active));
+                activeRecordSize = position - activeOffset;
+
+                target.force();
+            }
+
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Readers holding the old segment keep reading the old mapping until they finish
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = new Segment(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), offsets);
+            writePosition = position;
+            deadBytes = 0;
+
+            Logger.info("Compacted " + path + ": " + before + " -> " + writePosition + " bytes");
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flush the mapping to disk and release the file
+     */
+    @Override
+    public void close() {
+        compactor.shutdown();
+        writeLock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            segment.buffer.force();
+            channel.close();
+            Logger.info("Log store closed (" + writePosition + " bytes, " + segment.offsets.size() + " participants)");
+        } catch (IOException e) {
+            Logger.error("Error closing log store", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void maybeScheduleCompaction() {
+        if (compactionScheduled || closed || deadBytes < COMPACTION_MIN_GARBAGE || deadBytes * 2 < writePosition) {
+            return;
+        }
+
+        compactionScheduled = true;
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException | RuntimeException e) {
+                Logger.error("Log compaction failed", e);
+            } finally {
+                writeLock.lock();
+                compactionScheduled = false;
+                writeLock.unlock();
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------- recovery
+
+    private void recover() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long fileSize = channel.size();
+        int capacity = (int) Math.min(MAX_CAPACITY, Math.max(INITIAL_CAPACITY, fileSize));
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        segment = new Segment(buffer, new ConcurrentHashMap<>());
+
+        if (fileSize == 0 || buffer.getInt(0) == 0) {
+            writeFileHeader(buffer);
+            writePosition = FILE_HEADER_SIZE;
+            Logger.info("Created log store at " + path);
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a TeamMate log store: " + path);
+        }
+
+        int position = FILE_HEADER_SIZE;
+        int records = 0;
+        boolean torn = false;
+
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > capacity) {
+                torn = true;
+                break;
+            }
+
+            byte type = buffer.get(position + 4);
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_SIZE, payload);
+            if (crc(type, payload) != buffer.getInt(position + 5)) {
+                torn = true;
+                break;
+            }
+
+            replay(type, payload, position);
+            position += RECORD_HEADER_SIZE + length;
+            records++;
+        }
+
+        writePosition = position;
+
+        if (torn) {
+            // Clear the damaged tail so stale bytes past new appends are never replayed
+            for (int i = position; i < capacity; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+            Logger.warning("Log store " + path + " had a torn tail; recovered " + records + " records up to offset " + position);
+        } else {
+            Logger.info("Replayed " + records + " log records from " + path + " (" + segment.offsets.size() + " participants)");
+        }
+    }
+
+    private void replay(byte type, byte[] payload, int offset) throws IOException {
+        int size = RECORD_HEADER_SIZE + payload.length;
+
+        switch (type) {
+            case PARTICIPANT_PUT: {
+                // Only the indexed fields are decoded during replay
+                String[] idAndEmail = decodeIdAndEmail(payload);
+                String key = idKey(idAndEmail[0]);
+                Integer old = segment.offsets.put(key, offset);
+                if (old != null) {
+                    participantIdByEmail.remove(emailKey(decodeIdAndEmail(payloadAt(segment.buffer, old))[1]), key);
+                    deadBytes += recordSize(segment.buffer, old);
+                }
+                participantIdByEmail.put(emailKey(idAndEmail[1]), key);
+                break;
+            }
+            case PARTICIPANT_DELETE: {
+                String key = new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+                if (segment.offsets.containsKey(key)) {
+                    applyDelete(key);
+                }
+                deadBytes += size;
+                break;
+            }
+            case TEAMS_PUT:
+                // Legacy records count as garbage at once; compaction rewrites their state as type 7
+                legacyTeams = decodeTeams(new DataInputStream(new ByteArrayInputStream(payload)));
+                applyLegacyFormation();
+                deadBytes += size;
+                break;
+            case ORGANIZER_PUT: {
+                Organizer organizer = decodeOrganizer(payload);
+                organizersById.put(idKey(organizer.getId()), organizer);
+                organizerIdByEmail.put(emailKey(organizer.getEmail()), idKey(organizer.getId()));
+                break;
+            }
+            case FORMATION_PUT: {
+                StoredFormation formation = decodeFormation(payload);
+                formations.put(formation.formationId, formation);
+                formationIds.accumulateAndGet(formation.formationId, Math::max);
+                break;
+            }
+            case ACTIVE_FORMATION:
+                legacyFormationId = new DataInputStream(new ByteArrayInputStream(payload)).readInt();
+                applyLegacyFormation();
+                deadBytes += size;
+                break;
+            case ACTIVE_FORMATIONS:
+                active = decodeActive(payload);
+                deadBytes += activeRecordSize;
+                activeRecordSize = size;
+                break;
+            default:
+                throw new IOException("Unknown log record type " + type + " at offset " + offset);
+        }
+    }
+
+    /**
+     * The shared formation of an older log becomes the current formation of the organizer who saved it
+     */
+    private void applyLegacyFormation() {
+        StoredFormation formation = legacyFormationId < 0 ? null : formations.get(legacyFormationId);
+        synchronized (teamLock) {
+            active = Map.of();
+            if (legacyFormationId >= 0 || !legacyTeams.isEmpty()) {
+                setActive(formation == null ? null : formation.createdBy,
+                        new ActiveFormation(legacyFormationId, new TeamIndex(legacyTeams)));
+            }
+        }
+    }
+
+    /**
+     * Drop a participant from the indexes, cascading to team membership
+     */
+    private void applyDelete(String key) {
+        Integer offset = segment.offsets.remove(key);
+        if (offset == null) return;
+
+        StoredParticipant removed = decodeParticipant(payloadAt(segment.buffer, offset));
+        participantIdByEmail.remove(emailKey(removed.participant.getEmail()), key);
+        deadBytes += recordSize(segment.buffer, offset);
+
+        removeMember(key);
+    }
+
+    // ---------------------------------------------------------------- record I/O
+
+    private int append(byte type, byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("Log store is closed");
+        }
+        ensureCapacity(RECORD_HEADER_SIZE + payload.length);
+
+        int offset = writePosition;
+        writePosition = writeRecord(segment.buffer, offset, type, payload);
+        if (SYNC_ON_APPEND) {
+            // Durable before the caller is told the write succeeded
+            segment.buffer.force(offset, writePosition - offset);
+        }
+        return offset;
+    }
+
+    private void ensureCapacity(int needed) {
+        MappedByteBuffer buffer = segment.buffer;
+        if ((long) writePosition + needed <= buffer.capacity()) {
+            return;
+        }
+
+        long required = (long) writePosition + needed;
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("Log store is full (" + writePosition + " bytes); compaction required");
+        }
+        int capacity = (int) Math.min(MAX_CAPACITY, Math.max(required, (long) buffer.capacity() * 2));
+
+        try {
+            buffer.force();
+            segment = new Segment(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), segment.offsets);
+            Logger.debug("Log store grown to " + capacity + " bytes");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error growing log store", e);
+        }
+    }
+
+    private static int writeRecord(ByteBuffer buffer, int offset, byte type, byte[] payload) {
+        buffer.put(offset + 4, type);
+        buffer.putInt(offset + 5, crc(type, payload));
+        buffer.put(offset + RECORD_HEADER_SIZE, payload);
+        // Length last: a record is only visible to recovery once it is complete
+        buffer.putInt(offset, payload.length);
+        return offset + RECORD_HEADER_SIZE + payload.length;
+    }
+
+    private static void writeFileHeader(ByteBuffer buffer) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+    }
+
+    private static int recordSize(ByteBuffer buffer, int offset) {
+        return RECORD_HEADER_SIZE + buffer.getInt(offset);
+    }
+
+    private static byte[] payloadAt(ByteBuffer buffer, int offset) {
+        byte[] payload = new byte[buffer.getInt(offset)];
+        buffer.get(offset + RECORD_HEADER_SIZE, payload);
+        return payload;
+    }
+
+    private static int crc(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // ---------------------------------------------------------------- encoding
+
+    private static byte[] encodeParticipant(Participant p, String password) {
+        return encode(out -> {
+            out.writeUTF(p.getId());
+            out.writeUTF(p.getName());
+            out.writeUTF(p.getEmail());
+            out.writeUTF(password);
+            out.writeUTF(p.getGame().getDisplayName());
+            out.writeInt(p.getSkillLevel());
+            out.writeUTF(p.getRole().getDisplayName());
+            out.writeInt(p.getPersonalityScore());
+        });
+    }
+
+    private static StoredParticipant decodeParticipant(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            String id = in.readUTF();
+            String name = in.readUTF();
+            String email = in.readUTF();
+            String password = in.readUTF();
+            String game = in.readUTF();
+            int skill = in.readInt();
+            String role = in.readUTF();
+            int score = in.readInt();
+            return new StoredParticipant(new Participant(id, name, email, game, skill, role, score), password);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt participant record", e);
+        }
+    }
+
+    private static String[] decodeIdAndEmail(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        String id = in.readUTF();
+        in.skipBytes(in.readUnsignedShort()); // name
+        return new String[]{id, in.readUTF()};
+    }
+
+    private static byte[] encodeOrganizer(Organizer organizer) {
+        return encode(out -> {
+            out.writeUTF(organizer.getId());
+            out.writeUTF(organizer.getName());
+            out.writeUTF(organizer.getEmail());
+            out.writeUTF(organizer.getPassword());
+        });
+    }
+
+    private static Organizer decodeOrganizer(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new Organizer(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    private static byte[] encodeTeams(SortedMap<Integer, List<String>> membersByTeam) {
+        return encode(out -> writeTeams(out, membersByTeam));
+    }
+
+    private static void writeTeams(DataOutputStream out, SortedMap<Integer, List<String>> membersByTeam) throws IOException {
+        out.writeInt(membersByTeam.size());
+        for (Map.Entry<Integer, List<String>> entry : membersByTeam.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeIds(out, entry.getValue());
+        }
+    }
+
+    private static SortedMap<Integer, List<String>> decodeTeams(DataInputStream in) throws IOException {
+        SortedMap<Integer, List<String>> membersByTeam = new TreeMap<>();
+        int teamCount = in.readInt();
+        for (int i = 0; i < teamCount; i++) {
+            int teamId = in.readInt();
+            membersByTeam.put(teamId, readIds(in));
+        }
+        return membersByTeam;
+    }
+
+    private static byte[] encodeActive(Map<String, ActiveFormation> active) {
+        return encode(out -> {
+            out.writeInt(active.size());
+            for (Map.Entry<String, ActiveFormation> entry : active.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().formationId);
+                writeTeams(out, entry.getValue().teams.membersByTeam);
+            }
+        });
+    }
+
+    private static Map<String, ActiveFormation> decodeActive(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        // Written in activation order
+        Map<String, ActiveFormation> active = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String organizer = in.readUTF();
+            int formationId = in.readInt();
+            active.put(organizer, new ActiveFormation(formationId, new TeamIndex(decodeTeams(in))));
+        }
+        return Collections.unmodifiableMap(active);
+    }
+
+    private static byte[] encodeFormation(StoredFormation f) {
+        return encode(out -> {
+            out.writeInt(f.formationId);
+            out.writeUTF(f.formationName);
+            out.writeInt(f.teamSize);
+            out.writeInt(f.totalParticipants);
+            out.writeInt(f.teamsFormed);
+            out.writeInt(f.participantsAssigned);
+            out.writeInt(f.participantsRemaining);
+            out.writeBoolean(f.createdBy != null);
+            if (f.createdBy != null) {
+                out.writeUTF(f.createdBy);
+            }
+            out.writeLong(f.createdAt.getTime());
+            writeTeams(out, f.membersByTeam);
+            writeIds(out, f.unassigned);
+        });
+    }
+
+    private static StoredFormation decodeFormation(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int formationId = in.readInt();
+        String name = in.readUTF();
+        int teamSize = in.readInt();
+        int total = in.readInt();
+        int formed = in.readInt();
+        int assigned = in.readInt();
+        int remaining = in.readInt();
+        String createdBy = in.readBoolean() ? in.readUTF() : null;
+        Timestamp createdAt = new Timestamp(in.readLong());
+        SortedMap<Integer, List<String>> membersByTeam = decodeTeams(in);
+        List<String> unassigned = readIds(in);
+        return new StoredFormation(formationId, name, teamSize, total, formed, assigned, remaining, createdBy,
+                createdAt, Collections.unmodifiableSortedMap(membersByTeam), unassigned);
+    }
+
+    private static byte[] encodeId(String id) {
+        return encode(out -> out.writeUTF(id));
+    }
+
+    private static void writeIds(DataOutputStream out, List<String> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (String id : ids) {
+            out.writeUTF(id);
+        }
+    }
+
+    private static List<String> readIds(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(in.readUTF());
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    private static byte[] encode(RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A mapping together with the participant offsets that point into it
+     */
+    private static final class Segment {
+        private final MappedByteBuffer buffer;
+        private final Map<String, Integer> offsets;
+
+        private Segment(MappedByteBuffer buffer, Map<String, Integer> offsets) {
+            this.buffer = buffer;
+            this.offsets = offsets;
+        }
+    }
+}
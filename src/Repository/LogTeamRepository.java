@@ -0,0 +1,49 @@
+package Repository;
+
+import Entity.Participant;
+import Entity.Team;
+import Main.FormationStatistics;
+
+import java.util.List;
+
+/**
+ * Team repository persisted in the embedded log store.
+ * Each change is applied to the in-memory indexes and appended under the store's write lock,
+ * so the log records changes in the order they became visible.
+ */
+public class LogTeamRepository extends InMemoryTeamRepository {
+    private final LogStore store;
+
+    LogTeamRepository(LogStore store) {
+        super(store);
+        this.store = store;
+    }
+
+    @Override
+    public int saveFormationVersion(List<Team> teams, List<Participant> unassigned,
+                                    FormationStatistics stats, String formationName, String organizerId) {
+        store.writeLock.lock();
+        try {
+            int formationId = super.saveFormationVersion(teams, unassigned, stats, formationName, organizerId);
+            store.recordFormation(store.formations.get(formationId));
+            store.recordActiveFormations();
+            return formationId;
+        } finally {
+            store.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean activateFormation(int formationId, String organizerId) {
+        store.writeLock.lock();
+        try {
+            if (!super.activateFormation(formationId, organizerId)) {
+                return false;
+            }
+            store.recordActiveFormations();
+            return true;
+        } finally {
+            store.writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package Repository;
+
+import Database.AuthenticationService;
+import Entity.Organizer;
+
+/**
+ * Organizer repository backed by MySQL
+ */
+public class MySQLOrganizerRepository implements OrganizerRepository {
+
+    @Override
+    public Organizer authenticate(String organizerId, String password) {
+        return AuthenticationService.authenticateOrganizer(organizerId, password);
+    }
+
+    @Override
+    public boolean register(Organizer organizer) {
+        return AuthenticationService.registerOrganizer(organizer);
+    }
+
+    @Override
+    public boolean exists(String organizerId) {
+        return AuthenticationService.organizerExists(organizerId);
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        return AuthenticationService.organizerEmailExists(email);
+    }
+}
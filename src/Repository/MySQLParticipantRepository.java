@@ -0,0 +1,154 @@
+package Repository;
+
+import Database.AuthenticationService;
+import Database.Deadline;
+import Database.FormationView;
+import Database.ParticipantDAO;
+import Database.ParticipantRoster;
+import Database.ProfileUpdateBuffer;
+import Database.RegistrationQueue;
+import Entity.Participant;
+import Entity.ParticipantView;
+import Enums.Game;
+import Enums.Role;
+import Exceptions.UncheckedSQLException;
+import Log.Logger;
+
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Participant repository backed by MySQL.
+ * Inserts go through the group-commit queue, profile edits through the write-behind buffer
+ * (each call returns once its edit is committed, or is reported pending if that takes longer
+ * than the write budget), and full reads through the incrementally refreshed roster.
+ */
+public class MySQLParticipantRepository implements ParticipantRepository {
+    private static final long WRITE_TIMEOUT_MILLIS = Deadline.budgetFor("profileUpdate", 10_000);
+    private static final long REGISTRATION_TIMEOUT_MILLIS = Deadline.budgetFor("registration", 10_000);
+
+    /**
+     * Wait for the sign-up's batch within the registration budget. A sign-up not written in time
+     * is withdrawn if still queued, and the timeout is thrown instead of reported as a duplicate.
+     */
+    @Override
+    public boolean insert(Participant participant, String password) {
+        CompletableFuture<Boolean> inserted = RegistrationQueue.submit(participant, password);
+        try {
+            return inserted.get(REGISTRATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            boolean withdrawn = RegistrationQueue.withdraw(inserted);
+            Logger.error("Registration of " + participant.getId() + " not written within "
+                    + REGISTRATION_TIMEOUT_MILLIS + " ms" + (withdrawn ? "; withdrawn" : "; its batch is still running"));
+            throw new UncheckedSQLException("Registration of " + participant.getId() + " timed out",
+                    new SQLTimeoutException("Registration not written within " + REGISTRATION_TIMEOUT_MILLIS + " ms"
+                            + (withdrawn ? "" : "; it may still be stored")));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Logger.error("Registration of " + participant.getId() + " failed", e);
+        }
+        return false;
+    }
+
+    @Override
+    public Participant findById(String participantId) {
+        return ParticipantDAO.getParticipantById(participantId);
+    }
+
+    @Override
+    public List<Participant> findAll() {
+        // Write buffered profile edits first so the roster refresh picks them up
+        ProfileUpdateBuffer.flush();
+        return ParticipantRoster.getParticipants();
+    }
+
+    @Override
+    public void forEach(Consumer<? super ParticipantView> action) {
+        ProfileUpdateBuffer.flush();
+        ParticipantRoster.forEach(action);
+    }
+
+    @Override
+    public Participant findLoaded(String participantId) {
+        return ParticipantRoster.getParticipant(participantId);
+    }
+
+    @Override
+    public List<Participant> findUnassigned(String organizerId) {
+        return FormationView.current(organizerId).getUnassigned();
+    }
+
+    @Override
+    public boolean exists(String participantId) {
+        return AuthenticationService.participantExists(participantId);
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        return AuthenticationService.participantEmailExists(email);
+    }
+
+    @Override
+    public Participant authenticate(String participantId, String password) {
+        return AuthenticationService.authenticateParticipant(participantId, password);
+    }
+
+    @Override
+    public boolean updateEmail(String participantId, String newEmail) {
+        if (!exists(participantId)) return false;
+        return awaitWrite(participantId, ProfileUpdateBuffer.updateEmail(participantId, newEmail));
+    }
+
+    @Override
+    public boolean updateSkill(String participantId, int newSkill) {
+        if (!exists(participantId)) return false;
+        return awaitWrite(participantId, ProfileUpdateBuffer.updateSkill(participantId, newSkill));
+    }
+
+    @Override
+    public boolean updateGame(String participantId, Game newGame) {
+        if (!exists(participantId)) return false;
+        return awaitWrite(participantId, ProfileUpdateBuffer.updateGame(participantId, newGame));
+    }
+
+    @Override
+    public boolean updateRole(String participantId, Role newRole) {
+        if (!exists(participantId)) return false;
+        return awaitWrite(participantId, ProfileUpdateBuffer.updateRole(participantId, newRole));
+    }
+
+    @Override
+    public boolean hasPendingUpdate(String participantId) {
+        return ProfileUpdateBuffer.hasPending(participantId);
+    }
+
+    @Override
+    public boolean delete(String participantId) {
+        return ParticipantDAO.deleteParticipant(participantId);
+    }
+
+    /**
+     * Wait until a buffered edit is committed. An edit still queued after the write budget is
+     * not failed: it stays visible to reads and is retried, so it is reported as accepted and
+     * hasPendingUpdate tells the caller it is not stored yet.
+     */
+    private static boolean awaitWrite(String participantId, CompletableFuture<Boolean> written) {
+        try {
+            return written.get(WRITE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Logger.warning("Profile update for " + participantId + " not yet written; it stays queued for retry");
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Logger.error("Profile update for " + participantId + " failed", e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package Repository;
+
+import Database.FormationView;
+import Database.TeamDAO;
+import Entity.FormationSnapshot;
+import Entity.Participant;
+import Entity.Team;
+import Main.FormationStatistics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Team repository backed by MySQL; an organizer's teams are served from its materialized formation view
+ */
+public class MySQLTeamRepository implements TeamRepository {
+
+    @Override
+    public List<Team> findAll(String organizerId) {
+        return FormationView.current(organizerId).getTeams();
+    }
+
+    @Override
+    public Team findById(int teamId) {
+        // Stored teams are immutable, so a loaded view's copy is as good as the table's
+        for (FormationView view : FormationView.loaded().values()) {
+            Team team = view.getTeam(teamId);
+            if (team != null) {
+                return team;
+            }
+        }
+        return TeamDAO.getTeamById(teamId);
+    }
+
+    @Override
+    public Integer findTeamIdFor(String participantId) {
+        Team team = findTeamFor(participantId);
+        return team == null ? null : team.getTeamId();
+    }
+
+    @Override
+    public Team findTeamFor(String participantId) {
+        // Served from the views' participant index once every active formation is loaded
+        if (FormationView.isWarm()) {
+            return FormationView.findTeamFor(participantId);
+        }
+        Integer teamId = TeamDAO.getParticipantTeamId(participantId);
+        return teamId == null ? null : findById(teamId);
+    }
+
+    @Override
+    public int saveFormationVersion(List<Team> teams, List<Participant> unassigned,
+                                    FormationStatistics stats, String formationName, String organizerId) {
+        return TeamDAO.saveFormationVersion(teams, unassigned, stats, formationName, organizerId);
+    }
+
+    @Override
+    public FormationSnapshot loadFormationVersion(int formationId, Function<String, Participant> resolver) {
+        return TeamDAO.loadFormationVersion(formationId, resolver);
+    }
+
+    @Override
+    public boolean activateFormation(int formationId, String organizerId) {
+        return TeamDAO.activateFormation(formationId, organizerId);
+    }
+
+    @Override
+    public int getActiveFormationId(String organizerId) {
+        return TeamDAO.getActiveFormationId(organizerId);
+    }
+
+    @Override
+    public List<Map<String, Object>> getFormationHistory(String organizerId) {
+        return TeamDAO.getTeamFormationHistory(organizerId);
+    }
+}
@@ -0,0 +1,26 @@
+package Repository;
+
+import Entity.Organizer;
+
+/**
+ * Storage for organizer accounts
+ */
+public interface OrganizerRepository {
+
+    /**
+     * Return the organizer if the password matches, otherwise null
+     */
+    Organizer authenticate(String organizerId, String password);
+
+    /**
+     * Store a new organizer; returns false if the ID or email is taken
+     */
+    boolean register(Organizer organizer);
+
+    boolean exists(String organizerId);
+
+    /**
+     * Whether any organizer is registered with this email (case-insensitive)
+     */
+    boolean emailExists(String email);
+}
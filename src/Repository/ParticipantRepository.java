@@ -0,0 +1,79 @@
+package Repository;
+
+import Entity.Participant;
+import Entity.ParticipantView;
+import Enums.Game;
+import Enums.Role;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage for participant profiles and credentials
+ */
+public interface ParticipantRepository {
+
+    /**
+     * Store a new participant; returns false if it could not be stored (e.g. duplicate ID or email)
+     */
+    boolean insert(Participant participant, String password);
+
+    Participant findById(String participantId);
+
+    /**
+     * All participants ordered by ID, including any pending profile changes
+     */
+    List<Participant> findAll();
+
+    /**
+     * Visit every participant, including any pending profile changes, without building a list.
+     * The view may be a flyweight that is only valid inside the callback.
+     */
+    default void forEach(Consumer<? super ParticipantView> action) {
+        findAll().forEach(action);
+    }
+
+    /**
+     * A participant as of the last findAll or forEach, without going back to storage; null if absent
+     */
+    default Participant findLoaded(String participantId) {
+        return findById(participantId);
+    }
+
+    /**
+     * Participants not assigned to any team of the organizer's stored formation
+     */
+    List<Participant> findUnassigned(String organizerId);
+
+    boolean exists(String participantId);
+
+    /**
+     * Whether any participant is registered with this email (case-insensitive)
+     */
+    boolean emailExists(String email);
+
+    /**
+     * Return the participant if the password matches, otherwise null
+     */
+    Participant authenticate(String participantId, String password);
+
+    // Profile updates return false if the participant does not exist, the email is already in use
+    // or the change could not be stored; a change accepted but not yet stored returns true and is
+    // reported by hasPendingUpdate until it is
+    boolean updateEmail(String participantId, String newEmail);
+
+    boolean updateSkill(String participantId, int newSkill);
+
+    boolean updateGame(String participantId, Game newGame);
+
+    boolean updateRole(String participantId, Role newRole);
+
+    /**
+     * Whether an accepted profile change of the participant is still waiting to be stored
+     */
+    default boolean hasPendingUpdate(String participantId) {
+        return false;
+    }
+
+    boolean delete(String participantId);
+}
@@ -0,0 +1,126 @@
+package Repository;
+
+import Database.IdAllocator;
+import Log.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Selects the storage backend used by the application.
+ * MySQL is the default; the embedded log store persists to a local file for single-node use,
+ * and the in-memory backend stands in when no database is available.
+ */
+public final class Repositories {
+    private static volatile Backend backend = Backend.mySQL();
+
+    private Repositories() {}
+
+    public static ParticipantRepository participants() {
+        return backend.participants;
+    }
+
+    public static TeamRepository teams() {
+        return backend.teams;
+    }
+
+    public static OrganizerRepository organizers() {
+        return backend.organizers;
+    }
+
+    public static boolean isInMemory() {
+        return backend.inMemory;
+    }
+
+    public static boolean isMySQL() {
+        return !backend.inMemory && backend.logStore == null;
+    }
+
+    public static void useMySQL() {
+        replace(Backend.mySQL());
+        IdAllocator.useDatabaseBlocks();
+        Logger.info("Using MySQL storage");
+    }
+
+    /**
+     * Switch to a fresh, empty in-memory store
+     */
+    public static void useInMemory() {
+        replace(Backend.inMemory());
+        IdAllocator.useLocalBlocks(1, 1);
+        Logger.info("Using in-memory storage");
+    }
+
+    /**
+     * Switch to the embedded log store at this path; returns the current store if it is already
+     * open at this path, or null (backend unchanged, current store still open) if it cannot be opened
+     */
+    public static synchronized LogStore useLogStore(Path path) {
+        LogStore current = backend.logStore;
+        if (current != null && current.getPath().toAbsolutePath().normalize().equals(path.toAbsolutePath().normalize())) {
+            return current;
+        }
+
+        try {
+            // Opened before the current store is released, so a failure leaves the backend working
+            LogStore store = LogStore.open(path);
+            replace(Backend.logStore(store));
+            IdAllocator.useLocalBlocks(store.maxSequenceNumber(false) + 1, store.maxSequenceNumber(true) + 1);
+            Logger.info("Using log store at " + path);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            Logger.error("Error opening log store " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Release the current backend's resources (flushes the log store)
+     */
+    public static synchronized void shutdown() {
+        if (backend.logStore != null) {
+            backend.logStore.close();
+        }
+    }
+
+    private static synchronized void replace(Backend next) {
+        Backend previous = backend;
+        backend = next;
+        if (previous.logStore != null) {
+            previous.logStore.close();
+        }
+    }
+
+    private static final class Backend {
+        private final ParticipantRepository participants;
+        private final TeamRepository teams;
+        private final OrganizerRepository organizers;
+        private final boolean inMemory;
+        private final LogStore logStore;
+
+        private Backend(ParticipantRepository participants, TeamRepository teams,
+                        OrganizerRepository organizers, boolean inMemory, LogStore logStore) {
+            this.participants = participants;
+            this.teams = teams;
+            this.organizers = organizers;
+            this.inMemory = inMemory;
+            this.logStore = logStore;
+        }
+
+        private static Backend mySQL() {
+            return new Backend(new MySQLParticipantRepository(), new MySQLTeamRepository(),
+                    new MySQLOrganizerRepository(), false, null);
+        }
+
+        private static Backend inMemory() {
+            InMemoryStore store = new InMemoryStore();
+            return new Backend(new InMemoryParticipantRepository(store), new InMemoryTeamRepository(store),
+                    new InMemoryOrganizerRepository(store), true, null);
+        }
+
+        private static Backend logStore(LogStore store) {
+            return new Backend(new LogParticipantRepository(store), new LogTeamRepository(store),
+                    new LogOrganizerRepository(store), false, store);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Repository;
+
+import Entity.FormationSnapshot;
+import Entity.Participant;
+import Entity.Team;
+import Main.FormationStatistics;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Storage for each organizer's current formation and its saved versions
+ */
+public interface TeamRepository {
+
+    /**
+     * Save these teams as a new formation version and make it the organizer's current formation
+     */
+    default boolean saveTeams(List<Team> teams, int teamSize, String organizerId, List<Participant> unassigned) {
+        return saveFormationVersion(teams, unassigned, FormationStatistics.of(teams, unassigned, teamSize),
+                versionName(teamSize), organizerId) > 0;
+    }
+
+    /**
+     * Teams of the organizer's current formation
+     */
+    List<Team> findAll(String organizerId);
+
+    Team findById(int teamId);
+
+    // A participant's team in the most recently saved of the organizers' current formations
+    Integer findTeamIdFor(String participantId);
+
+    Team findTeamFor(String participantId);
+
+    /**
+     * Record the formation as a new immutable version and make it active in one step; returns its ID or -1
+     */
+    int saveFormationVersion(List<Team> teams, List<Participant> unassigned,
+                             FormationStatistics stats, String formationName, String organizerId);
+
+    FormationSnapshot loadFormationVersion(int formationId, Function<String, Participant> resolver);
+
+    /**
+     * Make one of the organizer's saved versions its current formation without rewriting its teams
+     */
+    boolean activateFormation(int formationId, String organizerId);
+
+    /**
+     * The organizer's active formation ID, or -1 if none has been recorded
+     */
+    int getActiveFormationId(String organizerId);
+
+    /**
+     * Saved versions for an organizer, newest first
+     */
+    List<Map<String, Object>> getFormationHistory(String organizerId);
+
+    /**
+     * Default name of a version saved now
+     */
+    static String versionName(int teamSize) {
+        return "teamSize" + teamSize + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+    }
+}
@@ -1,22 +1,115 @@
-# Database Configuration
-# Place this file in the root of your project
-
-# Database Connection Settings
-db.url=jdbc:mysql://localhost:3306/teammate_db
-db.username=root
-db.password=
-
-# Connection Pool Settings (for future use)
-db.pool.initialSize=5
-db.pool.maxActive=20
-db.pool.maxIdle=10
-db.pool.minIdle=5
-
-# Application Settings
-app.default.teamsize=5
-app.password.minlength=6
-app.session.timeout=30
-
-# Logging
-log.level=INFO
-log.file=logs/teammate_system.log
\ No newline at end of file
+-- TeamMate System - Database Schema
+-- Reference copy of the schema after all migrations in Database/SchemaMigrator.java.
+-- The application applies pending migrations automatically at startup; this script is
+-- only needed to create the database by hand.
+
+CREATE DATABASE IF NOT EXISTS teammate_db;
+USE teammate_db;
+
+-- Applied migrations (maintained by SchemaMigrator)
+CREATE TABLE IF NOT EXISTS schema_migrations (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Organizer accounts
+CREATE TABLE IF NOT EXISTS organizers (
+    id VARCHAR(20) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Participant profiles
+CREATE TABLE IF NOT EXISTS participants (
+    id VARCHAR(20) PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    preferred_game VARCHAR(50) NOT NULL,
+    skill_level INT NOT NULL,
+    preferred_role VARCHAR(50) NOT NULL,
+    personality_score INT NOT NULL,
+    personality_type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Incremental roster refresh (updated_at >= high-water mark)
+    INDEX idx_participants_updated_at (updated_at)
+);
+
+-- Teams, immutable once written; formation versions link to them
+CREATE TABLE IF NOT EXISTS teams (
+    team_id INT AUTO_INCREMENT PRIMARY KEY,
+    team_size INT NOT NULL,
+    avg_skill_level DECIMAL(5,2) NOT NULL,
+    role_diversity INT NOT NULL,
+    created_by VARCHAR(20),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Team membership
+CREATE TABLE IF NOT EXISTS team_members (
+    team_id INT NOT NULL,
+    participant_id VARCHAR(20) NOT NULL,
+    PRIMARY KEY (team_id, participant_id),
+    -- Covering: participant -> team lookup and the unassigned anti-join
+    INDEX idx_team_members_participant_team (participant_id, team_id),
+    FOREIGN KEY (team_id) REFERENCES teams(team_id) ON DELETE CASCADE,
+    FOREIGN KEY (participant_id) REFERENCES participants(id) ON DELETE CASCADE
+);
+
+-- Formation history
+CREATE TABLE IF NOT EXISTS team_formations (
+    formation_id INT AUTO_INCREMENT PRIMARY KEY,
+    formation_name VARCHAR(100) NOT NULL,
+    team_size INT NOT NULL,
+    total_participants INT NOT NULL,
+    teams_formed INT NOT NULL,
+    participants_assigned INT NOT NULL,
+    participants_remaining INT NOT NULL,
+    created_by VARCHAR(20),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Covering: history by organizer, newest first
+    INDEX idx_team_formations_history (created_by, created_at, formation_name, team_size,
+        total_participants, teams_formed, participants_assigned, participants_remaining)
+);
+
+-- Teams linked to a formation
+CREATE TABLE IF NOT EXISTS formation_teams (
+    formation_id INT NOT NULL,
+    team_id INT NOT NULL,
+    PRIMARY KEY (formation_id, team_id),
+    -- Active-formation joins from a participant's team rows
+    INDEX idx_formation_teams_team (team_id, formation_id),
+    FOREIGN KEY (formation_id) REFERENCES team_formations(formation_id) ON DELETE CASCADE
+);
+
+-- Packed membership of each formation version
+CREATE TABLE IF NOT EXISTS formation_snapshots (
+    formation_id INT PRIMARY KEY,
+    membership MEDIUMBLOB NOT NULL,
+    FOREIGN KEY (formation_id) REFERENCES team_formations(formation_id) ON DELETE CASCADE
+);
+
+-- Each organizer's active formation version ('' for formations saved without an organizer)
+CREATE TABLE IF NOT EXISTS active_formations (
+    organizer_id VARCHAR(20) PRIMARY KEY,
+    formation_id INT NOT NULL,
+    activated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_active_formations_formation (formation_id),
+    FOREIGN KEY (formation_id) REFERENCES team_formations(formation_id) ON DELETE CASCADE
+);
+
+-- Next unreserved number of each ID sequence (IdAllocator reserves blocks from here)
+CREATE TABLE IF NOT EXISTS id_blocks (
+    name VARCHAR(40) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO id_blocks (name, next_value) VALUES ('participant', 1), ('organizer', 1);
+
+-- Default organizer account
+INSERT IGNORE INTO organizers (id, name, email, password)
+VALUES ('ORG001', 'Administrator', 'admin@teammate.com', 'admin123');
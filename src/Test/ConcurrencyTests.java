@@ -4,12 +4,28 @@ import Entity.Participant;
 import Enums.Game;
 import Enums.Role;
 import Log.Logger;
+import Manager.FormationJob;
+import Manager.OrganizerSession;
+import Manager.RosterState;
+import Manager.SessionRegistry;
 import Manager.TeamManager;
+import Database.AsyncDao;
+import Database.IdAllocator;
 import Database.ParticipantDAO;
-
+import Repository.Repositories;
+import Threads.ManagedExecutor;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConcurrencyTests {
     private static int testsPassed = 0;
@@ -23,6 +39,12 @@ public class ConcurrencyTests {
         testConcurrentDatabaseWrites();
         testThreadPoolManagement();
         testDeadlockAvoidance();
+        testConcurrentIdAllocation();
+        testRosterSnapshots();
+        testOrganizerSessionIsolation();
+        testManagedExecutors();
+        testAsyncFormationPipeline();
+        testAsyncDao();
 
         printTestResults();
     }
@@ -290,6 +312,407 @@ public class ConcurrencyTests {
         }
     }
 
+    private static void testConcurrentIdAllocation() {
+        Logger.info("Testing Concurrent ID Allocation...");
+
+        try {
+            IdAllocator.useLocalBlocks(1, 1);
+            int threads = 8;
+            int perThread = 5000;
+            Set<String> ids = ConcurrentHashMap.newKeySet();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<List<String>>> futures = new ArrayList<>();
+
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> issued = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        issued.add(IdAllocator.nextParticipantId());
+                    }
+                    return issued;
+                }));
+            }
+
+            for (Future<List<String>> future : futures) {
+                List<String> issued = future.get(30, TimeUnit.SECONDS);
+                for (int i = 1; i < issued.size(); i++) {
+                    assert issued.get(i - 1).compareTo(issued.get(i)) < 0 : "IDs from one thread should be increasing";
+                }
+                ids.addAll(issued);
+            }
+            executor.shutdown();
+
+            assert ids.size() == threads * perThread : "All allocated IDs should be unique";
+            assert IdAllocator.sequenceNumber(IdAllocator.nextOrganizerId()) == 1 : "Organizer sequence should be separate";
+
+            testsPassed++;
+            Logger.info("✓ Concurrent ID allocation test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Concurrent ID allocation test failed: " + e.getMessage());
+        } finally {
+            IdAllocator.useDatabaseBlocks();
+        }
+    }
+
+    private static void testRosterSnapshots() {
+        Logger.info("Testing Roster Snapshots...");
+
+        try {
+            Repositories.useInMemory();
+            TeamManager tm = new TeamManager(Repositories.participants(), Repositories.teams());
+            int threads = 8;
+            int perThread = 250;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            AtomicBoolean writing = new AtomicBoolean(true);
+
+            // Reader: versions only move forward and a snapshot never changes under it
+            Future<Integer> reader = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "snapshot-reader");
+                t.setDaemon(true);
+                return t;
+            }).submit(() -> {
+                long lastVersion = -1;
+                int lastSize = 0;
+                int reads = 0;
+                while (writing.get()) {
+                    RosterState s = tm.snapshot();
+                    int size = s.getParticipants().size();
+                    assert s.getVersion() >= lastVersion : "Version went backwards";
+                    assert size >= lastSize : "Roster shrank";
+                    for (int i = 0; i < size; i++) {
+                        assert s.getParticipants().get(i) != null : "Snapshot has a gap at " + i;
+                    }
+                    assert s.getParticipants().size() == size : "Snapshot changed while read";
+                    lastVersion = s.getVersion();
+                    lastSize = size;
+                    reads++;
+                }
+                return reads;
+            });
+
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String id = String.format("S%02d%04d", thread, i);
+                        tm.addParticipant(new Participant(id, "Snap " + id, id.toLowerCase() + "@test.com",
+                                Game.CHESS, 5, Role.STRATEGIST, 70, null));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            writing.set(false);
+            int reads = reader.get(30, TimeUnit.SECONDS);
+
+            RosterState last = tm.snapshot();
+            assert last.getParticipants().size() == threads * perThread : "Lost updates: " + last.getParticipants().size();
+            assert last.getVersion() == threads * perThread : "Every add should publish one version";
+            Logger.debug("Snapshot reads during writes: " + reads);
+
+            testsPassed++;
+            Logger.info("✓ Roster snapshot test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Roster snapshot test failed: " + e.getMessage());
+        } finally {
+            Repositories.useMySQL();
+        }
+    }
+
+    private static void testOrganizerSessionIsolation() {
+        Logger.info("Testing Organizer Session Isolation...");
+
+        try {
+            Repositories.useInMemory();
+            for (int i = 0; i < 60; i++) {
+                String id = String.format("O%04d", i);
+                Repositories.participants().insert(new Participant(id, "Org Pool " + i, "pool" + i + "@test.com",
+                        Game.values()[i % Game.values().length], 1 + i % 10, Role.values()[i % Role.values().length],
+                        40 + i % 60, null), id + "-123");
+            }
+
+            // Each organizer forms with its own team size at the same time
+            int organizers = 6;
+            ExecutorService executor = Executors.newFixedThreadPool(organizers);
+            CyclicBarrier start = new CyclicBarrier(organizers);
+            List<Future<OrganizerSession>> futures = new ArrayList<>();
+            for (int o = 0; o < organizers; o++) {
+                final int teamSize = 3 + o;
+                final String organizerId = "ORGS" + o;
+                futures.add(executor.submit(() -> {
+                    OrganizerSession session = SessionRegistry.openOrganizerSession(organizerId);
+                    session.getTeamManager().setTeamSize(teamSize);
+                    start.await(10, TimeUnit.SECONDS);
+                    session.getTeamManager().formTeams();
+                    return session;
+                }));
+            }
+
+            List<OrganizerSession> sessions = new ArrayList<>();
+            for (Future<OrganizerSession> future : futures) {
+                sessions.add(future.get(30, TimeUnit.SECONDS));
+            }
+            executor.shutdown();
+
+            assert SessionRegistry.activeOrganizerSessions() == organizers : "Each organizer should have one session";
+            for (int o = 0; o < organizers; o++) {
+                RosterState state = sessions.get(o).getTeamManager().snapshot();
+                assert state.getTeamSize() == 3 + o : "Team size leaked between sessions";
+                assert !state.getFormedTeams().isEmpty() : "Session " + o + " should have teams";
+                assert state.getFormedTeams().get(0).getSize() <= 3 + o : "Teams should use the session's size";
+            }
+
+            // A second login joins the same session and keeps it alive after the first logs out
+            OrganizerSession again = SessionRegistry.openOrganizerSession("orgs0");
+            assert again == sessions.get(0) : "Same organizer should join its session";
+            SessionRegistry.closeOrganizerSession(sessions.get(0));
+            assert SessionRegistry.getOrganizerSession("ORGS0") == again : "Session should outlive one logout";
+            SessionRegistry.closeOrganizerSession(again);
+            assert SessionRegistry.getOrganizerSession("ORGS0") == null : "Last logout should close the session";
+
+            testsPassed++;
+            Logger.info("✓ Organizer session isolation test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Organizer session isolation test failed: " + e.getMessage());
+        } finally {
+            SessionRegistry.closeAll();
+            Repositories.useMySQL();
+        }
+    }
+
+    private static void testManagedExecutors() {
+        Logger.info("Testing Managed Executors...");
+
+        ManagedExecutor io = ManagedExecutor.virtual("test-io", 4, 8, 200);
+        ManagedExecutor cpu = ManagedExecutor.platform("test-cpu", 2, 2, 50);
+        try {
+            // Virtual pool: never more than 4 tasks run at once
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(io.submit(() -> {
+                    int now = running.incrementAndGet();
+                    peak.accumulateAndGet(now, Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assert peak.get() <= 4 : "Concurrency cap exceeded: " + peak.get();
+            // Counters are updated just after each future completes
+            long deadline = System.currentTimeMillis() + 5000;
+            while (io.getCompletedCount() < 12 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assert io.getCompletedCount() == 12 && io.getActiveCount() == 0 : "All tasks should complete";
+
+            // Platform pool with 2 threads + 2 queued: a fifth task waits, then is rejected
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < 4; i++) {
+                cpu.submit(() -> {
+                    release.await();
+                    return null;
+                });
+            }
+            try {
+                cpu.submit(() -> null);
+                assert false : "Full backlog should reject";
+            } catch (RejectedExecutionException expected) {
+                // expected
+            }
+            assert cpu.getRejectedCount() == 1 : "Rejection should be counted";
+            assert cpu.getActiveCount() + cpu.getQueuedCount() == 4 : "Four tasks should be admitted";
+
+            release.countDown();
+            Future<Integer> failing = cpu.submit(() -> {
+                throw new IllegalStateException("boom");
+            });
+            try {
+                failing.get(10, TimeUnit.SECONDS);
+                assert false : "Failure should propagate";
+            } catch (ExecutionException expected) {
+                // expected
+            }
+            assert cpu.getFailedCount() == 1 : "Failure should be counted";
+
+            assert cpu.shutdown(10, TimeUnit.SECONDS) : "Shutdown should drain the pool";
+            try {
+                cpu.submit(() -> null);
+                assert false : "Shut down pool should reject";
+            } catch (RejectedExecutionException expected) {
+                // expected
+            }
+
+            testsPassed++;
+            Logger.info("✓ Managed executor test passed (" + io.getMetricsSummary() + ")");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Managed executor test failed: " + e.getMessage());
+        } finally {
+            io.shutdown(10, TimeUnit.SECONDS);
+            cpu.shutdown(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void testAsyncFormationPipeline() {
+        Logger.info("Testing Async Formation Pipeline...");
+
+        Path dir = null;
+        try {
+            Repositories.useInMemory();
+            for (int i = 0; i < 47; i++) {
+                String id = String.format("A%04d", i);
+                Repositories.participants().insert(new Participant(id, "Async " + i, "async" + i + "@test.com",
+                        Game.values()[i % Game.values().length], 1 + i % 10, Role.values()[i % Role.values().length],
+                        40 + i % 60, null), id + "-123");
+            }
+            dir = Files.createTempDirectory("formation-pipeline");
+            Path csv = dir.resolve("teams.csv");
+
+            TeamManager tm = new TeamManager(Repositories.participants(), Repositories.teams());
+            tm.setTeamSize(5);
+            FormationJob first = tm.formTeamsAsync(csv.toString());
+            assert first.awaitFormation().getTeamsFormed() == 9 : "47 participants should form 9 teams of 5";
+
+            // A second formation right away: its save must commit after the first one
+            tm.setTeamSize(4);
+            FormationJob second = tm.formTeamsAsync(null);
+            second.completion().get(30, TimeUnit.SECONDS);
+            first.completion().get(30, TimeUnit.SECONDS);
+
+            assert first.getPersisted().get() && second.getPersisted().get() : "Both saves should commit";
+            assert first.getExported().get() && !second.getExported().get() : "Only the first run exports";
+            assert Repositories.teams().findAll(null).size() == 11 : "Latest formation (11 teams of 4) should be stored last";
+
+            List<String> lines = Files.readAllLines(csv);
+            assert lines.size() == 1 + 47 : "CSV should hold every participant: " + lines.size();
+            assert lines.stream().filter(l -> l.startsWith("0,")).count() == 2 : "Remaining participants use TeamID 0";
+            assert !Files.exists(dir.resolve("teams.csv.tmp")) : "Temporary file should be gone";
+
+            // A failed formation leaves no file behind and skips the save
+            Repositories.useInMemory();
+            TeamManager empty = new TeamManager(Repositories.participants(), Repositories.teams());
+            Path failedCsv = dir.resolve("failed.csv");
+            FormationJob failed = empty.formTeamsAsync(failedCsv.toString());
+            assert failed.awaitFormation() == null : "Formation without participants should fail";
+            failed.completion().get(30, TimeUnit.SECONDS);
+            assert failed.getPersisted().isCompletedExceptionally() : "Failed formation should not be saved";
+            assert !failed.getExported().get() : "Failed formation should not be exported";
+            assert !Files.exists(failedCsv) && !Files.exists(dir.resolve("failed.csv.tmp")) : "No partial CSV should remain";
+
+            testsPassed++;
+            Logger.info("✓ Async formation pipeline test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Async formation pipeline test failed: " + e.getMessage());
+        } finally {
+            Repositories.useMySQL();
+            if (dir != null) {
+                try (var files = Files.list(dir)) {
+                    for (Path file : files.toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                    Files.deleteIfExists(dir);
+                } catch (Exception ignored) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    private static void testAsyncDao() {
+        Logger.info("Testing Async DAO...");
+
+        try {
+            // A fake connection whose statements block until they are cancelled
+            CountDownLatch cancelled = new CountDownLatch(1);
+            Statement statement = (Statement) Proxy.newProxyInstance(ConcurrencyTests.class.getClassLoader(),
+                    new Class<?>[]{Statement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "execute" -> {
+                            cancelled.await();
+                            throw new java.sql.SQLException("Query cancelled");
+                        }
+                        case "cancel" -> {
+                            cancelled.countDown();
+                            yield null;
+                        }
+                        default -> null;
+                    });
+            Connection connection = (Connection) Proxy.newProxyInstance(ConcurrencyTests.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) ->
+                            method.getName().equals("createStatement") ? statement : null);
+
+            assert AsyncDao.track(connection) == connection : "Outside an async call connections are not wrapped";
+
+            CompletableFuture<Boolean> slow = AsyncDao.supply("slowQuery", 200,
+                    () -> AsyncDao.track(connection).createStatement().execute("SELECT SLEEP(60)"));
+            try {
+                slow.get(10, TimeUnit.SECONDS);
+                assert false : "Slow query should time out";
+            } catch (ExecutionException e) {
+                assert e.getCause() instanceof TimeoutException : "Expected a timeout: " + e.getCause();
+            }
+            assert cancelled.await(5, TimeUnit.SECONDS) : "Timeout should cancel the running statement";
+
+            // Cancelling the future cancels the statement in the same way
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicBoolean statementCancelled = new AtomicBoolean(false);
+            Statement blocking = (Statement) Proxy.newProxyInstance(ConcurrencyTests.class.getClassLoader(),
+                    new Class<?>[]{Statement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "execute" -> {
+                            started.countDown();
+                            release.await();
+                            yield false;
+                        }
+                        case "cancel" -> {
+                            statementCancelled.set(true);
+                            release.countDown();
+                            yield null;
+                        }
+                        default -> null;
+                    });
+            Connection blockingConnection = (Connection) Proxy.newProxyInstance(ConcurrencyTests.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) ->
+                            method.getName().equals("createStatement") ? blocking : null);
+            CompletableFuture<Boolean> running = AsyncDao.supply("blockingQuery",
+                    () -> AsyncDao.track(blockingConnection).createStatement().execute("SELECT 1"));
+            assert started.await(5, TimeUnit.SECONDS) : "Query should start";
+            running.cancel(true);
+            assert statementCancelled.get() : "Cancelling the future should cancel the statement";
+
+            // Independent calls complete concurrently and nested calls run inline
+            CompletableFuture<Integer> a = AsyncDao.supply("a", () -> 1);
+            CompletableFuture<Integer> b = AsyncDao.supply("b", () -> AsyncDao.supply("nested", () -> 2).join());
+            assert a.thenCombine(b, Integer::sum).get(5, TimeUnit.SECONDS) == 3 : "Both calls should complete";
+
+            testsPassed++;
+            Logger.info("✓ Async DAO test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Async DAO test failed: " + e.getMessage());
+        }
+    }
+
     private static void printTestResults() {
         Logger.info("\n╔════════════════════════════════════╗");
         Logger.info("║   CONCURRENCY TEST RESULTS         ║");
@@ -2,6 +2,7 @@ package Test;
 
 import Log.Logger;
 import Database.DatabaseConnection;
+import Database.SchemaMigrator;
 
 public class TestRunner {
     private static int totalTestsPassed = 0;
@@ -19,6 +20,10 @@ public class TestRunner {
             System.exit(1);
         }
 
+        if (!SchemaMigrator.migrate()) {
+            Logger.warning("Schema migrations could not be applied before tests");
+        }
+
         startTime = System.currentTimeMillis();
 
         try {
@@ -7,9 +7,34 @@ import Enums.Role;
 import Enums.PersonalityType;
 import Exceptions.*;
 import Log.Logger;
+import Manager.PersistentVector;
+import Manager.SessionManager;
+import Manager.SessionRegistry;
 import Manager.TeamManager;
+import Manager.TimingWheel;
+import Manager.UserSession;
+import Database.AsyncDao;
+import Database.Deadline;
+import Database.FormationView;
 import Database.ParticipantDAO;
 import Database.AuthenticationService;
+import Database.ParticipantCache;
+import Database.BloomFilter;
+import Database.OffHeapRoster;
+import Repository.LogStore;
+import Repository.ParticipantRepository;
+import Repository.Repositories;
+import Repository.TeamRepository;
+import Threads.TeamFormationThread;
+import Main.FormationStatistics;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class UnitTests {
     private static int testsPassed = 0;
@@ -26,6 +51,16 @@ public class UnitTests {
         testTeamManagerBasics();
         testDatabaseOperations();
         testPasswordGeneration();
+        testParticipantCache();
+        testFormationView();
+        testInMemoryRepositories();
+        testLogStore();
+        testBloomFilter();
+        testOffHeapRoster();
+        testPersistentVector();
+        testTimingWheel();
+        testSessionManager();
+        testDeadline();
 
         printTestResults();
     }
@@ -71,6 +106,35 @@ public class UnitTests {
             testsFailed++;
             Logger.error("✗ Auto-generated ID test failed", (Exception) e);
         }
+
+        try {
+            // Test 3: Compact storage round-trips IDs, names and emails of every shape
+            String[][] cases = {
+                    {"P000001042", "Participant_1042", "user1042@university.edu"},
+                    {"P005", "Ana Maria de Souza", "ana.souza@mail.example.com"},
+                    {"custom-id", "Zoë", "no-at-sign"},
+                    {"X123456789012345", "Trailing ", "weird@@host"},
+                    {"P0", "", "@empty.local"}
+            };
+            for (String[] c : cases) {
+                Participant p = new Participant(c[0], c[1], c[2], Game.DOTA2, -3, Role.COORDINATOR, 1000, null);
+                assert p.getId().equals(c[0]) : "ID round trip failed for " + c[0];
+                assert p.getName().equals(c[1]) : "Name round trip failed for " + c[1];
+                assert p.getEmail().equals(c[2]) : "Email round trip failed for " + c[2];
+                assert p.getGame() == Game.DOTA2 && p.getRole() == Role.COORDINATOR : "Enum round trip failed";
+                assert p.getSkillLevel() == -3 && p.getPersonalityScore() == 1000 : "Number round trip failed";
+                assert p.equals(new Participant(c[0], "Other", "o@x.com", "Chess", 1, "Defender", 50)) : "Equality is by ID";
+            }
+            assert !new Participant("P005", "A", "a@b.c", "Chess", 1, "Defender", 50)
+                    .equals(new Participant("P0005", "A", "a@b.c", "Chess", 1, "Defender", 50)) : "Leading zeros are significant";
+
+            testsPassed++;
+            Logger.info("✓ Compact participant round-trip test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Compact participant round-trip test failed: " + e.getMessage());
+        }
     }
 
     private static void testPersonalityClassification() {
@@ -165,6 +229,15 @@ public class UnitTests {
             assert PersonalityType.classify(80) == PersonalityType.BALANCED : "80 should classify as Balanced";
             assert PersonalityType.classify(60) == PersonalityType.THINKER : "60 should classify as Thinker";
 
+            // Test display-name lookups used when decoding rows
+            assert Game.fromDisplayName("CS:GO") == Game.CSGO : "CS:GO should decode to CSGO";
+            assert Game.fromDisplayName("dota 2") == Game.DOTA2 : "Game lookup should ignore case";
+            assert Game.fromDisplayName("Cricket") == Game.CHESS : "Unknown game should default to CHESS";
+            assert Role.fromDisplayName("coordinator") == Role.COORDINATOR : "Role lookup should ignore case";
+            assert Role.fromDisplayName(null) == Role.SUPPORTER : "Missing role should default to SUPPORTER";
+            assert PersonalityType.fromDisplayName("Leader") == PersonalityType.LEADER : "Leader should decode";
+            assert PersonalityType.fromDisplayName("unknown") == null : "Unknown personality type should be null";
+
             testsPassed++;
             Logger.info("✓ Enum functionality test passed");
 
@@ -297,6 +370,533 @@ public class UnitTests {
         }
     }
 
+    private static void testParticipantCache() {
+        Logger.info("Testing Participant Cache...");
+
+        try {
+            Participant p = new Participant("PCACHE1", "Cache User", "cache@test.com",
+                    "Chess", 6, "Defender", 75);
+
+            ParticipantCache.put(p);
+            long hitsBefore = ParticipantCache.getHitCount();
+
+            assert ParticipantCache.get("pcache1") == p : "Lookup should be case-insensitive";
+            assert ParticipantCache.getHitCount() == hitsBefore + 1 : "Hit should be counted";
+
+            ParticipantCache.invalidate("PCACHE1");
+            assert ParticipantCache.get("PCACHE1") == null : "Invalidated entry should be gone";
+            assert !ParticipantCache.contains("PCACHE1") : "Invalidated entry should not be contained";
+
+            // A row read before an invalidation must not be cached after it
+            long version = ParticipantCache.version("PCACHE1");
+            ParticipantCache.invalidate("PCACHE1");
+            assert !ParticipantCache.put(p, version) : "Stale read should be rejected";
+            assert !ParticipantCache.contains("PCACHE1") : "Stale read should not be cached";
+            assert ParticipantCache.put(p, ParticipantCache.version("PCACHE1")) : "Fresh read should be cached";
+            assert ParticipantCache.contains("PCACHE1") : "Fresh read should be cached";
+
+            testsPassed++;
+            Logger.info("✓ Participant cache test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Participant cache test failed: " + e.getMessage());
+        }
+    }
+
+    private static void testFormationView() {
+        Logger.info("Testing Formation View...");
+
+        try {
+            Participant a = new Participant("PVIEW1", "View One", "view1@test.com", "Chess", 5, "Strategist", 90);
+            Participant b = new Participant("PVIEW2", "View Two", "view2@test.com", "FIFA", 7, "Attacker", 60);
+            Team team = new Team(7);
+            team.addMember(a);
+
+            // A seed prepared before an invalidation must not install a stale view
+            FormationView.invalidate();
+            long stale = FormationView.getGeneration("ORGVIEW1");
+            FormationView.invalidate();
+            assert !FormationView.seed("ORGVIEW1", 1, 1000, List.of(team), List.of(b), stale) : "Stale seed should be rejected";
+            assert FormationView.seed("ORGVIEW1", 1, 1000, List.of(team), List.of(b), FormationView.getGeneration("ORGVIEW1"))
+                    : "Fresh seed should install";
+            assert FormationView.current("ORGVIEW1").getTeamIdFor("pview1") == 7 : "Seeded view should be served";
+            assert FormationView.findTeamFor("pview1").getTeamId() == 7 : "Seeded view should be indexed";
+
+            FormationView.publish("ORGVIEW1", 2, 2000, List.of(), List.of(a, b));
+            assert FormationView.current("ORGVIEW1").getUnassigned().size() == 2 : "Published view should replace the seed";
+            assert FormationView.findTeamFor("PVIEW1") == null : "Publish should update the participant index";
+            assert !FormationView.seed("ORGVIEW1", 1, 1000, List.of(team), List.of(b), FormationView.getGeneration("ORGVIEW1"))
+                    : "Seed should not replace an installed view";
+
+            // Each organizer has its own view; lookups follow the most recent activation, not the highest formation ID
+            FormationView.publish("ORGVIEW2", 3, 3000, List.of(team), List.of(b));
+            Team other = new Team(9);
+            other.addMember(a);
+            FormationView.publish("ORGVIEW3", 4, 2500, List.of(other), List.of(b));
+            assert FormationView.current("ORGVIEW1").getTeams().isEmpty() : "Another organizer's save should not replace the view";
+            assert FormationView.current("ORGVIEW2").getTeamIdFor("PVIEW1") == 7 : "Organizer should see its own teams";
+            assert FormationView.findTeamFor("PVIEW1").getTeamId() == 7 : "Most recently activated formation should win";
+            FormationView.invalidate("ORGVIEW2");
+            assert FormationView.findTeamFor("PVIEW1").getTeamId() == 9 : "Invalidation should drop the view from the index";
+            assert FormationView.loaded().keySet().equals(Set.of("ORGVIEW1", "ORGVIEW3"))
+                    : "Invalidation should only drop that organizer's view";
+            assert !FormationView.isWarm() : "Lookups should stay on the database until warm-up";
+
+            // Participant changes only touch the views that hold the participant
+            Participant c = new Participant("PVIEW3", "View Three", "view3@test.com", "DOTA 2", 4, "Defender", 40);
+            FormationView.addUnassigned(List.of(c));
+            assert FormationView.current("ORGVIEW1").getUnassigned().equals(List.of(a, b, c))
+                    && FormationView.current("ORGVIEW3").getUnassigned().equals(List.of(b, c))
+                    : "New participant should join every unassigned list";
+            Participant d = new Participant("PVIEW4", "View Four", "view4@test.com", "Chess", 6, "Supporter", 70);
+            Team fourth = new Team(4);
+            fourth.addMember(d);
+            FormationView.publish("ORGVIEW4", 5, 1500, List.of(fourth), List.of());
+            FormationView.invalidateParticipant("pview4");
+            assert FormationView.loaded().keySet().equals(Set.of("ORGVIEW1", "ORGVIEW3"))
+                    : "Only the view placing the participant should be dropped";
+            FormationView.invalidateParticipant("PVIEW2");
+            assert FormationView.loaded().isEmpty() : "Views listing the participant as unassigned should be dropped";
+
+            // Without a reachable database the load fails and nothing is installed
+            FormationView.invalidate();
+            FormationView first = FormationView.current("ORGVIEW1");
+            FormationView second = FormationView.current("ORGVIEW1");
+            assert first.getTeams().isEmpty() : "Failed load should serve an empty view";
+            assert first != second : "Failed load should not be installed";
+
+            testsPassed++;
+            Logger.info("✓ Formation view test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Formation view test failed: " + e.getMessage());
+        } finally {
+            FormationView.invalidate();
+        }
+    }
+
+    private static void testInMemoryRepositories() {
+        Logger.info("Testing In-Memory Repositories...");
+
+        try {
+            Repositories.useInMemory();
+            ParticipantRepository participants = Repositories.participants();
+            TeamRepository teams = Repositories.teams();
+
+            Participant a = new Participant("PMEM1", "Mem One", "one@test.com", "Chess", 5, "Strategist", 90);
+            Participant b = new Participant("PMEM2", "Mem Two", "two@test.com", "FIFA", 7, "Attacker", 60);
+            assert participants.insert(a, "PMEM1-123") : "First insert should succeed";
+            assert participants.insert(b, "PMEM2-123") : "Second insert should succeed";
+            assert !participants.insert(new Participant("PMEM3", "Dup", "ONE@test.com", "Chess", 5, "Defender", 50), "x")
+                    : "Duplicate email should be rejected";
+            assert !participants.updateEmail("PMEM2", "ONE@test.com") : "Email update to a taken email should fail";
+            assert participants.findById("PMEM2").getEmail().equals("two@test.com") : "Rejected email update should not apply";
+
+            assert participants.findById("pmem1") == a : "Lookup by ID should be case-insensitive";
+            assert participants.authenticate("PMEM2", "PMEM2-123") == b : "Correct password should authenticate";
+            assert participants.authenticate("PMEM2", "wrong") == null : "Wrong password should fail";
+
+            Team team = new Team(1);
+            team.addMember(a);
+            assert teams.saveTeams(List.of(team), 3, "ORG001", List.of(b)) : "Save should succeed";
+            assert teams.findTeamIdFor("PMEM1") == 1 : "PMEM1 should be in team 1";
+            assert teams.findTeamFor("PMEM2") == null : "PMEM2 should be unassigned";
+            assert participants.findUnassigned("ORG001").equals(List.of(b)) : "Only PMEM2 should be unassigned";
+
+            // Restoring a version switches the current teams back without changing the newer version
+            int first = teams.getActiveFormationId("ORG001");
+            Team other = new Team(2);
+            other.addMember(b);
+            int second = teams.saveFormationVersion(List.of(other), List.of(a),
+                    FormationStatistics.of(List.of(other), List.of(a), 3), "second", "ORG001");
+            assert teams.findTeamIdFor("PMEM2") == 2 && teams.findTeamIdFor("PMEM1") == null : "Second version should be current";
+            assert teams.activateFormation(first, "ORG001") : "First version should activate";
+            assert teams.findTeamIdFor("PMEM1") == 1 && teams.findTeamFor("PMEM2") == null : "First version should be current again";
+            assert teams.loadFormationVersion(second, participants::findById).getTeams().get(0).getTeamId() == 2
+                    : "Second version should be unchanged";
+
+            // Another organizer's formation does not replace this one's
+            Team both = new Team(5);
+            both.addMember(a);
+            both.addMember(b);
+            assert teams.saveTeams(List.of(both), 3, "ORG002", List.of()) : "Second organizer's save should succeed";
+            assert teams.getActiveFormationId("ORG001") == first : "First organizer's active formation should be kept";
+            assert teams.findAll("ORG001").size() == 1 && teams.findAll("ORG001").get(0).getTeamId() == 1
+                    : "First organizer should still see its own teams";
+            assert teams.findAll("ORG002").get(0).getSize() == 2 : "Second organizer should see its own teams";
+            assert participants.findUnassigned("ORG001").equals(List.of(b)) && participants.findUnassigned("ORG002").isEmpty()
+                    : "Unassigned participants should follow each organizer's formation";
+            assert teams.findTeamIdFor("PMEM1") == 5 : "Newest activated formation should answer participant lookups";
+            assert !teams.activateFormation(first, "ORG002") : "Another organizer's version should not activate";
+            assert teams.activateFormation(first, "ORG001") : "Re-activation should succeed";
+            assert teams.findTeamIdFor("PMEM1") == 1 : "Most recently activated formation should answer participant lookups";
+
+            assert participants.updateSkill("PMEM1", 9) : "Update should find participant";
+            assert teams.findById(1).getMembers().get(0).getSkillLevel() == 9 : "Team should see updated profile";
+            assert !participants.updateSkill("NOPE", 9) : "Update of unknown participant should fail";
+
+            assert participants.delete("PMEM1") : "Delete should succeed";
+            assert teams.findTeamIdFor("PMEM1") == null : "Deleted participant should leave its team";
+            assert teams.findAll("ORG002").get(0).getSize() == 1 : "Delete should reach every organizer's teams";
+            assert Repositories.organizers().authenticate("ORG001", "admin123") != null : "Default organizer should exist";
+
+            testsPassed++;
+            Logger.info("✓ In-memory repository test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ In-memory repository test failed: " + e.getMessage());
+        } finally {
+            Repositories.useMySQL();
+        }
+    }
+
+    private static void testLogStore() {
+        Logger.info("Testing Log Store...");
+        Path dir = null;
+
+        try {
+            dir = Files.createTempDirectory("teammate-log");
+            Path logPath = dir.resolve("teammate.log");
+
+            LogStore store = Repositories.useLogStore(logPath);
+            assert store != null : "Log store should open";
+            Participant a = new Participant("PLOG1", "Log One", "log1@test.com", "Chess", 5, "Strategist", 90);
+            Participant b = new Participant("PLOG2", "Log Two", "log2@test.com", "FIFA", 7, "Attacker", 60);
+            Participant c = new Participant("PLOG3", "Log Three", "log3@test.com", "DOTA 2", 4, "Defender", 40);
+            assert Repositories.participants().insert(a, "PLOG1-123") : "Insert should succeed";
+            assert Repositories.participants().insert(b, "PLOG2-123") : "Insert should succeed";
+            assert Repositories.participants().insert(c, "PLOG3-123") : "Insert should succeed";
+            assert Repositories.participants().updateSkill("PLOG2", 10) : "Update should succeed";
+            assert !Repositories.participants().updateEmail("PLOG2", "LOG1@test.com") : "Taken email should be rejected";
+            assert Repositories.participants().delete("PLOG3") : "Delete should succeed";
+
+            Team team = new Team(1);
+            team.addMember(a);
+            Repositories.teams().saveTeams(List.of(team), 3, "ORG001", List.of(b));
+            long validSize = store.sizeBytes();
+
+            // Simulate a crash in the middle of an append
+            try (RandomAccessFile file = new RandomAccessFile(logPath.toFile(), "rw")) {
+                file.seek(validSize);
+                file.writeInt(64);
+                file.write(new byte[]{1, 7, 7, 7, 7, 42});
+            }
+
+            assert Repositories.useLogStore(logPath) == store : "Same path should keep the open store";
+            assert Repositories.useLogStore(dir) == null : "A directory should not open as a log store";
+            assert Repositories.participants().exists("PLOG1") : "Failed switch should leave the open store in use";
+
+            // Release the log, then replay it
+            Repositories.useInMemory();
+            store = Repositories.useLogStore(logPath);
+            assert store != null : "Log store should reopen";
+            assert store.sizeBytes() == validSize : "Torn tail should be discarded";
+            assert Repositories.participants().findById("PLOG2").getSkillLevel() == 10 : "Latest version should win";
+            assert !Repositories.participants().exists("PLOG3") : "Deleted participant should stay deleted";
+            assert Repositories.teams().findTeamIdFor("PLOG1") == 1 : "Team membership should be replayed";
+            assert Repositories.participants().authenticate("PLOG1", "PLOG1-123") != null : "Password should be replayed";
+
+            store.compact();
+            assert store.sizeBytes() < validSize : "Compaction should drop superseded records";
+            assert Repositories.participants().findAll().size() == 2 : "Compaction should keep live participants";
+
+            Repositories.useInMemory();
+            store = Repositories.useLogStore(logPath);
+            assert store != null && store.participantCount() == 2 : "Compacted log should replay";
+
+            testsPassed++;
+            Logger.info("✓ Log store test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Log store test failed: " + e.getMessage());
+        } finally {
+            Repositories.useMySQL();
+            if (dir != null) {
+                try (var files = Files.list(dir)) {
+                    for (Path file : files.toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                    Files.deleteIfExists(dir);
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    private static void testBloomFilter() {
+        Logger.info("Testing Bloom Filter...");
+
+        try {
+            int keys = 50_000;
+            BloomFilter filter = new BloomFilter(keys, 0.01);
+            for (int i = 0; i < keys; i++) {
+                filter.add(String.format("P%09d", i));
+            }
+
+            for (int i = 0; i < keys; i++) {
+                assert filter.mightContain(String.format("P%09d", i)) : "Added key must never be reported absent";
+            }
+
+            int falsePositives = 0;
+            for (int i = keys; i < keys * 2; i++) {
+                if (filter.mightContain(String.format("P%09d", i))) {
+                    falsePositives++;
+                }
+            }
+            double rate = falsePositives / (double) keys;
+            assert rate < 0.03 : "False-positive rate too high: " + rate;
+            assert filter.getInsertions() == keys : "Insertions should be counted";
+
+            testsPassed++;
+            Logger.info("✓ Bloom filter test passed (false-positive rate " + String.format("%.2f%%", rate * 100)
+                    + ", " + String.format("%.1f", filter.sizeBytes() / (double) keys) + " bytes per key)");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Bloom filter test failed: " + e.getMessage());
+        }
+    }
+
+    private static void testOffHeapRoster() {
+        Logger.info("Testing Off-Heap Roster...");
+
+        try {
+            OffHeapRoster roster = new OffHeapRoster();
+            assert roster.put(new Participant("P000000002", "Bea Two", "bea@test.com", "FIFA", 4, "Attacker", 72)) : "First put should add";
+            assert roster.put(new Participant("P000000001", "Al One", "al@test.com", "Chess", 7, "Strategist", 95)) : "Second put should add";
+            assert !roster.put(new Participant("P000000002", "Bea Two", "bea.two@test.com", "FIFA", 5, "Attacker", 72)) : "Same ID should replace";
+
+            Participant bea = roster.get("P000000002");
+            assert bea.getEmail().equals("bea.two@test.com") && bea.getSkillLevel() == 5 : "Replacement should be visible";
+            assert bea.getPersonalityType() == PersonalityType.BALANCED : "Attributes should round trip";
+            assert roster.get("P000000003") == null : "Unknown ID should be absent";
+
+            List<Participant> ordered = roster.values();
+            assert ordered.size() == 2 && ordered.get(0).getId().equals("P000000001") : "Values should be ordered by ID";
+
+            // IDs that do not encode as numbers are kept in the arena
+            roster.put(new Participant("guest-7", "Guest", "guest@test.com", "Valorant", 3, "Defender", 55));
+            assert roster.get("guest-7").getName().equals("Guest") : "Text ID should round trip";
+            assert roster.values().get(2).getId().equals("guest-7") : "Mixed IDs should sort as strings";
+
+            int[] visited = {0};
+            roster.forEach(p -> visited[0] += p.getSkillLevel());
+            assert visited[0] == 5 + 7 + 3 : "forEach should visit every live participant";
+
+            // Enough removals to trigger compaction; survivors must still be found
+            int bulk = 150_000;
+            for (int i = 10; i < 10 + bulk; i++) {
+                roster.put(new Participant(String.format("P%09d", i), "Bulk " + i, "b" + i + "@test.com", "Chess", 1, "Supporter", 60));
+            }
+            for (int i = 10; i < 10 + bulk; i++) {
+                if (i % 10 != 0) {
+                    assert roster.remove(String.format("P%09d", i)) : "Remove should find " + i;
+                }
+            }
+            assert roster.size() == 3 + bulk / 10 : "Size after removals: " + roster.size();
+            assert roster.get("P000000020").getName().equals("Bulk 20") : "Survivor lost after compaction";
+            assert roster.get("P000000021") == null : "Removed participant still present";
+            assert roster.get("guest-7") != null : "Text ID lost after compaction";
+
+            // Formation reads through the cursor and materializes only what it places
+            TeamFormationThread formation = new TeamFormationThread(roster::forEach, roster::get, 4, null);
+            List<Team> teams = formation.call();
+            assert teams.size() == roster.size() / 4 : "Teams formed from cursor: " + teams.size();
+            assert teams.get(0).getMembers().get(0).getEmail() != null : "Members should be materialized";
+            assert formation.getRemaining().size() == roster.size() % 4 : "Remaining from cursor";
+
+            roster.clear();
+            assert roster.size() == 0 && roster.values().isEmpty() : "Clear should empty the roster";
+            roster.close();
+
+            testsPassed++;
+            Logger.info("✓ Off-heap roster test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Off-heap roster test failed: " + e.getMessage());
+        }
+    }
+
+    private static void testPersistentVector() {
+        Logger.info("Testing Persistent Vector...");
+
+        try {
+            PersistentVector<Integer> empty = PersistentVector.empty();
+            PersistentVector<Integer> vector = empty;
+            List<PersistentVector<Integer>> versions = new ArrayList<>();
+            int count = 33 * 32 + 70;
+            for (int i = 0; i < count; i++) {
+                versions.add(vector);
+                vector = vector.plus(i);
+            }
+
+            assert vector.size() == count : "Size should match appends";
+            for (int i = 0; i < count; i++) {
+                assert vector.get(i) == i : "Wrong element at " + i;
+            }
+            // Every earlier version keeps its own size and contents
+            for (int n : new int[]{0, 1, 32, 33, 1024, 1056, 1057}) {
+                PersistentVector<Integer> old = versions.get(n);
+                assert old.size() == n : "Old version size changed: " + n;
+                assert n == 0 || old.get(n - 1) == n - 1 : "Old version contents changed: " + n;
+            }
+            assert empty.isEmpty() : "Empty vector should stay empty";
+            assert vector.subList(1, 4).equals(List.of(1, 2, 3)) : "List views should work";
+            assert PersistentVector.copyOf(List.of("a", "b")).equals(List.of("a", "b")) : "copyOf should keep order";
+
+            // Bulk-built vectors match appended ones at every leaf and level boundary, and keep growing
+            for (int n : new int[]{1, 32, 33, 64, 65, 1056, 1057, 33 * 32 * 32 + 5}) {
+                List<Integer> values = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    values.add(i);
+                }
+                PersistentVector<Integer> built = PersistentVector.copyOf(values);
+                assert built.equals(values) : "copyOf contents differ at size " + n;
+                PersistentVector<Integer> grown = built.plus(n);
+                assert grown.size() == n + 1 && grown.get(n) == n && grown.get(n - 1) == n - 1 : "plus after copyOf at size " + n;
+            }
+
+            try {
+                vector.get(count);
+                assert false : "Out of range index should throw";
+            } catch (IndexOutOfBoundsException expected) {
+                // expected
+            }
+
+            testsPassed++;
+            Logger.info("✓ Persistent vector test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Persistent vector test failed: " + e.getMessage());
+        }
+    }
+
+    private static void testTimingWheel() {
+        Logger.info("Testing Timing Wheel...");
+
+        try {
+            TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+            wheel.schedule("soon", 250);
+            wheel.schedule("later", 250 + 8 * 100);     // same bucket, one rotation on
+            wheel.schedule("past", 0);                  // already due: fires on the next tick
+
+            assert wheel.advance(50).isEmpty() : "Nothing is due within the first tick";
+            assert wheel.advance(100).equals(List.of("past")) : "Past deadlines fire on the next tick";
+            assert wheel.advance(299).isEmpty() : "Deadline 250 is not due before tick 3";
+            assert wheel.advance(300).equals(List.of("soon")) : "Deadline 250 fires at tick 3";
+            assert wheel.advance(1000).isEmpty() : "Later entry must wait for its own rotation";
+            assert wheel.size() == 1 : "One entry should remain";
+            assert wheel.advance(1100).equals(List.of("later")) : "Later entry fires after a full rotation";
+
+            // A jump over several rotations visits each bucket once and finds everything due
+            for (int i = 0; i < 100; i++) {
+                wheel.schedule("bulk" + i, 1200 + i * 37L);
+            }
+            assert wheel.advance(100_000).size() == 100 : "Large jumps should expire every due entry";
+            assert wheel.size() == 0 : "Wheel should be empty";
+
+            testsPassed++;
+            Logger.info("✓ Timing wheel test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Timing wheel test failed: " + e.getMessage());
+        }
+    }
+
+    private static void testSessionManager() {
+        Logger.info("Testing Session Manager...");
+
+        try {
+            Repositories.useInMemory();
+            assert SessionManager.loginOrganizer("ORG001", "wrong") == null : "Wrong password should be rejected";
+
+            UserSession organizer = SessionManager.loginOrganizer("ORG001", "admin123");
+            assert organizer != null && organizer.getKind() == UserSession.Kind.ORGANIZER : "Organizer should get a session";
+            assert organizer.getOrganizerSession() == SessionRegistry.getOrganizerSession("ORG001") : "Session should own the workspace";
+            assert SessionManager.authorize(organizer.getToken()) == organizer : "Token should authorize";
+            assert SessionManager.authorize("not-a-token") == null : "Unknown token should be rejected";
+
+            Participant p = new Participant("PSES1", "Sess One", "sess1@test.com", "Chess", 5, "Strategist", 80);
+            Repositories.participants().insert(p, "PSES1-123");
+            UserSession participant = SessionManager.loginParticipant("PSES1", "PSES1-123");
+            assert participant.getParticipant() == p && participant.getOrganizer() == null : "Principal should be cached";
+            assert !participant.getToken().equals(organizer.getToken()) : "Tokens should be unique";
+
+            SessionManager.logout(participant.getToken());
+            assert SessionManager.authorize(participant.getToken()) == null : "Logged out token should be rejected";
+
+            // Once idle past the timeout the wheel ends the session and releases the workspace
+            long idle = System.currentTimeMillis() + SessionManager.getTimeoutMillis() + 2000;
+            assert SessionManager.expireIdle(idle) >= 1 : "Idle organizer session should expire";
+            assert SessionManager.authorize(organizer.getToken()) == null : "Expired token should be rejected";
+            assert SessionRegistry.getOrganizerSession("ORG001") == null : "Expiry should close the workspace";
+
+            testsPassed++;
+            Logger.info("✓ Session manager test passed");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Session manager test failed: " + e.getMessage());
+        } finally {
+            SessionManager.shutdown();
+            Repositories.useMySQL();
+        }
+    }
+
+    private static void testDeadline() {
+        Logger.info("Testing Deadline...");
+
+        try {
+            assert Deadline.current() == null : "No deadline should be bound";
+
+            // A nested deadline never outlives the enclosing one
+            try (Deadline outer = Deadline.start("deadlineOuter", 200)) {
+                try (Deadline inner = Deadline.start("deadlineInner", 10_000)) {
+                    assert Deadline.current() == inner : "Inner deadline should be current";
+                    assert inner.remainingMillis() <= 200 : "Inner deadline should be capped by the outer one";
+                }
+                assert Deadline.current() == outer : "Closing should restore the outer deadline";
+
+                // Async calls carry the caller's budget to the worker thread
+                long remaining = AsyncDao.supply("deadlineAsync", 10_000,
+                        () -> Deadline.current().remainingMillis()).get(5, TimeUnit.SECONDS);
+                assert remaining <= 200 : "Async call should share the caller's budget: " + remaining;
+            }
+            assert Deadline.current() == null : "Closing should unbind the deadline";
+
+            // An overrun is counted once, against the operation that owns the budget
+            long before = Deadline.getExceededCount();
+            try (Deadline outer = Deadline.start("deadlineComposite", 20)) {
+                try (Deadline inner = Deadline.start("deadlineStep", 1000)) {
+                    Thread.sleep(50);
+                    assert outer.isExpired() && inner.isExpired() : "Inner deadline should expire with the outer one";
+                }
+            }
+            assert Deadline.getExceededCount() == before + 1 : "Overrun should be counted once";
+            assert Deadline.getExceededCount("deadlineComposite") == 1 : "Overrun belongs to the composite operation";
+            assert Deadline.getExceededCount("deadlineStep") == 0 : "Inherited budget should not be counted twice";
+
+            try (Deadline fast = Deadline.start("deadlineFast", 1000)) {
+                assert !fast.isExpired() : "Fresh deadline should not be expired";
+            }
+            assert Deadline.getExceededCount("deadlineFast") == 0 : "Operation within budget should not count";
+
+            testsPassed++;
+            Logger.info("✓ Deadline test passed (" + Deadline.getStatsSummary() + ")");
+
+        } catch (AssertionError | Exception e) {
+            testsFailed++;
+            Logger.error("✗ Deadline test failed: " + e.getMessage());
+        }
+    }
+
     private static void printTestResults() {
         Logger.info("\n╔════════════════════════════════════╗");
         Logger.info("║       UNIT TEST RESULTS            ║");
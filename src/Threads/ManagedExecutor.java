@@ -0,0 +1,202 @@
+package Threads;
+
+import Log.Logger;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named, long-lived executor with a bounded backlog and usage counters.
+ * At most concurrency + queueCapacity tasks are admitted at once; a submitter that finds the
+ * backlog full waits up to the admission timeout for room, then the task is rejected.
+ * Platform pools run tasks on a fixed set of threads; virtual pools start a virtual thread per
+ * task and cap how many run at once, which suits blocking database and file work.
+ */
+public final class ManagedExecutor implements Executor {
+    private final String name;
+    private final ExecutorService delegate;
+    private final int concurrency;
+    private final Semaphore admission;
+    // Only for virtual pools, where the thread count itself is not bounded
+    private final Semaphore running;
+    private final long admissionTimeoutMillis;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private ManagedExecutor(String name, ExecutorService delegate, int concurrency, int queueCapacity,
+                            boolean limitRunning, long admissionTimeoutMillis) {
+        this.name = name;
+        this.delegate = delegate;
+        this.concurrency = concurrency;
+        this.admission = new Semaphore(concurrency + queueCapacity);
+        this.running = limitRunning ? new Semaphore(concurrency) : null;
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+    }
+
+    /**
+     * Fixed pool of daemon platform threads named name-1, name-2, ...
+     */
+    public static ManagedExecutor platform(String name, int threads, int queueCapacity, long admissionTimeoutMillis) {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ManagedExecutor(name, pool, threads, queueCapacity, false, admissionTimeoutMillis);
+    }
+
+    /**
+     * One virtual thread per task, with at most maxConcurrent running
+     */
+    public static ManagedExecutor virtual(String name, int maxConcurrent, int queueCapacity, long admissionTimeoutMillis) {
+        ExecutorService pool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        return new ManagedExecutor(name, pool, maxConcurrent, queueCapacity, true, admissionTimeoutMillis);
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task) {
+            @Override
+            protected void setException(Throwable t) {
+                failed.incrementAndGet();
+                super.setException(t);
+            }
+        };
+        execute(future);
+        return future;
+    }
+
+    public Future<?> submit(Runnable task) {
+        return submit(Executors.callable(task));
+    }
+
+    /**
+     * Run a task, waiting for room in the backlog if it is full
+     *
+     * @throws RejectedExecutionException if no room frees up in time or the pool is shut down
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (delegate.isShutdown()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(name + " is shut down");
+        }
+
+        boolean admittedTask;
+        try {
+            admittedTask = admission.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admittedTask = false;
+        }
+        if (!admittedTask) {
+            rejected.incrementAndGet();
+            Logger.warning(name + " rejected a task: backlog full (" + getMetricsSummary() + ")");
+            throw new RejectedExecutionException(name + " backlog is full");
+        }
+
+        admitted.incrementAndGet();
+        try {
+            delegate.execute(() -> runAdmitted(task));
+        } catch (RejectedExecutionException e) {
+            admitted.decrementAndGet();
+            admission.release();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void runAdmitted(Runnable task) {
+        try {
+            if (running != null) {
+                running.acquire();
+            }
+            try {
+                active.incrementAndGet();
+                task.run();
+            } catch (RuntimeException | Error e) {
+                failed.incrementAndGet();
+                throw e;
+            } finally {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+                if (running != null) {
+                    running.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shut down while waiting for a slot
+            Thread.currentThread().interrupt();
+        } finally {
+            admitted.decrementAndGet();
+            admission.release();
+        }
+    }
+
+    /**
+     * Stop accepting tasks and wait for admitted ones; remaining tasks are interrupted after the timeout
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        delegate.shutdown();
+        try {
+            if (delegate.awaitTermination(timeout, unit)) {
+                return true;
+            }
+            Logger.warning(name + " did not finish within " + timeout + " " + unit.toString().toLowerCase()
+                    + "; interrupting " + active.get() + " running tasks");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.shutdownNow();
+        return false;
+    }
+
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Tasks admitted but not yet running
+     */
+    public int getQueuedCount() {
+        return Math.max(0, admitted.get() - active.get());
+    }
+
+    /**
+     * Tasks that have finished running, including failed ones
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public String getMetricsSummary() {
+        return String.format("%s[concurrency=%d, active=%d, queued=%d, completed=%d, failed=%d, rejected=%d]",
+                name, concurrency, getActiveCount(), getQueuedCount(), getCompletedCount(),
+                getFailedCount(), getRejectedCount());
+    }
+}
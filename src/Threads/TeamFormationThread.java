@@ -1,128 +1,270 @@
 package Threads;
 
 import Entity.Participant;
+import Entity.ParticipantView;
 import Entity.Team;
-import Enums.Game;
-import Enums.Role;
 import Enums.PersonalityType;
 import Exceptions.InsufficientParticipantsException;
 import Exceptions.NoParticipantsException;
+import Log.Logger;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Forms balanced teams from a roster. The roster is read once, when the task is created,
+ * into packed per-participant traits; selection works on those, and a Participant is only
+ * materialized when its team is complete. Rosters that hand out flyweight views (such as the
+ * off-heap roster) are therefore never copied into a list of Participant objects.
+ */
 public class TeamFormationThread implements Callable<List<Team>> {
-    private final List<Participant> participants;
+    private static final int LEADER = PersonalityType.LEADER.ordinal();
+    private static final int THINKER = PersonalityType.THINKER.ordinal();
+
     private final int teamSize;
+    private final Consumer<Team> onTeamFormed;
+    private final Function<String, Participant> resolve;
+
+    // Scanned roster: the Participant when the roster handed one out, otherwise only its ID
+    private Participant[] participants = new Participant[16];
+    private String[] ids = new String[16];
+    private int[] traits = new int[16]; // game << 16 | role << 8 | personality type
+    private int count = 0;
+
+    private List<Participant> remaining = List.of();
 
     public TeamFormationThread(List<Participant> participants, int teamSize) {
-        this.participants = new ArrayList<>(participants);
+        this(participants, teamSize, null);
+    }
+
+    // onTeamFormed receives each team as soon as it is complete, on the forming thread
+    public TeamFormationThread(List<Participant> participants, int teamSize, Consumer<Team> onTeamFormed) {
+        this(participants::forEach, null, teamSize, onTeamFormed);
+    }
+
+    /**
+     * Form teams from a roster visited through views. Views that are not Participant objects are
+     * only valid inside the callback, so they are resolved by ID, through resolve, once selected.
+     */
+    public TeamFormationThread(Consumer<Consumer<? super ParticipantView>> roster, Function<String, Participant> resolve,
+                               int teamSize, Consumer<Team> onTeamFormed) {
         this.teamSize = teamSize;
+        this.onTeamFormed = onTeamFormed;
+        this.resolve = resolve;
+        roster.accept(this::add);
+    }
+
+    /**
+     * Number of participants the formation ran on
+     */
+    public int getParticipantCount() {
+        return count;
+    }
+
+    /**
+     * Participants left without a team, in roster order; empty until call() completes
+     */
+    public List<Participant> getRemaining() {
+        return remaining;
     }
 
     @Override
     public List<Team> call() throws Exception {
-        if (participants.isEmpty()) {
+        if (count == 0) {
             throw new NoParticipantsException("No participants available for team formation");
         }
 
-        if (participants.size() < teamSize) {
+        if (count < teamSize) {
             throw new InsufficientParticipantsException(
-                    "Not enough participants. Need at least " + teamSize + ", but only " + participants.size() + " available"
+                    "Not enough participants. Need at least " + teamSize + ", but only " + count + " available"
             );
         }
 
         List<Team> formedTeams = new ArrayList<>();
-        List<Participant> available = new ArrayList<>(participants);
-        Collections.shuffle(available); // Randomize for fairness
+        Pool pool = new Pool(count);
+        pool.shuffle(); // Randomize for fairness
 
         int teamId = 1;
+        int[] members = new int[teamSize];
 
-        while (available.size() >= teamSize) {
-            Team team = new Team(teamId++);
-            List<Participant> teamMembers = selectBalancedTeam(available, teamSize);
+        while (pool.live >= teamSize) {
+            selectBalancedTeam(pool, members);
 
-            for (Participant p : teamMembers) {
-                team.addMember(p);
-                available.remove(p);
+            Team team = new Team(teamId++);
+            for (int member : members) {
+                Participant p = materialize(member);
+                if (p != null) {
+                    team.addMember(p);
+                }
             }
 
             formedTeams.add(team);
+            if (onTeamFormed != null) {
+                onTeamFormed.accept(team);
+            }
         }
 
+        List<Participant> left = new ArrayList<>(pool.live);
+        for (int i = 0; i < count; i++) {
+            if (!pool.taken[i]) {
+                Participant p = materialize(i);
+                if (p != null) {
+                    left.add(p);
+                }
+            }
+        }
+        remaining = left;
+
         return formedTeams;
     }
 
-    private List<Participant> selectBalancedTeam(List<Participant> available, int size) {
-        List<Participant> selected = new ArrayList<>();
-        List<Participant> pool = new ArrayList<>(available);
+    /**
+     * Fill members with the next team and take them from the pool
+     */
+    private void selectBalancedTeam(Pool pool, int[] members) {
+        int selected = 0;
+        int usedRoles = 0;
+        int[] gameCounts = new int[256];
+        boolean hasThinker = false;
 
         // 1. Try to get at least one leader
-        Participant leader = pool.stream()
-                .filter(p -> p.getPersonalityType() == PersonalityType.LEADER)
-                .findFirst()
-                .orElse(null);
-
-        if (leader != null) {
-            selected.add(leader);
-            pool.remove(leader);
-        }
-
-        // 2. Select remaining members ensuring role diversity
-        Set<Role> usedRoles = new HashSet<>();
-        Set<Game> usedGames = new HashSet<>();
-
-        if (leader != null) {
-            usedRoles.add(leader.getRole());
-            usedGames.add(leader.getGame());
+        for (int i = 0; i < pool.size; i++) {
+            int candidate = pool.order[i];
+            if (!pool.taken[candidate] && type(candidate) == LEADER) {
+                members[selected++] = candidate;
+                pool.take(candidate);
+                usedRoles |= 1 << role(candidate);
+                gameCounts[game(candidate)]++;
+                break;
+            }
         }
 
-        while (selected.size() < size && !pool.isEmpty()) {
-            Participant best = null;
+        // 2. Select remaining members ensuring role diversity; the first best-scoring candidate wins
+        while (selected < members.length && pool.live > 0) {
+            boolean thinkerWanted = selected < members.length - 1 && !hasThinker;
+            int maxScore = 3 + 2 + (thinkerWanted ? 2 : 0);
+            int best = -1;
             int bestScore = -1;
 
-            for (Participant p : pool) {
+            for (int i = 0; i < pool.size; i++) {
+                int candidate = pool.order[i];
+                if (pool.taken[candidate]) {
+                    continue;
+                }
+
                 int score = 0;
 
                 // Prefer different roles
-                if (!usedRoles.contains(p.getRole())) {
+                if ((usedRoles & 1 << role(candidate)) == 0) {
                     score += 3;
                 }
 
                 // Prefer different games (max 2 per game)
-                long gameCount = selected.stream()
-                        .filter(s -> s.getGame() == p.getGame())
-                        .count();
-                if (gameCount < 2) {
+                if (gameCounts[game(candidate)] < 2) {
                     score += 2;
                 }
 
                 // Balance personality types
-                if (selected.size() < size - 1) {
-                    if (p.getPersonalityType() == PersonalityType.THINKER &&
-                            selected.stream().noneMatch(s -> s.getPersonalityType() == PersonalityType.THINKER)) {
-                        score += 2;
-                    }
+                if (thinkerWanted && type(candidate) == THINKER) {
+                    score += 2;
                 }
 
                 if (score > bestScore) {
                     bestScore = score;
-                    best = p;
+                    best = candidate;
+                    if (score == maxScore) {
+                        break; // no later candidate can beat it
+                    }
                 }
             }
 
-            if (best != null) {
-                selected.add(best);
-                usedRoles.add(best.getRole());
-                usedGames.add(best.getGame());
-                pool.remove(best);
-            } else {
-                // Just pick the first available
-                selected.add(pool.getFirst());
-                pool.removeFirst();
+            members[selected++] = best;
+            pool.take(best);
+            usedRoles |= 1 << role(best);
+            gameCounts[game(best)]++;
+            hasThinker |= type(best) == THINKER;
+        }
+    }
+
+    private void add(ParticipantView view) {
+        if (count == traits.length) {
+            int capacity = count * 2;
+            participants = Arrays.copyOf(participants, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            traits = Arrays.copyOf(traits, capacity);
+        }
+        if (view instanceof Participant p) {
+            participants[count] = p;
+        } else {
+            ids[count] = view.getId();
+        }
+        traits[count] = view.getGame().ordinal() << 16 | view.getRole().ordinal() << 8 | view.getPersonalityType().ordinal();
+        count++;
+    }
+
+    private Participant materialize(int i) {
+        Participant p = participants[i] != null ? participants[i] : resolve.apply(ids[i]);
+        if (p == null) {
+            Logger.warning("Participant " + ids[i] + " left the roster during team formation");
+        }
+        return p;
+    }
+
+    private int game(int i) {
+        return traits[i] >>> 16;
+    }
+
+    private int role(int i) {
+        return (traits[i] >>> 8) & 0xFF;
+    }
+
+    private int type(int i) {
+        return traits[i] & 0xFF;
+    }
+
+    /**
+     * Candidates in shuffled order; taken ones are skipped and squeezed out once they outnumber the rest
+     */
+    private static final class Pool {
+        private final int[] order;
+        private final boolean[] taken;
+        private int size;
+        private int live;
+
+        private Pool(int count) {
+            order = new int[count];
+            taken = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            size = count;
+            live = count;
+        }
+
+        private void shuffle() {
+            Random random = ThreadLocalRandom.current();
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
             }
         }
 
-        return selected;
+        private void take(int candidate) {
+            taken[candidate] = true;
+            live--;
+            if (size - live > live) {
+                int n = 0;
+                for (int i = 0; i < size; i++) {
+                    if (!taken[order[i]]) {
+                        order[n++] = order[i];
+                    }
+                }
+                size = n;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package Threads;
+
+import Entity.Participant;
+import Entity.Team;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Writes teams to CSV while they are still being formed. The formation side hands over each
+ * team with accept() and ends the stream with finish() or abort(); rows go to a temporary
+ * file that replaces the target only when the whole formation has been written.
+ */
+public class TeamStreamSaverThread implements Callable<Boolean> {
+    private static final Team END = new Team(-1);
+    private static final Team ABORT = new Team(-1);
+
+    private final BlockingQueue<Team> queue = new LinkedBlockingQueue<>();
+    private final String filePath;
+    private volatile List<Participant> remaining = List.of();
+
+    public TeamStreamSaverThread(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public void accept(Team team) {
+        queue.add(team);
+    }
+
+    /**
+     * Formation finished: write the unassigned participants with TeamID=0 and publish the file
+     */
+    public void finish(List<Participant> remainingParticipants) {
+        remaining = remainingParticipants;
+        queue.add(END);
+    }
+
+    /**
+     * Formation failed: discard what was written
+     */
+    public void abort() {
+        queue.add(ABORT);
+    }
+
+    /**
+     * @return true if the file was written, false if the formation was aborted
+     */
+    @Override
+    public Boolean call() throws Exception {
+        Path target = Paths.get(filePath);
+        Path parentDir = target.toAbsolutePath().getParent();
+        if (parentDir != null) {
+            Files.createDirectories(parentDir);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        boolean complete = false;
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(temp))) {
+            writer.println("TeamID,ParticipantID,ParticipantName,Email,Game,SkillLevel,Role,PersonalityScore,PersonalityType");
+
+            Team team;
+            while ((team = queue.take()) != END && team != ABORT) {
+                for (Participant p : team.getMembers()) {
+                    writer.println(team.getTeamId() + "," + p.toCSVString());
+                }
+            }
+            if (team == ABORT) {
+                return false;
+            }
+
+            for (Participant p : remaining) {
+                writer.println("0," + p.toCSVString());
+            }
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Error writing " + temp);
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+}
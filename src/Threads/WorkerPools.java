@@ -0,0 +1,92 @@
+package Threads;
+
+import Database.DatabaseConfig;
+import Log.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's shared executors, created on first use and stopped by the shutdown hook.
+ * cpu() runs computation such as team formation on one platform thread per core;
+ * io() runs database and file work on virtual threads, capped near the connection pool size.
+ * Sizes come from the app.executor.* keys in DatabaseConfig.properties.
+ */
+public final class WorkerPools {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static volatile ManagedExecutor cpu = null;
+    private static volatile ManagedExecutor io = null;
+
+    private WorkerPools() {}
+
+    public static ManagedExecutor cpu() {
+        ManagedExecutor pool = cpu;
+        if (pool == null) {
+            synchronized (WorkerPools.class) {
+                if (cpu == null) {
+                    int threads = Math.max(1, DatabaseConfig.getInt("app.executor.cpu.threads",
+                            Runtime.getRuntime().availableProcessors()));
+                    cpu = ManagedExecutor.platform("teammate-cpu", threads,
+                            DatabaseConfig.getInt("app.executor.cpu.queue", 64),
+                            DatabaseConfig.getLong("app.executor.admission.timeout.ms", 5000));
+                    Logger.info("Started " + cpu.getMetricsSummary());
+                }
+                pool = cpu;
+            }
+        }
+        return pool;
+    }
+
+    public static ManagedExecutor io() {
+        ManagedExecutor pool = io;
+        if (pool == null) {
+            synchronized (WorkerPools.class) {
+                if (io == null) {
+                    int concurrency = Math.max(1, DatabaseConfig.getInt("app.executor.io.concurrency",
+                            DatabaseConfig.getInt("db.pool.maxActive", 20)));
+                    io = ManagedExecutor.virtual("teammate-io", concurrency,
+                            DatabaseConfig.getInt("app.executor.io.queue", 1000),
+                            DatabaseConfig.getLong("app.executor.admission.timeout.ms", 5000));
+                    Logger.info("Started " + io.getMetricsSummary());
+                }
+                pool = io;
+            }
+        }
+        return pool;
+    }
+
+    public static String getStatsSummary() {
+        ManagedExecutor cpuPool = cpu;
+        ManagedExecutor ioPool = io;
+        return "WorkerPools[" + (cpuPool != null ? cpuPool.getMetricsSummary() : "teammate-cpu not started")
+                + ", " + (ioPool != null ? ioPool.getMetricsSummary() : "teammate-io not started") + "]";
+    }
+
+    public static void logStats() {
+        Logger.info(getStatsSummary());
+    }
+
+    /**
+     * Let running and queued tasks finish, then stop both pools. Later use starts fresh pools.
+     */
+    public static void shutdown() {
+        ManagedExecutor cpuPool;
+        ManagedExecutor ioPool;
+        synchronized (WorkerPools.class) {
+            cpuPool = cpu;
+            ioPool = io;
+            cpu = null;
+            io = null;
+        }
+
+        // CPU tasks may still hand work to the I/O pool, so drain them first
+        if (cpuPool != null) {
+            cpuPool.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Logger.info("Stopped " + cpuPool.getMetricsSummary());
+        }
+        if (ioPool != null) {
+            ioPool.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Logger.info("Stopped " + ioPool.getMetricsSummary());
+        }
+    }
+}